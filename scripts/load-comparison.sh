@@ -0,0 +1,79 @@
+#!/usr/bin/env bash
+#
+# Compares throughput and p99 latency of the platform-thread and virtual-thread modes
+# under a blocking-heavy load (every request below performs a JDBC round trip).
+#
+# Requirements: a packaged jar (./mvnw -q package -DskipTests), curl and hey
+# (https://github.com/rakyll/hey). Point DB_URL at a networked database to make the
+# JDBC wait dominate; the default in-memory H2 understates blocking. The jar ships the
+# PostgreSQL driver, e.g.:
+#
+#   DB_URL=jdbc:postgresql://localhost:5432/coupon DB_USER=coupon DB_PASSWORD=secret \
+#     ./scripts/load-comparison.sh
+#
+# Results are written to target/load-comparison/summary.md.
+set -euo pipefail
+
+JAR=${JAR:-$(ls target/coupon-api-*.jar | head -n 1)}
+PORT=${PORT:-8090}
+CONCURRENCY=${CONCURRENCY:-400}
+DURATION=${DURATION:-60s}
+POOL_SIZE=${POOL_SIZE:-50}
+DB_URL=${DB_URL:-}
+DB_USER=${DB_USER:-}
+DB_PASSWORD=${DB_PASSWORD:-}
+OUT=target/load-comparison
+
+mkdir -p "$OUT"
+
+start_app() {
+  local mode=$1 virtual=$2
+  local args=(--server.port="$PORT" --spring.datasource.hikari.maximum-pool-size="$POOL_SIZE")
+  if [[ -n "$DB_URL" ]]; then
+    args+=(--spring.datasource.url="$DB_URL" --spring.datasource.username="$DB_USER" --spring.datasource.password="$DB_PASSWORD")
+  fi
+  COUPON_VIRTUAL_THREADS=$virtual java -jar "$JAR" "${args[@]}" > "$OUT/$mode-app.log" 2>&1 &
+  APP_PID=$!
+  for _ in $(seq 1 60); do
+    if curl -fs "http://localhost:$PORT/swagger-ui.html" > /dev/null; then
+      return
+    fi
+    sleep 1
+  done
+  echo "Application did not start in $mode mode, see $OUT/$mode-app.log" >&2
+  exit 1
+}
+
+run_mode() {
+  local mode=$1 virtual=$2
+  start_app "$mode" "$virtual"
+
+  curl -fs -X POST "http://localhost:$PORT/coupon" \
+    -H "Content-Type: application/json" \
+    -d '{"code":"LOAD01","description":"Load test","discountValue":1.0,"expirationDate":"2099-12-31T00:00:00Z","published":true}' \
+    > /dev/null || true
+
+  # Warm-up, then the measured run
+  hey -z 10s -c "$CONCURRENCY" "http://localhost:$PORT/coupon/code/LOAD01" > /dev/null
+  hey -z "$DURATION" -c "$CONCURRENCY" "http://localhost:$PORT/coupon/code/LOAD01" > "$OUT/$mode.txt"
+
+  kill "$APP_PID"
+  wait "$APP_PID" 2> /dev/null || true
+
+  local rps p99
+  rps=$(awk '/Requests\/sec/ {print $2}' "$OUT/$mode.txt")
+  p99=$(awk '/ 99% in/ {print $3}' "$OUT/$mode.txt")
+  echo "| $mode | $rps | $p99 |" >> "$OUT/summary.md"
+}
+
+{
+  echo "Concurrency: $CONCURRENCY, duration: $DURATION, pool size: $POOL_SIZE"
+  echo
+  echo "| Mode | Requests/sec | p99 latency (s) |"
+  echo "|------|--------------|-----------------|"
+} > "$OUT/summary.md"
+
+run_mode platform false
+run_mode virtual true
+
+cat "$OUT/summary.md"
@@ -0,0 +1,36 @@
+package com.outforce.coupon.benchmark;
+
+import com.outforce.coupon.domain.CouponCode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Canonicalization cost of {@link CouponCode}: user input with separators and lower case,
+ * and already canonical codes as they come back from the database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CouponCodeBenchmark {
+
+    @Param({"abc-123", "ABC123"})
+    public String raw;
+
+    @Benchmark
+    public CouponCode construct() {
+        return new CouponCode(raw);
+    }
+}
@@ -0,0 +1,34 @@
+package com.outforce.coupon.benchmark;
+
+import com.outforce.coupon.domain.Coupon;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.concurrent.TimeUnit;
+
+/** {@link Coupon#create} including validation, clock reads and id generation. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CouponCreateBenchmark {
+
+    private final BigDecimal discount = new BigDecimal("10.00");
+    private final OffsetDateTime expiration = OffsetDateTime.now().plusYears(1);
+
+    @Benchmark
+    public Coupon create() {
+        return Coupon.create("abc-123", "Benchmark coupon", discount, expiration, true);
+    }
+}
@@ -0,0 +1,126 @@
+package com.outforce.coupon.benchmark;
+
+import com.outforce.coupon.domain.CouponIdGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Comparator;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Insert throughput into a BINARY(16) primary key that already holds {@code preloadedRows}
+ * rows, with random (v4) versus time-ordered (v7) ids, on a file-backed H2 database.
+ * Random ids touch a different B-tree page on nearly every insert once the index no
+ * longer fits in cache; time-ordered ids keep appending to the same rightmost pages.
+ * The on-disk size of the table and its index is printed at the end of each trial.
+ *
+ * <p>Preloading 10M rows takes a few minutes per strategy; pass {@code -p preloadedRows=...}
+ * for a quicker run.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class CouponIdInsertBenchmark {
+
+    private static final int BATCH_SIZE = 1_000;
+    private static final int PRELOAD_BATCH_SIZE = 10_000;
+
+    @Param({"random", "time-ordered"})
+    public String strategy;
+
+    @Param("10000000")
+    public int preloadedRows;
+
+    private final Path directory = Path.of("target", "jmh-h2");
+    private CouponIdGenerator ids;
+    private Connection connection;
+    private PreparedStatement insert;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException, IOException {
+        ids = "random".equals(strategy) ? CouponIdGenerator.random() : CouponIdGenerator.timeOrdered();
+        deleteDatabase();
+        connection = DriverManager.getConnection("jdbc:h2:file:" + directory.resolve(strategy).toAbsolutePath(), "sa", "");
+        connection.setAutoCommit(false);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE coupons (id BINARY(16) PRIMARY KEY, code CHAR(6) NOT NULL)");
+        }
+        insert = connection.prepareStatement("INSERT INTO coupons (id, code) VALUES (?, ?)");
+        for (int loaded = 0; loaded < preloadedRows; loaded += PRELOAD_BATCH_SIZE) {
+            insertBatch(Math.min(PRELOAD_BATCH_SIZE, preloadedRows - loaded));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void insert() throws SQLException {
+        insertBatch(BATCH_SIZE);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException, IOException {
+        try (Statement statement = connection.createStatement();
+             ResultSet size = statement.executeQuery(
+                 "SELECT COUNT(*), DISK_SPACE_USED('COUPONS') FROM coupons")) {
+            size.next();
+            System.out.printf("%n[%s] rows=%d table+index bytes=%d%n", strategy, size.getLong(1), size.getLong(2));
+        }
+        connection.close();
+        deleteDatabase();
+    }
+
+    private void insertBatch(int rows) throws SQLException {
+        for (int i = 0; i < rows; i++) {
+            insert.setBytes(1, bytes(ids.next()));
+            insert.setString(2, "BENCH1");
+            insert.addBatch();
+        }
+        insert.executeBatch();
+        connection.commit();
+    }
+
+    private static byte[] bytes(UUID id) {
+        return ByteBuffer.allocate(16)
+            .putLong(id.getMostSignificantBits())
+            .putLong(id.getLeastSignificantBits())
+            .array();
+    }
+
+    private void deleteDatabase() throws IOException {
+        if (!Files.exists(directory)) {
+            return;
+        }
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.outforce.coupon.benchmark;
+
+import com.outforce.coupon.domain.Coupon;
+import com.outforce.coupon.infrastructure.persistence.CouponJpaEntity;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.concurrent.TimeUnit;
+
+/** Domain to JPA entity and back, as paid on every write and every row loaded. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CouponMappingBenchmark {
+
+    private Coupon coupon;
+    private CouponJpaEntity entity;
+
+    @Setup
+    public void setUp() {
+        coupon = Coupon.create("ABC123", "Benchmark coupon", new BigDecimal("10.00"), OffsetDateTime.now().plusYears(1), true);
+        entity = CouponJpaEntity.from(coupon);
+    }
+
+    @Benchmark
+    public CouponJpaEntity toEntity() {
+        return CouponJpaEntity.from(coupon);
+    }
+
+    @Benchmark
+    public Coupon toDomain() {
+        return entity.toDomain();
+    }
+}
@@ -0,0 +1,59 @@
+package com.outforce.coupon.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.outforce.coupon.application.get.GetCouponResponse;
+import com.outforce.coupon.domain.Coupon;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building the response record and writing it as JSON, with an ObjectMapper
+ * configured the way Spring MVC configures its own.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CouponResponseBenchmark {
+
+    private Coupon coupon;
+    private GetCouponResponse response;
+    private ObjectMapper objectMapper;
+
+    @Setup
+    public void setUp() {
+        coupon = Coupon.create("ABC123", "Benchmark coupon", new BigDecimal("10.00"), OffsetDateTime.now().plusYears(1), true);
+        response = GetCouponResponse.from(coupon);
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    }
+
+    @Benchmark
+    public GetCouponResponse from() {
+        return GetCouponResponse.from(coupon);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws Exception {
+        return objectMapper.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public byte[] fromAndSerialize() throws Exception {
+        return objectMapper.writeValueAsBytes(GetCouponResponse.from(coupon));
+    }
+}
@@ -0,0 +1,89 @@
+package com.outforce.coupon.benchmark;
+
+import com.outforce.coupon.domain.DiscountAllocator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Spreading one coupon over a cart: {@link DiscountAllocator} on cents in {@code long}s
+ * versus the same allocation in {@code BigDecimal}. Run with {@code -prof gc} (the profile
+ * default) to compare bytes allocated per operation as well as time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DiscountAllocationBenchmark {
+
+    private static final RoundingMode MODE = RoundingMode.HALF_EVEN;
+
+    @Param({"5", "50", "500"})
+    public int lines;
+
+    private long discountCents;
+    private long[] amountCents;
+    private long[] discountCentsOut;
+    private BigDecimal discount;
+    private BigDecimal[] amounts;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        amountCents = new long[lines];
+        amounts = new BigDecimal[lines];
+        long subtotal = 0;
+        for (int i = 0; i < lines; i++) {
+            amountCents[i] = random.nextLong(1_00, 500_00);
+            amounts[i] = DiscountAllocator.fromCents(amountCents[i]);
+            subtotal += amountCents[i];
+        }
+        discountCents = subtotal / 3;
+        discount = DiscountAllocator.fromCents(discountCents);
+        discountCentsOut = new long[lines];
+    }
+
+    @Benchmark
+    public long fixedPoint() {
+        return DiscountAllocator.allocate(discountCents, amountCents, lines, discountCentsOut, MODE);
+    }
+
+    @Benchmark
+    public BigDecimal[] bigDecimal() {
+        BigDecimal subtotal = BigDecimal.ZERO;
+        for (BigDecimal amount : amounts) {
+            subtotal = subtotal.add(amount);
+        }
+        BigDecimal applied = discount.min(subtotal);
+        BigDecimal[] shares = new BigDecimal[lines];
+        BigDecimal allocated = BigDecimal.ZERO;
+        for (int i = 0; i < lines; i++) {
+            shares[i] = applied.multiply(amounts[i]).divide(subtotal, DiscountAllocator.SCALE, MODE);
+            allocated = allocated.add(shares[i]);
+        }
+        BigDecimal residual = applied.subtract(allocated);
+        for (int i = 0; i < lines && residual.signum() != 0; i++) {
+            BigDecimal adjustment = residual.signum() > 0
+                ? residual.min(amounts[i].subtract(shares[i]))
+                : residual.negate().min(shares[i]).negate();
+            shares[i] = shares[i].add(adjustment);
+            residual = residual.subtract(adjustment);
+        }
+        return shares;
+    }
+}
@@ -0,0 +1,23 @@
+package com.outforce.coupon.application.batch;
+
+import com.outforce.coupon.application.create.CreateCouponResponse;
+
+public record BatchCreateCouponItemResult(
+        int index,
+        Outcome outcome,
+        CreateCouponResponse coupon,
+        String error
+) {
+    public enum Outcome {
+        CREATED,
+        REJECTED
+    }
+
+    public static BatchCreateCouponItemResult created(int index, CreateCouponResponse coupon) {
+        return new BatchCreateCouponItemResult(index, Outcome.CREATED, coupon, null);
+    }
+
+    public static BatchCreateCouponItemResult rejected(int index, String error) {
+        return new BatchCreateCouponItemResult(index, Outcome.REJECTED, null, error);
+    }
+}
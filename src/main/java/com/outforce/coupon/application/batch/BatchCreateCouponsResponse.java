@@ -0,0 +1,16 @@
+package com.outforce.coupon.application.batch;
+
+import java.util.List;
+
+public record BatchCreateCouponsResponse(
+        int created,
+        int rejected,
+        List<BatchCreateCouponItemResult> items
+) {
+    public static BatchCreateCouponsResponse from(List<BatchCreateCouponItemResult> items) {
+        int created = (int) items.stream()
+                .filter(item -> item.outcome() == BatchCreateCouponItemResult.Outcome.CREATED)
+                .count();
+        return new BatchCreateCouponsResponse(created, items.size() - created, items);
+    }
+}
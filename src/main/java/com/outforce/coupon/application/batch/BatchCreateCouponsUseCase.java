@@ -0,0 +1,144 @@
+package com.outforce.coupon.application.batch;
+
+import com.outforce.coupon.application.create.CreateCouponCommand;
+import com.outforce.coupon.application.create.CreateCouponResponse;
+import com.outforce.coupon.application.get.CouponExistenceFilter;
+import com.outforce.coupon.domain.Coupon;
+import com.outforce.coupon.domain.CouponCode;
+import com.outforce.coupon.domain.CouponIdGenerator;
+import com.outforce.coupon.domain.CouponRepository;
+import com.outforce.coupon.shared.exception.BusinessException;
+import com.outforce.coupon.shared.exception.CouponBatchConflictException;
+import com.outforce.coupon.shared.exception.CouponCodeAlreadyExistsException;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Use case: Create many coupons in one request.
+ * Each item goes through the same domain rules as a single create; items that break
+ * a rule are reported individually and never abort the rest of the batch.
+ * Valid items are inserted chunk by chunk, one transaction per chunk.
+ * Only codes the {@link CouponExistenceFilter} may have seen are checked against the repository.
+ */
+@Component
+public class BatchCreateCouponsUseCase {
+
+    private final CouponRepository repository;
+    private final CouponIdGenerator idGenerator;
+    private final CouponExistenceFilter existenceFilter;
+    private final int chunkSize;
+    private final int maxItems;
+
+    public BatchCreateCouponsUseCase(CouponRepository repository,
+                                     CouponIdGenerator idGenerator,
+                                     ObjectProvider<CouponExistenceFilter> existenceFilter,
+                                     @Value("${coupon.batch.chunk-size:500}") int chunkSize,
+                                     @Value("${coupon.batch.max-items:50000}") int maxItems) {
+        this.repository = repository;
+        this.idGenerator = idGenerator;
+        this.existenceFilter = existenceFilter.getIfAvailable(CouponExistenceFilter::none);
+        this.chunkSize = chunkSize;
+        this.maxItems = maxItems;
+    }
+
+    public BatchCreateCouponsResponse execute(List<CreateCouponCommand> commands) {
+        ensureWithinLimit(commands.size());
+
+        BatchCreateCouponItemResult[] results = new BatchCreateCouponItemResult[commands.size()];
+        Set<CouponCode> seenCodes = new HashSet<>();
+
+        for (int start = 0; start < commands.size(); start += chunkSize) {
+            int end = Math.min(start + chunkSize, commands.size());
+            processChunk(commands, start, end, seenCodes, results);
+        }
+
+        return BatchCreateCouponsResponse.from(Arrays.asList(results));
+    }
+
+    /** Rejects batches above {@code coupon.batch.max-items}; streaming callers check while reading. */
+    public void ensureWithinLimit(int items) {
+        if (items > maxItems) {
+            throw new BusinessException("Batch must not contain more than %d coupons.".formatted(maxItems));
+        }
+    }
+
+    private void processChunk(List<CreateCouponCommand> commands, int start, int end,
+                              Set<CouponCode> seenCodes, BatchCreateCouponItemResult[] results) {
+        Map<Integer, Coupon> valid = new LinkedHashMap<>();
+
+        for (int index = start; index < end; index++) {
+            CreateCouponCommand command = commands.get(index);
+            try {
+                Coupon coupon = Coupon.create(
+                    idGenerator,
+                    command.code(),
+                    command.description(),
+                    command.discountValue(),
+                    command.expirationDate(),
+                    command.published(),
+                    command.usageLimit()
+                );
+                if (!seenCodes.add(coupon.getCode())) {
+                    throw new CouponCodeAlreadyExistsException(coupon.getCode().value());
+                }
+                valid.put(index, coupon);
+            } catch (BusinessException ex) {
+                results[index] = BatchCreateCouponItemResult.rejected(index, ex.getMessage());
+            }
+        }
+
+        if (valid.isEmpty()) {
+            return;
+        }
+
+        List<CouponCode> candidates = valid.values().stream()
+            .map(Coupon::getCode)
+            .filter(existenceFilter::mightContain)
+            .toList();
+        Set<CouponCode> existing = candidates.isEmpty() ? Set.of() : repository.findExistingCodes(candidates);
+        valid.entrySet().removeIf(entry -> {
+            CouponCode code = entry.getValue().getCode();
+            if (!existing.contains(code)) {
+                return false;
+            }
+            results[entry.getKey()] = BatchCreateCouponItemResult.rejected(
+                entry.getKey(), new CouponCodeAlreadyExistsException(code.value()).getMessage()
+            );
+            return true;
+        });
+
+        if (valid.isEmpty()) {
+            return;
+        }
+
+        valid.values().forEach(existenceFilter::add);
+        try {
+            List<Coupon> saved = repository.saveAll(new ArrayList<>(valid.values()));
+            int i = 0;
+            for (Integer index : valid.keySet()) {
+                results[index] = BatchCreateCouponItemResult.created(index, CreateCouponResponse.from(saved.get(i++)));
+            }
+        } catch (CouponBatchConflictException ex) {
+            // A concurrent writer took one of the codes: fall back to item-by-item inserts
+            valid.forEach((index, coupon) -> results[index] = saveOne(index, coupon));
+        }
+        valid.values().forEach(existenceFilter::add);
+    }
+
+    private BatchCreateCouponItemResult saveOne(int index, Coupon coupon) {
+        try {
+            return BatchCreateCouponItemResult.created(index, CreateCouponResponse.from(repository.save(coupon)));
+        } catch (BusinessException ex) {
+            return BatchCreateCouponItemResult.rejected(index, ex.getMessage());
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.outforce.coupon.application.create;
+
+import com.outforce.coupon.domain.Coupon;
+
+/**
+ * Port for an optional write-behind of new coupons: concurrent inserts are coalesced
+ * and committed together. Each caller still gets its own outcome.
+ */
+public interface CouponInsertQueue {
+
+    /** Inserts the coupon and returns it as stored; throws this coupon's own business error, if any. */
+    Coupon insert(Coupon coupon);
+}
@@ -8,5 +8,12 @@ public record CreateCouponCommand(
         String description,
         BigDecimal discountValue,
         OffsetDateTime expirationDate,
-        boolean published
-) {}
\ No newline at end of file
+        boolean published,
+        Integer usageLimit
+) {
+    /** Single-use coupon. */
+    public CreateCouponCommand(String code, String description, BigDecimal discountValue,
+                               OffsetDateTime expirationDate, boolean published) {
+        this(code, description, discountValue, expirationDate, published, null);
+    }
+}
\ No newline at end of file
@@ -15,7 +15,9 @@ public record CreateCouponResponse(
         OffsetDateTime expirationDate,
         CouponStatus status,
         boolean published,
-        boolean redeemed
+        boolean redeemed,
+        int usageLimit,
+        int usageCount
 ) {
     public static CreateCouponResponse from(Coupon coupon) {
         return new CreateCouponResponse(
@@ -26,7 +28,9 @@ public record CreateCouponResponse(
                 coupon.getExpirationDate(),
                 coupon.getStatus(),
                 coupon.isPublished(),
-                coupon.isRedeemed()
+                coupon.isRedeemed(),
+                coupon.getUsageLimit(),
+                coupon.getUsageCount()
         );
     }
 }
\ No newline at end of file
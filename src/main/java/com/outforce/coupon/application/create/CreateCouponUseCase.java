@@ -1,32 +1,56 @@
 package com.outforce.coupon.application.create;
 
+import com.outforce.coupon.application.get.CouponExistenceFilter;
 import com.outforce.coupon.domain.Coupon;
+import com.outforce.coupon.domain.CouponIdGenerator;
 import com.outforce.coupon.domain.CouponRepository;
+import com.outforce.coupon.shared.exception.CouponCodeAlreadyExistsException;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Component;
 
 /**
  * Use case: Create a new coupon.
  * Single responsibility — delegates all business rules to the domain.
+ * When a {@link CouponInsertQueue} is configured the insert goes through it, so
+ * concurrent creates share one transaction instead of committing one by one.
+ * A code the {@link CouponExistenceFilter} has never seen skips the duplicate check;
+ * the unique index on code still catches a concurrent create.
  */
 @Component
 public class CreateCouponUseCase {
 
     private final CouponRepository repository;
+    private final CouponIdGenerator idGenerator;
+    private final CouponInsertQueue insertQueue;
+    private final CouponExistenceFilter existenceFilter;
 
-    public CreateCouponUseCase(CouponRepository repository) {
+    public CreateCouponUseCase(CouponRepository repository, CouponIdGenerator idGenerator,
+                               ObjectProvider<CouponInsertQueue> insertQueue,
+                               ObjectProvider<CouponExistenceFilter> existenceFilter) {
         this.repository = repository;
+        this.idGenerator = idGenerator;
+        this.insertQueue = insertQueue.getIfAvailable();
+        this.existenceFilter = existenceFilter.getIfAvailable(CouponExistenceFilter::none);
     }
 
     public CreateCouponResponse execute(CreateCouponCommand command) {
         Coupon coupon = Coupon.create(
+            idGenerator,
             command.code(),
             command.description(),
             command.discountValue(),
             command.expirationDate(),
-            command.published()
+            command.published(),
+            command.usageLimit()
         );
 
-        Coupon saved = repository.save(coupon);
+        if (existenceFilter.mightContain(coupon.getCode()) && repository.existsByCode(coupon.getCode())) {
+            throw new CouponCodeAlreadyExistsException(coupon.getCode().value());
+        }
+
+        existenceFilter.add(coupon);
+        Coupon saved = insertQueue != null ? insertQueue.insert(coupon) : repository.save(coupon);
+        existenceFilter.add(saved);
         return CreateCouponResponse.from(saved);
     }
 }
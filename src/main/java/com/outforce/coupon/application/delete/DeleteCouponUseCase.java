@@ -1,32 +1,39 @@
 package com.outforce.coupon.application.delete;
 
-import com.outforce.coupon.domain.Coupon;
+import com.outforce.coupon.application.get.CouponResponseCache;
 import com.outforce.coupon.domain.CouponRepository;
+import com.outforce.coupon.domain.SoftDeleteResult;
+import com.outforce.coupon.shared.exception.CouponAlreadyDeletedException;
 import com.outforce.coupon.shared.exception.CouponNotFoundException;
 import org.springframework.stereotype.Component;
 
+import java.time.OffsetDateTime;
 import java.util.UUID;
 
 /**
  * Use case: Delete a coupon (soft delete).
  * Enforces: coupon must exist and must not already be deleted.
+ * The check and the write are a single conditional update, so concurrent deletes cannot both win.
+ * Evicts the cached read model so readers observe the new status.
  */
 @Component
 public class DeleteCouponUseCase {
 
     private final CouponRepository repository;
+    private final CouponResponseCache cache;
 
-    public DeleteCouponUseCase(CouponRepository repository) {
+    public DeleteCouponUseCase(CouponRepository repository, CouponResponseCache cache) {
         this.repository = repository;
+        this.cache = cache;
     }
 
-    public DeleteCouponResponse execute(UUID id) {
-        Coupon coupon = repository.findById(id)
-                .orElseThrow(() -> new CouponNotFoundException(id));
+    public void execute(UUID id) {
+        SoftDeleteResult result = repository.softDelete(id, OffsetDateTime.now());
 
-        coupon.delete(); // throws CouponAlreadyDeletedException if already deleted
-
-        Coupon saved = repository.save(coupon);
-        return DeleteCouponResponse.from(saved);
+        switch (result) {
+            case NOT_FOUND -> throw new CouponNotFoundException(id);
+            case ALREADY_DELETED -> throw new CouponAlreadyDeletedException(id);
+            case DELETED -> cache.invalidate(id);
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,9 @@
+package com.outforce.coupon.application.discount;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public record ApplyDiscountCommand(
+        String code,
+        List<BigDecimal> lineItemAmounts
+) {}
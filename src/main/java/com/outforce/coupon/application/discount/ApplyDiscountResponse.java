@@ -0,0 +1,20 @@
+package com.outforce.coupon.application.discount;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+public record ApplyDiscountResponse(
+        UUID couponId,
+        String code,
+        BigDecimal subtotal,
+        BigDecimal discount,
+        BigDecimal total,
+        List<Line> lines
+) {
+    public record Line(
+            BigDecimal amount,
+            BigDecimal discount,
+            BigDecimal total
+    ) {}
+}
@@ -0,0 +1,92 @@
+package com.outforce.coupon.application.discount;
+
+import com.outforce.coupon.domain.Coupon;
+import com.outforce.coupon.domain.CouponCode;
+import com.outforce.coupon.domain.CouponEligibility;
+import com.outforce.coupon.domain.CouponRepository;
+import com.outforce.coupon.domain.DiscountAllocator;
+import com.outforce.coupon.shared.exception.BusinessException;
+import com.outforce.coupon.shared.exception.CouponNotFoundException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Use case: Apply a coupon to the lines of a cart.
+ * Amounts are converted to cents once and the discount is spread over the lines with
+ * {@link DiscountAllocator}, so pricing does no {@code BigDecimal} arithmetic per line.
+ * The configured rounding mode is used both for amounts with more than two decimals
+ * and for each line's share of the discount.
+ */
+@Component
+public class ApplyDiscountUseCase {
+
+    private final CouponRepository repository;
+    private final RoundingMode roundingMode;
+    private final int maxLines;
+
+    public ApplyDiscountUseCase(CouponRepository repository,
+                                @Value("${coupon.discount.rounding-mode:HALF_EVEN}") RoundingMode roundingMode,
+                                @Value("${coupon.discount.max-lines:1000}") int maxLines) {
+        this.repository = repository;
+        this.roundingMode = roundingMode;
+        this.maxLines = maxLines;
+    }
+
+    public ApplyDiscountResponse execute(ApplyDiscountCommand command) {
+        int lines = command.lineItemAmounts().size();
+        if (lines > maxLines) {
+            throw new BusinessException(
+                "Cart must not contain more than %d lines. Got: %d".formatted(maxLines, lines)
+            );
+        }
+
+        CouponCode code = new CouponCode(command.code());
+        Coupon coupon = repository.findByCode(code)
+                .orElseThrow(() -> CouponNotFoundException.forCode(code.value()));
+
+        CouponEligibility eligibility = coupon.eligibilityAt(OffsetDateTime.now());
+        if (eligibility != CouponEligibility.ELIGIBLE) {
+            throw new BusinessException(
+                "Coupon '%s' cannot be applied: %s.".formatted(code.value(), eligibility)
+            );
+        }
+
+        long[] amounts = new long[lines];
+        long[] discounts = new long[lines];
+        long applied;
+        try {
+            for (int i = 0; i < lines; i++) {
+                amounts[i] = DiscountAllocator.toCents(command.lineItemAmounts().get(i), roundingMode);
+            }
+            applied = DiscountAllocator.allocate(
+                DiscountAllocator.toCents(coupon.getDiscountValue(), roundingMode), amounts, lines, discounts, roundingMode);
+        } catch (ArithmeticException ex) {
+            throw new BusinessException("Cart amounts are too large to price.");
+        }
+
+        long subtotal = 0;
+        List<ApplyDiscountResponse.Line> result = new ArrayList<>(lines);
+        for (int i = 0; i < lines; i++) {
+            subtotal += amounts[i];
+            result.add(new ApplyDiscountResponse.Line(
+                DiscountAllocator.fromCents(amounts[i]),
+                DiscountAllocator.fromCents(discounts[i]),
+                DiscountAllocator.fromCents(amounts[i] - discounts[i])
+            ));
+        }
+        return new ApplyDiscountResponse(
+            coupon.getId(),
+            code.value(),
+            DiscountAllocator.fromCents(subtotal),
+            DiscountAllocator.fromCents(applied),
+            DiscountAllocator.fromCents(subtotal - applied),
+            result
+        );
+    }
+}
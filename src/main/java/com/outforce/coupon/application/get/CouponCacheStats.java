@@ -0,0 +1,8 @@
+package com.outforce.coupon.application.get;
+
+public record CouponCacheStats(
+        long hits,
+        long misses,
+        long evictions,
+        long size
+) {}
@@ -0,0 +1,30 @@
+package com.outforce.coupon.application.get;
+
+import com.outforce.coupon.domain.Coupon;
+import com.outforce.coupon.domain.CouponCode;
+
+import java.util.UUID;
+
+/**
+ * Port for an optional probabilistic set of the ids and codes of stored coupons.
+ * A {@code false} answer is definite — no such coupon exists, so lookups can fail without
+ * touching the repository; {@code true} only means the coupon may exist.
+ */
+public interface CouponExistenceFilter {
+
+    boolean mightContain(UUID id);
+
+    boolean mightContain(CouponCode code);
+
+    /**
+     * Records a coupon being created. Call it before the coupon is stored, so readers never
+     * take a stored coupon for a definite miss, and again once it is stored, so a rebuild
+     * that started in between still includes it.
+     */
+    void add(Coupon coupon);
+
+    /** Filter used when none is configured: everything may exist. */
+    static CouponExistenceFilter none() {
+        return NoExistenceFilter.INSTANCE;
+    }
+}
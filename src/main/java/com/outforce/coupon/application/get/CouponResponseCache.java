@@ -0,0 +1,25 @@
+package com.outforce.coupon.application.get;
+
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Port for a bounded read-through cache of coupon read models.
+ * Implementations must never serve an entry older than the last {@link #invalidate(UUID)}.
+ */
+public interface CouponResponseCache {
+
+    GetCouponResponse get(UUID id, Function<UUID, GetCouponResponse> loader);
+
+    /**
+     * Same as {@link #get} but returns the response as encoded by {@code encoder}. The encoded
+     * form is kept with the entry, so repeated reads skip building and encoding the response;
+     * {@link #invalidate(UUID)} drops both.
+     */
+    EncodedCouponResponse getEncoded(UUID id, Function<UUID, GetCouponResponse> loader,
+                                     Function<GetCouponResponse, byte[]> encoder);
+
+    void invalidate(UUID id);
+
+    CouponCacheStats stats();
+}
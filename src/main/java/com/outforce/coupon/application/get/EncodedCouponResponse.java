@@ -0,0 +1,10 @@
+package com.outforce.coupon.application.get;
+
+/**
+ * A coupon read model together with its encoded body, as kept by the {@link CouponResponseCache}.
+ * The body must not be modified.
+ */
+public record EncodedCouponResponse(
+        GetCouponResponse response,
+        byte[] body
+) {}
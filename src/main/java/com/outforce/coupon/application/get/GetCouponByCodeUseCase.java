@@ -0,0 +1,49 @@
+package com.outforce.coupon.application.get;
+
+import com.outforce.coupon.domain.Coupon;
+import com.outforce.coupon.domain.CouponCode;
+import com.outforce.coupon.domain.CouponRepository;
+import com.outforce.coupon.shared.concurrent.SingleFlight;
+import com.outforce.coupon.shared.exception.CouponNotFoundException;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Use case: Retrieve a coupon by the code typed by the shopper.
+ * Input is normalized with the same rules used at creation time.
+ * Codes the {@link CouponExistenceFilter} has never seen are rejected without a lookup.
+ * Concurrent lookups of the same code share one repository read.
+ */
+@Component
+public class GetCouponByCodeUseCase {
+
+    private final CouponRepository repository;
+    private final CouponExistenceFilter existenceFilter;
+    private final SingleFlight<CouponCode, GetCouponResponse> lookups;
+
+    public GetCouponByCodeUseCase(CouponRepository repository, ObjectProvider<CouponExistenceFilter> existenceFilter,
+                                  @Value("${coupon.cache.load-wait-timeout:2s}") Duration loadWaitTimeout) {
+        this.repository = repository;
+        this.existenceFilter = existenceFilter.getIfAvailable(CouponExistenceFilter::none);
+        this.lookups = new SingleFlight<>(loadWaitTimeout);
+    }
+
+    public GetCouponResponse execute(String rawCode) {
+        CouponCode code = new CouponCode(rawCode);
+        if (!existenceFilter.mightContain(code)) {
+            throw CouponNotFoundException.forCode(code.value());
+        }
+
+        return lookups.execute(code, () -> load(code));
+    }
+
+    private GetCouponResponse load(CouponCode code) {
+        Coupon coupon = repository.findByCode(code)
+                .orElseThrow(() -> CouponNotFoundException.forCode(code.value()));
+
+        return GetCouponResponse.from(coupon);
+    }
+}
@@ -2,27 +2,82 @@ package com.outforce.coupon.application.get;
 
 import com.outforce.coupon.domain.Coupon;
 import com.outforce.coupon.domain.CouponRepository;
+import com.outforce.coupon.domain.CouponVersion;
 import com.outforce.coupon.shared.exception.CouponNotFoundException;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Component;
 
 import java.util.UUID;
+import java.util.function.Function;
 
 /**
  * Use case: Retrieve a coupon by its ID.
+ * Reads go through a bounded cache; misses fall back to the repository.
+ * Ids the {@link CouponExistenceFilter} has never seen are rejected before either.
  */
 @Component
 public class GetCouponByIdUseCase {
 
     private final CouponRepository repository;
+    private final CouponResponseCache cache;
+    private final CouponExistenceFilter existenceFilter;
 
-    public GetCouponByIdUseCase(CouponRepository repository) {
+    public GetCouponByIdUseCase(CouponRepository repository, CouponResponseCache cache,
+                                ObjectProvider<CouponExistenceFilter> existenceFilter) {
         this.repository = repository;
+        this.cache = cache;
+        this.existenceFilter = existenceFilter.getIfAvailable(CouponExistenceFilter::none);
     }
 
     public GetCouponResponse execute(UUID id) {
+        if (!existenceFilter.mightContain(id)) {
+            throw new CouponNotFoundException(id);
+        }
+        return cache.get(id, this::load);
+    }
+
+    /** Like {@link #execute(UUID)}, but reloads a cached copy older than {@code minimumVersion}. */
+    public GetCouponResponse execute(UUID id, long minimumVersion) {
+        GetCouponResponse response = execute(id);
+        if (response.version() >= minimumVersion) {
+            return response;
+        }
+        cache.invalidate(id);
+        return execute(id);
+    }
+
+    /** Same lookup, returning the response already encoded; the encoding is cached with it. */
+    public EncodedCouponResponse executeEncoded(UUID id, Function<GetCouponResponse, byte[]> encoder) {
+        if (!existenceFilter.mightContain(id)) {
+            throw new CouponNotFoundException(id);
+        }
+        return cache.getEncoded(id, this::load, encoder);
+    }
+
+    /** Like {@link #executeEncoded(UUID, Function)}, but reloads a cached copy older than {@code minimumVersion}. */
+    public EncodedCouponResponse executeEncoded(UUID id, Function<GetCouponResponse, byte[]> encoder,
+                                                long minimumVersion) {
+        EncodedCouponResponse encoded = executeEncoded(id, encoder);
+        if (encoded.response().version() >= minimumVersion) {
+            return encoded;
+        }
+        cache.invalidate(id);
+        return executeEncoded(id, encoder);
+    }
+
+    /** Current version of the coupon, read without loading it, to answer conditional requests. */
+    public CouponVersion currentVersion(UUID id) {
+        if (!existenceFilter.mightContain(id)) {
+            throw new CouponNotFoundException(id);
+        }
+        return repository.findVersion(id)
+                .orElseThrow(() -> new CouponNotFoundException(id));
+    }
+
+    private GetCouponResponse load(UUID id) {
         Coupon coupon = repository.findById(id)
                 .orElseThrow(() -> new CouponNotFoundException(id));
 
         return GetCouponResponse.from(coupon);
     }
-}
\ No newline at end of file
+}
@@ -15,7 +15,10 @@ public record GetCouponResponse(
         OffsetDateTime expirationDate,
         CouponStatus status,
         boolean published,
-        boolean redeemed
+        boolean redeemed,
+        int usageLimit,
+        int usageCount,
+        long version
 ) {
     public static GetCouponResponse from(Coupon coupon) {
         return new GetCouponResponse(
@@ -26,7 +29,10 @@ public record GetCouponResponse(
                 coupon.getExpirationDate(),
                 coupon.getStatus(),
                 coupon.isPublished(),
-                coupon.isRedeemed()
+                coupon.isRedeemed(),
+                coupon.getUsageLimit(),
+                coupon.getUsageCount(),
+                coupon.getVersion()
         );
     }
 }
\ No newline at end of file
@@ -0,0 +1,25 @@
+package com.outforce.coupon.application.get;
+
+import com.outforce.coupon.domain.Coupon;
+import com.outforce.coupon.domain.CouponCode;
+
+import java.util.UUID;
+
+enum NoExistenceFilter implements CouponExistenceFilter {
+
+    INSTANCE;
+
+    @Override
+    public boolean mightContain(UUID id) {
+        return true;
+    }
+
+    @Override
+    public boolean mightContain(CouponCode code) {
+        return true;
+    }
+
+    @Override
+    public void add(Coupon coupon) {
+    }
+}
@@ -0,0 +1,13 @@
+package com.outforce.coupon.application.list;
+
+import com.outforce.coupon.application.get.GetCouponResponse;
+
+import java.util.List;
+
+/**
+ * One page of coupons. {@code nextCursor} is null on the last page.
+ */
+public record ListCouponsResponse(
+        List<GetCouponResponse> items,
+        String nextCursor
+) {}
@@ -0,0 +1,77 @@
+package com.outforce.coupon.application.list;
+
+import com.outforce.coupon.application.get.GetCouponResponse;
+import com.outforce.coupon.domain.Coupon;
+import com.outforce.coupon.domain.CouponPageCursor;
+import com.outforce.coupon.domain.CouponRepository;
+import com.outforce.coupon.domain.CouponSearchCriteria;
+import com.outforce.coupon.shared.exception.BusinessException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Use case: List coupons page by page for the back-office.
+ * Pages are chained by an opaque cursor carrying the {@code (createdAt, id)} of the last item,
+ * so deep pages are as cheap as the first one.
+ */
+@Component
+public class ListCouponsUseCase {
+
+    private final CouponRepository repository;
+    private final int maxPageSize;
+
+    public ListCouponsUseCase(CouponRepository repository,
+                              @Value("${coupon.list.max-page-size:500}") int maxPageSize) {
+        this.repository = repository;
+        this.maxPageSize = maxPageSize;
+    }
+
+    public ListCouponsResponse execute(CouponSearchCriteria criteria, String cursor, int pageSize) {
+        if (pageSize < 1 || pageSize > maxPageSize) {
+            throw new BusinessException(
+                "Page size must be between 1 and %d. Got: %d".formatted(maxPageSize, pageSize)
+            );
+        }
+        if (criteria.expiresFrom() != null && criteria.expiresTo() != null
+                && !criteria.expiresFrom().isBefore(criteria.expiresTo())) {
+            throw new BusinessException("Expiration range start must be before its end.");
+        }
+
+        // One extra row tells whether another page exists without a COUNT query
+        List<Coupon> coupons = repository.search(criteria, decode(cursor), pageSize + 1);
+        boolean hasNext = coupons.size() > pageSize;
+        List<Coupon> page = hasNext ? coupons.subList(0, pageSize) : coupons;
+
+        return new ListCouponsResponse(
+            page.stream().map(GetCouponResponse::from).toList(),
+            hasNext ? encode(CouponPageCursor.after(page.getLast())) : null
+        );
+    }
+
+    private static String encode(CouponPageCursor cursor) {
+        String raw = cursor.createdAt() + "|" + cursor.id();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static CouponPageCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            return new CouponPageCursor(
+                OffsetDateTime.parse(raw.substring(0, separator)),
+                UUID.fromString(raw.substring(separator + 1))
+            );
+        } catch (RuntimeException ex) {
+            throw new BusinessException("Invalid page cursor.");
+        }
+    }
+}
@@ -1,4 +1,4 @@
-package com.outforce.coupon.application.delete;
+package com.outforce.coupon.application.redeem;
 
 import com.outforce.coupon.domain.Coupon;
 import com.outforce.coupon.domain.CouponStatus;
@@ -7,7 +7,7 @@ import java.math.BigDecimal;
 import java.time.OffsetDateTime;
 import java.util.UUID;
 
-public record DeleteCouponResponse(
+public record RedeemCouponResponse(
         UUID id,
         String code,
         String description,
@@ -15,10 +15,12 @@ public record DeleteCouponResponse(
         OffsetDateTime expirationDate,
         CouponStatus status,
         boolean published,
-        boolean redeemed
+        boolean redeemed,
+        int usageLimit,
+        int usageCount
 ) {
-    public static DeleteCouponResponse from(Coupon coupon) {
-        return new DeleteCouponResponse(
+    public static RedeemCouponResponse from(Coupon coupon) {
+        return new RedeemCouponResponse(
                 coupon.getId(),
                 coupon.getCode().value(),
                 coupon.getDescription(),
@@ -26,7 +28,9 @@ public record DeleteCouponResponse(
                 coupon.getExpirationDate(),
                 coupon.getStatus(),
                 coupon.isPublished(),
-                coupon.isRedeemed()
+                coupon.isRedeemed(),
+                coupon.getUsageLimit(),
+                coupon.getUsageCount()
         );
     }
-}
\ No newline at end of file
+}
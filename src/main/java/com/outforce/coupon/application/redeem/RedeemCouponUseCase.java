@@ -0,0 +1,80 @@
+package com.outforce.coupon.application.redeem;
+
+import com.outforce.coupon.application.get.CouponResponseCache;
+import com.outforce.coupon.domain.Coupon;
+import com.outforce.coupon.domain.CouponCode;
+import com.outforce.coupon.domain.CouponRepository;
+import com.outforce.coupon.domain.CouponUsageQuota;
+import com.outforce.coupon.shared.exception.CouponAlreadyRedeemedException;
+import com.outforce.coupon.shared.exception.CouponNotFoundException;
+import com.outforce.coupon.shared.exception.CouponUsageLimitReachedException;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * Use case: Redeem a coupon.
+ * The domain rejects coupons that are already unusable. Single-use coupons are then
+ * flagged with a conditional update so exactly one concurrent caller wins; multi-use
+ * coupons reserve one use from the node-local usage quota without touching the row.
+ */
+@Component
+public class RedeemCouponUseCase {
+
+    private final CouponRepository repository;
+    private final CouponResponseCache cache;
+    private final CouponUsageQuota usageQuota;
+
+    public RedeemCouponUseCase(CouponRepository repository,
+                               CouponResponseCache cache,
+                               CouponUsageQuota usageQuota) {
+        this.repository = repository;
+        this.cache = cache;
+        this.usageQuota = usageQuota;
+    }
+
+    public RedeemCouponResponse execute(UUID id) {
+        Coupon coupon = repository.findById(id)
+                .orElseThrow(() -> new CouponNotFoundException(id));
+
+        return redeem(coupon);
+    }
+
+    public RedeemCouponResponse executeByCode(String rawCode) {
+        CouponCode code = new CouponCode(rawCode);
+
+        Coupon coupon = repository.findByCode(code)
+                .orElseThrow(() -> CouponNotFoundException.forCode(code.value()));
+
+        return redeem(coupon);
+    }
+
+    private RedeemCouponResponse redeem(Coupon coupon) {
+        if (coupon.isMultiUse()) {
+            return redeemOneUse(coupon);
+        }
+
+        UUID id = coupon.getId();
+        coupon.redeem(); // throws if deleted, inactive, expired or already redeemed
+
+        if (!repository.markRedeemed(id)) {
+            // Lost the race: report the current reason (redeemed or deleted meanwhile)
+            repository.findById(id)
+                    .orElseThrow(() -> new CouponNotFoundException(id))
+                    .redeem();
+            throw new CouponAlreadyRedeemedException(id);
+        }
+
+        cache.invalidate(id);
+        return RedeemCouponResponse.from(coupon);
+    }
+
+    private RedeemCouponResponse redeemOneUse(Coupon coupon) {
+        coupon.ensureRedeemable();
+
+        if (!usageQuota.tryAcquire(coupon.getId())) {
+            throw new CouponUsageLimitReachedException(coupon.getId());
+        }
+        return RedeemCouponResponse.from(coupon);
+    }
+}
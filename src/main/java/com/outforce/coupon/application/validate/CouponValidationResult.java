@@ -0,0 +1,52 @@
+package com.outforce.coupon.application.validate;
+
+import com.outforce.coupon.domain.Coupon;
+import com.outforce.coupon.domain.CouponEligibility;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+public record CouponValidationResult(
+        String code,
+        UUID couponId,
+        boolean eligible,
+        Status status,
+        BigDecimal discount
+) {
+    public enum Status {
+        ELIGIBLE,
+        INVALID_CODE,
+        NOT_FOUND,
+        DUPLICATE,
+        DELETED,
+        INACTIVE,
+        EXPIRED,
+        NOT_PUBLISHED,
+        REDEEMED,
+        USAGE_LIMIT_REACHED;
+
+        static Status from(CouponEligibility eligibility) {
+            return switch (eligibility) {
+                case ELIGIBLE -> ELIGIBLE;
+                case DELETED -> DELETED;
+                case INACTIVE -> INACTIVE;
+                case EXPIRED -> EXPIRED;
+                case NOT_PUBLISHED -> NOT_PUBLISHED;
+                case REDEEMED -> REDEEMED;
+                case USAGE_LIMIT_REACHED -> USAGE_LIMIT_REACHED;
+            };
+        }
+    }
+
+    static CouponValidationResult applied(Coupon coupon, BigDecimal discount) {
+        return new CouponValidationResult(coupon.getCode().value(), coupon.getId(), true, Status.ELIGIBLE, discount);
+    }
+
+    static CouponValidationResult ineligible(Coupon coupon, CouponEligibility eligibility) {
+        return new CouponValidationResult(coupon.getCode().value(), coupon.getId(), false, Status.from(eligibility), BigDecimal.ZERO);
+    }
+
+    static CouponValidationResult rejected(String code, Status status) {
+        return new CouponValidationResult(code, null, false, status, BigDecimal.ZERO);
+    }
+}
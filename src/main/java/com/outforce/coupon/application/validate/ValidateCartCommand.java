@@ -0,0 +1,9 @@
+package com.outforce.coupon.application.validate;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public record ValidateCartCommand(
+        List<String> codes,
+        List<BigDecimal> lineItemAmounts
+) {}
@@ -0,0 +1,11 @@
+package com.outforce.coupon.application.validate;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public record ValidateCartResponse(
+        BigDecimal subtotal,
+        BigDecimal totalDiscount,
+        BigDecimal total,
+        List<CouponValidationResult> coupons
+) {}
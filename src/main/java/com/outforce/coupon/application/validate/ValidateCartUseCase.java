@@ -0,0 +1,103 @@
+package com.outforce.coupon.application.validate;
+
+import com.outforce.coupon.application.get.CouponExistenceFilter;
+import com.outforce.coupon.domain.Coupon;
+import com.outforce.coupon.domain.CouponCode;
+import com.outforce.coupon.domain.CouponEligibility;
+import com.outforce.coupon.domain.CouponRepository;
+import com.outforce.coupon.shared.exception.BusinessException;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Use case: Check which coupons on a cart can be applied and what they take off.
+ * Every code on the cart is resolved with a single repository call, so the number of
+ * round trips does not grow with the cart. Codes are applied in the order given, each
+ * one taking at most what is left of the subtotal.
+ */
+@Component
+public class ValidateCartUseCase {
+
+    private final CouponRepository repository;
+    private final CouponExistenceFilter existenceFilter;
+    private final int maxCodes;
+
+    public ValidateCartUseCase(CouponRepository repository,
+                               ObjectProvider<CouponExistenceFilter> existenceFilter,
+                               @Value("${coupon.validate.max-codes:100}") int maxCodes) {
+        this.repository = repository;
+        this.existenceFilter = existenceFilter.getIfAvailable(CouponExistenceFilter::none);
+        this.maxCodes = maxCodes;
+    }
+
+    public ValidateCartResponse execute(ValidateCartCommand command) {
+        if (command.codes().size() > maxCodes) {
+            throw new BusinessException(
+                "Cart must not contain more than %d coupon codes. Got: %d".formatted(maxCodes, command.codes().size())
+            );
+        }
+
+        BigDecimal subtotal = command.lineItemAmounts().stream().reduce(BigDecimal.ZERO, BigDecimal::add);
+
+        List<CouponCode> codes = new ArrayList<>(command.codes().size());
+        Set<CouponCode> lookups = new HashSet<>();
+        for (String rawCode : command.codes()) {
+            CouponCode code = parse(rawCode);
+            codes.add(code);
+            if (code != null && existenceFilter.mightContain(code)) {
+                lookups.add(code);
+            }
+        }
+
+        Map<CouponCode, Coupon> found = new HashMap<>();
+        if (!lookups.isEmpty()) {
+            repository.findAllByCodes(lookups).forEach(coupon -> found.put(coupon.getCode(), coupon));
+        }
+
+        OffsetDateTime now = OffsetDateTime.now();
+        BigDecimal remaining = subtotal;
+        Set<CouponCode> applied = new HashSet<>();
+        List<CouponValidationResult> results = new ArrayList<>(codes.size());
+        for (int i = 0; i < codes.size(); i++) {
+            CouponCode code = codes.get(i);
+            Coupon coupon = code == null ? null : found.get(code);
+            if (code == null) {
+                results.add(CouponValidationResult.rejected(command.codes().get(i), CouponValidationResult.Status.INVALID_CODE));
+            } else if (coupon == null) {
+                results.add(CouponValidationResult.rejected(code.value(), CouponValidationResult.Status.NOT_FOUND));
+            } else if (!applied.add(code)) {
+                results.add(CouponValidationResult.rejected(code.value(), CouponValidationResult.Status.DUPLICATE));
+            } else {
+                CouponEligibility eligibility = coupon.eligibilityAt(now);
+                if (eligibility == CouponEligibility.ELIGIBLE) {
+                    BigDecimal discount = coupon.getDiscountValue().min(remaining);
+                    remaining = remaining.subtract(discount);
+                    results.add(CouponValidationResult.applied(coupon, discount));
+                } else {
+                    results.add(CouponValidationResult.ineligible(coupon, eligibility));
+                }
+            }
+        }
+
+        BigDecimal totalDiscount = subtotal.subtract(remaining);
+        return new ValidateCartResponse(subtotal, totalDiscount, remaining, results);
+    }
+
+    private static CouponCode parse(String rawCode) {
+        try {
+            return new CouponCode(rawCode);
+        } catch (BusinessException ex) {
+            return null;
+        }
+    }
+}
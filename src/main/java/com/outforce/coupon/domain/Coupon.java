@@ -2,9 +2,11 @@ package com.outforce.coupon.domain;
 
 import com.outforce.coupon.shared.exception.BusinessException;
 import com.outforce.coupon.shared.exception.CouponAlreadyDeletedException;
+import com.outforce.coupon.shared.exception.CouponAlreadyRedeemedException;
 
 import java.math.BigDecimal;
 import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.UUID;
 
 /**
@@ -14,6 +16,7 @@ import java.util.UUID;
 public class Coupon {
 
     private static final BigDecimal MINIMUM_DISCOUNT = new BigDecimal("0.5");
+    private static final int SINGLE_USE = 1;
 
     private final UUID id;
     private final CouponCode code;
@@ -21,18 +24,47 @@ public class Coupon {
     private final BigDecimal discountValue;
     private final OffsetDateTime expirationDate;
     private final boolean published;
-    private final boolean redeemed;
+    private boolean redeemed;
+    private final int usageLimit;
+    private final int usageCount;
     private CouponStatus status;
     private OffsetDateTime deletedAt;
     private final OffsetDateTime createdAt;
+    private final long version;
+    private final boolean persisted;
 
-    /** Factory method: creates a new coupon applying all business rules. */
+    /** Factory method: creates a new single-use coupon applying all business rules. */
     public static Coupon create(
             String rawCode,
             String description,
             BigDecimal discountValue,
             OffsetDateTime expirationDate,
             boolean published
+    ) {
+        return create(rawCode, description, discountValue, expirationDate, published, null);
+    }
+
+    /** Factory method: creates a new coupon; a null usage limit means single use. */
+    public static Coupon create(
+            String rawCode,
+            String description,
+            BigDecimal discountValue,
+            OffsetDateTime expirationDate,
+            boolean published,
+            Integer usageLimit
+    ) {
+        return create(CouponIdGenerator.timeOrdered(), rawCode, description, discountValue, expirationDate, published, usageLimit);
+    }
+
+    /** Factory method: creates a new coupon whose id comes from the given generator. */
+    public static Coupon create(
+            CouponIdGenerator idGenerator,
+            String rawCode,
+            String description,
+            BigDecimal discountValue,
+            OffsetDateTime expirationDate,
+            boolean published,
+            Integer usageLimit
     ) {
         CouponCode code = new CouponCode(rawCode);
 
@@ -54,16 +86,26 @@ public class Coupon {
             throw new BusinessException("Description must not be blank.");
         }
 
+        if (usageLimit != null && usageLimit < SINGLE_USE) {
+            throw new BusinessException("Usage limit must be at least %d.".formatted(SINGLE_USE));
+        }
+
         return new Coupon(
-            UUID.randomUUID(),
+            idGenerator.next(),
             code,
             description,
             discountValue,
             expirationDate,
             published,
+            false,
+            usageLimit != null ? usageLimit : SINGLE_USE,
+            0,
             CouponStatus.ACTIVE,
             null,
-            OffsetDateTime.now()
+            // Microseconds, as stored: the list cursor compares this value against the column
+            OffsetDateTime.now().truncatedTo(ChronoUnit.MICROS),
+            0,
+            false
         );
     }
 
@@ -76,6 +118,62 @@ public class Coupon {
         this.deletedAt = OffsetDateTime.now();
     }
 
+    /** Redeems this single-use coupon; fails fast when it cannot be used anymore. */
+    public void redeem() {
+        if (isMultiUse()) {
+            throw new BusinessException(
+                "Coupon with id '%s' allows multiple uses; uses are reserved through its usage quota.".formatted(this.id)
+            );
+        }
+        ensureRedeemable();
+        if (this.redeemed) {
+            throw new CouponAlreadyRedeemedException(this.id);
+        }
+        this.redeemed = true;
+    }
+
+    /** Rejects coupons that cannot be used at all, regardless of remaining uses. */
+    public void ensureRedeemable() {
+        if (this.status == CouponStatus.DELETED) {
+            throw new CouponAlreadyDeletedException(this.id);
+        }
+        if (this.status != CouponStatus.ACTIVE) {
+            throw new BusinessException("Coupon with id '%s' is not active.".formatted(this.id));
+        }
+        if (this.expirationDate.isBefore(OffsetDateTime.now())) {
+            throw new BusinessException("Coupon with id '%s' has expired.".formatted(this.id));
+        }
+        if (!this.published) {
+            throw new BusinessException("Coupon with id '%s' is not published.".formatted(this.id));
+        }
+    }
+
+    /**
+     * Checks every rule a checkout needs in one pass, without throwing.
+     * Uses of a multi-use coupon are counted as of the last reconciliation.
+     */
+    public CouponEligibility eligibilityAt(OffsetDateTime now) {
+        if (this.status == CouponStatus.DELETED) {
+            return CouponEligibility.DELETED;
+        }
+        if (this.status != CouponStatus.ACTIVE) {
+            return CouponEligibility.INACTIVE;
+        }
+        if (this.expirationDate.isBefore(now)) {
+            return CouponEligibility.EXPIRED;
+        }
+        if (!this.published) {
+            return CouponEligibility.NOT_PUBLISHED;
+        }
+        if (isMultiUse() && this.usageCount >= this.usageLimit) {
+            return CouponEligibility.USAGE_LIMIT_REACHED;
+        }
+        if (!isMultiUse() && this.redeemed) {
+            return CouponEligibility.REDEEMED;
+        }
+        return CouponEligibility.ELIGIBLE;
+    }
+
     // -- Private constructor (use factory method) --
 
     private Coupon(
@@ -85,9 +183,14 @@ public class Coupon {
             BigDecimal discountValue,
             OffsetDateTime expirationDate,
             boolean published,
+            boolean redeemed,
+            int usageLimit,
+            int usageCount,
             CouponStatus status,
             OffsetDateTime deletedAt,
-            OffsetDateTime createdAt
+            OffsetDateTime createdAt,
+            long version,
+            boolean persisted
     ) {
         this.id = id;
         this.code = code;
@@ -95,10 +198,14 @@ public class Coupon {
         this.discountValue = discountValue;
         this.expirationDate = expirationDate;
         this.published = published;
-        this.redeemed = false;
+        this.redeemed = redeemed;
+        this.usageLimit = usageLimit;
+        this.usageCount = usageCount;
         this.status = status;
         this.deletedAt = deletedAt;
         this.createdAt = createdAt;
+        this.version = version;
+        this.persisted = persisted;
     }
 
     /** Reconstruction constructor — used by persistence layer only. */
@@ -110,9 +217,31 @@ public class Coupon {
             OffsetDateTime expirationDate,
             boolean published,
             boolean redeemed,
+            int usageLimit,
+            int usageCount,
             CouponStatus status,
             OffsetDateTime deletedAt,
             OffsetDateTime createdAt
+    ) {
+        return reconstruct(id, code, description, discountValue, expirationDate, published, redeemed,
+            usageLimit, usageCount, status, deletedAt, createdAt, 0);
+    }
+
+    /** Reconstruction constructor carrying the stored version — used by persistence layer only. */
+    public static Coupon reconstruct(
+            UUID id,
+            String code,
+            String description,
+            BigDecimal discountValue,
+            OffsetDateTime expirationDate,
+            boolean published,
+            boolean redeemed,
+            int usageLimit,
+            int usageCount,
+            CouponStatus status,
+            OffsetDateTime deletedAt,
+            OffsetDateTime createdAt,
+            long version
     ) {
         Coupon c = new Coupon(
             id,
@@ -121,9 +250,14 @@ public class Coupon {
             discountValue,
             expirationDate,
             published,
+            redeemed,
+            usageLimit,
+            usageCount,
             status,
             deletedAt,
-            createdAt
+            createdAt,
+            version,
+            true
         );
         return c;
     }
@@ -137,7 +271,19 @@ public class Coupon {
     public OffsetDateTime getExpirationDate() { return expirationDate; }
     public boolean isPublished() { return published; }
     public boolean isRedeemed() { return redeemed; }
+    public int getUsageLimit() { return usageLimit; }
+    public int getUsageCount() { return usageCount; }
+    public boolean isMultiUse() { return usageLimit > SINGLE_USE; }
     public CouponStatus getStatus() { return status; }
     public OffsetDateTime getDeletedAt() { return deletedAt; }
     public OffsetDateTime getCreatedAt() { return createdAt; }
+
+    /**
+     * Stored version, starting at 0. Stores increment it on every write that changes what readers
+     * see (status, redemption, uses), so it tells whether a previously read copy is still current.
+     */
+    public long getVersion() { return version; }
+
+    /** True until the aggregate has been stored once; lets adapters insert without probing. */
+    public boolean isNew() { return !persisted; }
 }
@@ -2,34 +2,126 @@ package com.outforce.coupon.domain;
 
 import com.outforce.coupon.shared.exception.BusinessException;
 
+import java.nio.charset.StandardCharsets;
+
 /**
  * Value Object representing a coupon code.
  * Responsible for sanitizing (removing special characters) and validating
  * that the result is exactly 6 alphanumeric characters.
+ *
+ * <p>The canonical code is held as a base-36 number ({@link #packed()}), which makes
+ * a compact, allocation-free key for indexes and caches and sorts like the string form.
+ * Input is canonicalized in a single pass without regex; the string form is only
+ * built when asked for, and input that is already canonical is kept as is.
  */
-public record CouponCode(String value) {
+public final class CouponCode {
 
     private static final int REQUIRED_LENGTH = 6;
+    private static final int RADIX = 36;
+
+    /** 36^6 — one past the largest packed code. */
+    private static final long PACKED_LIMIT = 2_176_782_336L;
 
-    public CouponCode {
+    private final long packed;
+    private String value;
+
+    public CouponCode(String value) {
         if (value == null || value.isBlank()) {
             throw new BusinessException("Coupon code must not be blank.");
         }
 
-        String sanitized = value.replaceAll("[^a-zA-Z0-9]", "");
+        long packed = 0;
+        int length = 0;
+        boolean canonical = true;
+        for (int i = 0; i < value.length(); i++) {
+            int digit = digit(value.charAt(i));
+            if (digit < 0) {
+                canonical = false;
+                continue;
+            }
+            if (length < REQUIRED_LENGTH) {
+                packed = packed * RADIX + digit;
+            }
+            length++;
+            canonical &= !isLowerCase(value.charAt(i));
+        }
 
-        if (sanitized.length() != REQUIRED_LENGTH) {
+        if (length != REQUIRED_LENGTH) {
             throw new BusinessException(
                 "Coupon code must have exactly %d alphanumeric characters after removing special characters. Got: %d"
-                    .formatted(REQUIRED_LENGTH, sanitized.length())
+                    .formatted(REQUIRED_LENGTH, length)
             );
         }
 
-        value = sanitized.toUpperCase();
+        this.packed = packed;
+        this.value = canonical ? value : null;
+    }
+
+    private CouponCode(long packed) {
+        this.packed = packed;
+    }
+
+    /** Rebuilds a code from {@link #packed()}. */
+    public static CouponCode fromPacked(long packed) {
+        if (packed < 0 || packed >= PACKED_LIMIT) {
+            throw new IllegalArgumentException("Not a packed coupon code: " + packed);
+        }
+        return new CouponCode(packed);
+    }
+
+    public long packed() {
+        return packed;
+    }
+
+    public String value() {
+        String cached = value;
+        if (cached == null) {
+            // Benign race: every thread computes the same immutable string
+            cached = unpack(packed);
+            value = cached;
+        }
+        return cached;
+    }
+
+    private static int digit(char c) {
+        if (c >= '0' && c <= '9') {
+            return c - '0';
+        }
+        if (c >= 'A' && c <= 'Z') {
+            return c - 'A' + 10;
+        }
+        if (c >= 'a' && c <= 'z') {
+            return c - 'a' + 10;
+        }
+        return -1;
+    }
+
+    private static boolean isLowerCase(char c) {
+        return c >= 'a' && c <= 'z';
+    }
+
+    private static String unpack(long packed) {
+        byte[] chars = new byte[REQUIRED_LENGTH];
+        for (int i = REQUIRED_LENGTH - 1; i >= 0; i--) {
+            int digit = (int) (packed % RADIX);
+            chars[i] = (byte) (digit < 10 ? '0' + digit : 'A' + digit - 10);
+            packed /= RADIX;
+        }
+        return new String(chars, StandardCharsets.US_ASCII);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof CouponCode code && code.packed == packed;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(packed);
     }
 
     @Override
     public String toString() {
-        return value;
+        return value();
     }
 }
@@ -0,0 +1,12 @@
+package com.outforce.coupon.domain;
+
+/** Whether a coupon can be applied to an order, and the first rule that stops it if not. */
+public enum CouponEligibility {
+    ELIGIBLE,
+    DELETED,
+    INACTIVE,
+    EXPIRED,
+    NOT_PUBLISHED,
+    REDEEMED,
+    USAGE_LIMIT_REACHED
+}
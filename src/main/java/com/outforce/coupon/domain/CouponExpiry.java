@@ -0,0 +1,10 @@
+package com.outforce.coupon.domain;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/** Id and expiration date of an active coupon, enough to schedule its expiration. */
+public record CouponExpiry(
+        UUID id,
+        OffsetDateTime expirationDate
+) {}
@@ -0,0 +1,23 @@
+package com.outforce.coupon.domain;
+
+import java.util.UUID;
+
+/**
+ * Factory for the ids of new coupons.
+ * Every generator yields standard UUIDs, so ids from either scheme can coexist in the same store.
+ */
+@FunctionalInterface
+public interface CouponIdGenerator {
+
+    UUID next();
+
+    /** Version 4 ids: uniformly random, so inserts land anywhere in the primary key index. */
+    static CouponIdGenerator random() {
+        return UUID::randomUUID;
+    }
+
+    /** Version 7 ids: ordered by creation time, so inserts append to the right edge of the index. */
+    static CouponIdGenerator timeOrdered() {
+        return TimeOrderedCouponIdGenerator.INSTANCE;
+    }
+}
@@ -0,0 +1,13 @@
+package com.outforce.coupon.domain;
+
+import java.util.UUID;
+
+/** The two ways a coupon is looked up: its id and its code. */
+public record CouponKey(
+        UUID id,
+        CouponCode code
+) {
+    public CouponKey(UUID id, String code) {
+        this(id, new CouponCode(code));
+    }
+}
@@ -0,0 +1,14 @@
+package com.outforce.coupon.domain;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/** Position of the last coupon seen, in {@code (createdAt, id)} order. */
+public record CouponPageCursor(
+        OffsetDateTime createdAt,
+        UUID id
+) {
+    public static CouponPageCursor after(Coupon coupon) {
+        return new CouponPageCursor(coupon.getCreatedAt(), coupon.getId());
+    }
+}
@@ -1,12 +1,61 @@
 package com.outforce.coupon.domain;
 
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 /**
  * Output port — domain does not depend on persistence technology.
  */
 public interface CouponRepository {
     Coupon save(Coupon coupon);
+
+    /** Inserts new coupons in a single transaction; fails as a whole if any code is taken. */
+    List<Coupon> saveAll(List<Coupon> coupons);
+
     Optional<Coupon> findById(UUID id);
+    Optional<Coupon> findByCode(CouponCode code);
+
+    /** Version and expiration date only; lets conditional reads skip loading the coupon. */
+    Optional<CouponVersion> findVersion(UUID id);
+
+    boolean existsByCode(CouponCode code);
+    Set<CouponCode> findExistingCodes(Collection<CouponCode> codes);
+
+    /** Loads the coupons holding any of the codes in one round trip; unknown codes are left out. */
+    List<Coupon> findAllByCodes(Collection<CouponCode> codes);
+
+    /** Marks the coupon as deleted in one conditional write; never touches an already deleted row. */
+    SoftDeleteResult softDelete(UUID id, OffsetDateTime deletedAt);
+
+    /**
+     * Seek-paginated listing ordered by {@code (createdAt, id)}.
+     * Returns up to {@code limit} coupons strictly after the cursor (or from the start when null).
+     */
+    List<Coupon> search(CouponSearchCriteria criteria, CouponPageCursor after, int limit);
+
+    /** Ids of active coupons whose expiration date is at or before {@code now}, oldest first. */
+    List<UUID> findExpiredIds(OffsetDateTime now, int limit);
+
+    /** Active coupons expiring in {@code (from, to]}, soonest first. */
+    List<CouponExpiry> findExpiringBetween(OffsetDateTime from, OffsetDateTime to, int limit);
+
+    /**
+     * Moves the given coupons to INACTIVE, but only those still active and past expiration at {@code now}.
+     * Safe to repeat and to race with other nodes; returns the number of coupons actually changed.
+     */
+    int expire(Collection<UUID> ids, OffsetDateTime now);
+
+    /** Flags an active, published, unredeemed coupon as redeemed; returns false if another caller got there first. */
+    boolean markRedeemed(UUID id);
+
+    /**
+     * Visits the id and code of every stored coupon, in no particular order, without loading
+     * whole coupons. Every coupon committed before the call starts is visited.
+     */
+    void forEachKey(Consumer<CouponKey> action);
 }
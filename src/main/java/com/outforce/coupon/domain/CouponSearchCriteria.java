@@ -0,0 +1,15 @@
+package com.outforce.coupon.domain;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Optional filters for listing coupons; null means "any".
+ * The expiration range is inclusive at the start and exclusive at the end.
+ */
+public record CouponSearchCriteria(
+        CouponStatus status,
+        Boolean published,
+        Boolean redeemed,
+        OffsetDateTime expiresFrom,
+        OffsetDateTime expiresTo
+) {}
@@ -0,0 +1,13 @@
+package com.outforce.coupon.domain;
+
+import java.util.UUID;
+
+/**
+ * Output port — reserves single uses of multi-use coupons.
+ * Implementations must never hand out more uses than the coupon's usage limit.
+ */
+public interface CouponUsageQuota {
+
+    /** Reserves one use; returns false when no use is left. */
+    boolean tryAcquire(UUID couponId);
+}
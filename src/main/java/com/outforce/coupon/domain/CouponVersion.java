@@ -0,0 +1,9 @@
+package com.outforce.coupon.domain;
+
+import java.time.OffsetDateTime;
+
+/** Version and expiration date of a coupon, enough to revalidate a client's copy without loading the row. */
+public record CouponVersion(
+        long version,
+        OffsetDateTime expirationDate
+) {}
@@ -0,0 +1,112 @@
+package com.outforce.coupon.domain;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.util.Arrays;
+
+/**
+ * Spreads a fixed discount over the lines of a cart, in whole cents held in {@code long}s.
+ * The discount applied is the coupon's value capped at the cart subtotal. Each line gets its
+ * share {@code applied * line / subtotal}, rounded with the caller's {@link RoundingMode};
+ * the few cents rounding leaves over or short are then settled line by line from the first,
+ * never taking a line below zero or above its own amount, so the lines always add up to the
+ * applied discount exactly.
+ *
+ * <p>Nothing is allocated per line: amounts and results are primitive arrays supplied by the
+ * caller. A subtotal that does not fit in a {@code long} throws {@link ArithmeticException};
+ * a share whose intermediate product does not fit is computed exactly on a slower path.
+ */
+public final class DiscountAllocator {
+
+    public static final int SCALE = 2;
+
+    private DiscountAllocator() {}
+
+    /**
+     * Writes each line's discount into {@code lineDiscounts} and returns the total applied.
+     *
+     * @param discount      coupon value in cents, not negative
+     * @param lineAmounts   line totals in cents, not negative; the first {@code lines} are used
+     * @param lineDiscounts receives the discount of each line, may be the same length as the amounts
+     */
+    public static long allocate(long discount, long[] lineAmounts, int lines, long[] lineDiscounts, RoundingMode mode) {
+        if (discount < 0) {
+            throw new IllegalArgumentException("Discount must not be negative.");
+        }
+        long subtotal = 0;
+        for (int i = 0; i < lines; i++) {
+            if (lineAmounts[i] < 0) {
+                throw new IllegalArgumentException("Line amounts must not be negative.");
+            }
+            subtotal = Math.addExact(subtotal, lineAmounts[i]);
+        }
+        long applied = Math.min(discount, subtotal);
+        if (applied == 0) {
+            Arrays.fill(lineDiscounts, 0, lines, 0L);
+            return 0;
+        }
+
+        long allocated = 0;
+        for (int i = 0; i < lines; i++) {
+            long share = share(applied, lineAmounts[i], subtotal, mode);
+            lineDiscounts[i] = share;
+            allocated += share;
+        }
+
+        // Shares never exceed their line, so there is always room to settle the difference
+        long residual = applied - allocated;
+        for (int i = 0; i < lines && residual != 0; i++) {
+            long adjustment = residual > 0
+                ? Math.min(residual, lineAmounts[i] - lineDiscounts[i])
+                : -Math.min(-residual, lineDiscounts[i]);
+            lineDiscounts[i] += adjustment;
+            residual -= adjustment;
+        }
+        return applied;
+    }
+
+    /** Converts an amount to cents with the given rounding; fails if it does not fit in a {@code long}. */
+    public static long toCents(BigDecimal amount, RoundingMode mode) {
+        return amount.setScale(SCALE, mode).unscaledValue().longValueExact();
+    }
+
+    public static BigDecimal fromCents(long cents) {
+        return BigDecimal.valueOf(cents, SCALE);
+    }
+
+    /** {@code applied * amount / subtotal} rounded, for {@code 0 <= applied <= subtotal} and {@code subtotal > 0}. */
+    private static long share(long applied, long amount, long subtotal, RoundingMode mode) {
+        long high = Math.multiplyHigh(applied, amount);
+        long product = applied * amount;
+        if (high != 0 || product < 0) {
+            return exactShare(applied, amount, subtotal, mode);
+        }
+        long quotient = product / subtotal;
+        long remainder = product - quotient * subtotal;
+        return remainder == 0 ? quotient : quotient + roundingIncrement(quotient, remainder, subtotal, mode);
+    }
+
+    private static long exactShare(long applied, long amount, long subtotal, RoundingMode mode) {
+        BigInteger[] division = BigInteger.valueOf(applied).multiply(BigInteger.valueOf(amount))
+            .divideAndRemainder(BigInteger.valueOf(subtotal));
+        long quotient = division[0].longValueExact();
+        long remainder = division[1].longValueExact();
+        return remainder == 0 ? quotient : quotient + roundingIncrement(quotient, remainder, subtotal, mode);
+    }
+
+    /** Whether a non-negative quotient with a non-zero remainder rounds up. */
+    private static long roundingIncrement(long quotient, long remainder, long divisor, RoundingMode mode) {
+        // remainder compared with the other half of the divisor, without doubling it
+        long otherHalf = divisor - remainder;
+        boolean roundsUp = switch (mode) {
+            case UP, CEILING -> true;
+            case DOWN, FLOOR -> false;
+            case HALF_UP -> remainder >= otherHalf;
+            case HALF_DOWN -> remainder > otherHalf;
+            case HALF_EVEN -> remainder > otherHalf || (remainder == otherHalf && (quotient & 1) == 1);
+            case UNNECESSARY -> throw new ArithmeticException("Rounding necessary to split the discount.");
+        };
+        return roundsUp ? 1 : 0;
+    }
+}
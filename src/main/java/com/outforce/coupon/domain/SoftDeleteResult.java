@@ -0,0 +1,8 @@
+package com.outforce.coupon.domain;
+
+/** Outcome of a conditional soft delete issued against the store. */
+public enum SoftDeleteResult {
+    DELETED,
+    ALREADY_DELETED,
+    NOT_FOUND
+}
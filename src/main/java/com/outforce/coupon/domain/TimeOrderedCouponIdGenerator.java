@@ -0,0 +1,39 @@
+package com.outforce.coupon.domain;
+
+import java.security.SecureRandom;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * UUID version 7 (RFC 9562): 48-bit Unix millisecond timestamp, then a 12-bit counter
+ * in {@code rand_a}, then 62 random bits. The counter makes ids strictly increasing
+ * within this JVM even for several ids in the same millisecond; when it overflows the
+ * timestamp field simply moves ahead by one millisecond. Byte order equals time order,
+ * which keeps a B-tree primary key append-mostly.
+ */
+final class TimeOrderedCouponIdGenerator implements CouponIdGenerator {
+
+    static final TimeOrderedCouponIdGenerator INSTANCE = new TimeOrderedCouponIdGenerator();
+
+    private static final int COUNTER_BITS = 12;
+    private static final long VERSION = 7L << 12;
+    private static final long VARIANT = 0x8000_0000_0000_0000L;
+    private static final long RANDOM_MASK = 0x3FFF_FFFF_FFFF_FFFFL;
+
+    // Same entropy source as UUID.randomUUID(): ids stay unguessable
+    private final SecureRandom random = new SecureRandom();
+
+    /** Last issued timestamp and counter, packed as {@code millis << 12 | counter}. */
+    private final AtomicLong last = new AtomicLong();
+
+    @Override
+    public UUID next() {
+        long now = System.currentTimeMillis() << COUNTER_BITS;
+        long state = last.updateAndGet(previous -> Math.max(previous + 1, now));
+        long millis = state >>> COUNTER_BITS;
+        long counter = state & ((1L << COUNTER_BITS) - 1);
+        long mostSignificant = (millis << 16) | VERSION | counter;
+        long leastSignificant = VARIANT | (random.nextLong() & RANDOM_MASK);
+        return new UUID(mostSignificant, leastSignificant);
+    }
+}
@@ -0,0 +1,176 @@
+package com.outforce.coupon.infrastructure.bloom;
+
+import com.outforce.coupon.application.get.CouponExistenceFilter;
+import com.outforce.coupon.domain.Coupon;
+import com.outforce.coupon.domain.CouponCode;
+import com.outforce.coupon.domain.CouponKey;
+import com.outforce.coupon.domain.CouponRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+import java.util.function.ToLongFunction;
+
+/**
+ * {@link CouponExistenceFilter} backed by two scalable Bloom filters, one over ids and one
+ * over codes. The filters are built from {@link CouponRepository#forEachKey} right after
+ * startup and rebuilt every {@code rebuildInterval}, which folds grown stages back into one
+ * filter sized for the current data. Until the first build completes every key may exist.
+ *
+ * <p>Creates made while a rebuild is scanning go to both the live and the new filters.
+ * The filters only know about coupons created through this node: with several nodes
+ * writing, a coupon created elsewhere is a definite miss here until the next rebuild.
+ */
+@Component
+@ConditionalOnProperty(prefix = "coupon.bloom", name = "enabled", havingValue = "true")
+public class BloomCouponExistenceFilter implements CouponExistenceFilter, MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(BloomCouponExistenceFilter.class);
+
+    private final CouponRepository repository;
+    private final long expectedInsertions;
+    private final double falsePositiveRate;
+    private volatile Filters filters = new Filters(null, null);
+    private Counter idMisses;
+    private Counter codeMisses;
+
+    public BloomCouponExistenceFilter(CouponRepository repository, CouponBloomProperties properties) {
+        this.repository = repository;
+        this.expectedInsertions = properties.expectedInsertions();
+        this.falsePositiveRate = properties.falsePositiveRate();
+        // Fail at startup on a bad size or rate rather than on the first rebuild
+        new BloomFilter(expectedInsertions, falsePositiveRate);
+    }
+
+    @Override
+    public boolean mightContain(UUID id) {
+        Keys live = filters.live();
+        if (live == null || live.mightContain(id)) {
+            return true;
+        }
+        count(idMisses);
+        return false;
+    }
+
+    @Override
+    public boolean mightContain(CouponCode code) {
+        Keys live = filters.live();
+        if (live == null || live.mightContain(code)) {
+            return true;
+        }
+        count(codeMisses);
+        return false;
+    }
+
+    @Override
+    public void add(Coupon coupon) {
+        // One read of the pair: an add either lands in the filter being built or happens before the scan starts
+        Filters current = filters;
+        if (current.live() != null) {
+            current.live().add(coupon.getId(), coupon.getCode());
+        }
+        if (current.building() != null) {
+            current.building().add(coupon.getId(), coupon.getCode());
+        }
+    }
+
+    /** Builds fresh filters from the repository and swaps them in. */
+    @Scheduled(fixedDelayString = "${coupon.bloom.rebuild-interval:1h}")
+    public synchronized void rebuild() {
+        long start = System.nanoTime();
+        Keys live = filters.live();
+        long capacity = live == null ? expectedInsertions : Math.max(expectedInsertions, live.keys() + live.keys() / 4);
+        Keys building = new Keys(capacity, falsePositiveRate);
+        filters = new Filters(live, building);
+        try {
+            repository.forEachKey(building::add);
+        } catch (RuntimeException ex) {
+            filters = new Filters(live, null);
+            throw ex;
+        }
+        filters = new Filters(building, null);
+        log.info("Coupon Bloom filter rebuilt with {} keys ({} KiB) in {} ms",
+            building.keys(), building.bits() / 8 / 1024, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        idMisses = Counter.builder("coupon.bloom.definite.misses").tag("key", "id")
+            .description("Lookups answered as not found without reaching the repository")
+            .register(registry);
+        codeMisses = Counter.builder("coupon.bloom.definite.misses").tag("key", "code")
+            .description("Lookups answered as not found without reaching the repository")
+            .register(registry);
+        Gauge.builder("coupon.bloom.keys", this, filter -> filter.liveValue(Keys::keys))
+            .description("Coupons recorded in the live Bloom filter")
+            .register(registry);
+        Gauge.builder("coupon.bloom.bytes", this, filter -> filter.liveValue(keys -> keys.bits() / 8))
+            .description("Memory held by the live Bloom filter")
+            .register(registry);
+    }
+
+    private double liveValue(ToLongFunction<Keys> value) {
+        Keys live = filters.live();
+        return live == null ? 0 : value.applyAsLong(live);
+    }
+
+    private static void count(Counter counter) {
+        if (counter != null) {
+            counter.increment();
+        }
+    }
+
+    /** The filter answering lookups, and the one a rebuild is filling, if any. */
+    private record Filters(Keys live, Keys building) {}
+
+    private static final class Keys {
+
+        private final ScalableBloomFilter ids;
+        private final ScalableBloomFilter codes;
+
+        Keys(long capacity, double falsePositiveRate) {
+            this.ids = new ScalableBloomFilter(capacity, falsePositiveRate);
+            this.codes = new ScalableBloomFilter(capacity, falsePositiveRate);
+        }
+
+        void add(CouponKey key) {
+            add(key.id(), key.code());
+        }
+
+        void add(UUID id, CouponCode code) {
+            ids.put(hash(id));
+            codes.put(hash(code));
+        }
+
+        boolean mightContain(UUID id) {
+            return ids.mightContain(hash(id));
+        }
+
+        boolean mightContain(CouponCode code) {
+            return codes.mightContain(hash(code));
+        }
+
+        long keys() {
+            return ids.keys();
+        }
+
+        long bits() {
+            return ids.bits() + codes.bits();
+        }
+
+        private static long hash(UUID id) {
+            return BloomFilter.mix(id.getMostSignificantBits() ^ BloomFilter.mix(id.getLeastSignificantBits()));
+        }
+
+        private static long hash(CouponCode code) {
+            return BloomFilter.mix(code.packed());
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.outforce.coupon.infrastructure.bloom;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size Bloom filter over 64-bit key hashes, sized for a number of keys and a
+ * false-positive rate. The k bit positions come from double hashing
+ * (h1 + i * h2, Kirsch–Mitzenmacher), with h2 derived from the key hash by a further mix.
+ * Bits are set with CAS, so concurrent puts and lookups need no lock.
+ */
+final class BloomFilter {
+
+    private static final double LN2 = Math.log(2);
+
+    private final AtomicLongArray words;
+    private final long bits;
+    private final int hashes;
+    private final long capacity;
+    private final AtomicLong keys = new AtomicLong();
+
+    BloomFilter(long capacity, double falsePositiveRate) {
+        if (capacity <= 0 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException(
+                "Bloom filter needs a positive capacity and a false-positive rate in (0, 1)");
+        }
+        long optimalBits = (long) Math.ceil(-capacity * Math.log(falsePositiveRate) / (LN2 * LN2));
+        int wordCount = Math.toIntExact(Math.max(1, (optimalBits + 63) >>> 6));
+        this.words = new AtomicLongArray(wordCount);
+        this.bits = (long) wordCount << 6;
+        this.hashes = Math.max(1, (int) Math.round((double) bits / capacity * LN2));
+        this.capacity = capacity;
+    }
+
+    /** Sets the key's bits; returns true if any of them was clear, i.e. the key was certainly new. */
+    boolean put(long hash) {
+        long h2 = mix(hash) | 1;
+        boolean changed = false;
+        for (int i = 0; i < hashes; i++) {
+            long bit = Long.remainderUnsigned(hash + i * h2, bits);
+            int index = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long word = words.get(index);
+            while ((word & mask) == 0) {
+                if (words.compareAndSet(index, word, word | mask)) {
+                    changed = true;
+                    break;
+                }
+                word = words.get(index);
+            }
+        }
+        if (changed) {
+            keys.incrementAndGet();
+        }
+        return changed;
+    }
+
+    boolean mightContain(long hash) {
+        long h2 = mix(hash) | 1;
+        for (int i = 0; i < hashes; i++) {
+            long bit = Long.remainderUnsigned(hash + i * h2, bits);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    boolean isFull() {
+        return keys.get() >= capacity;
+    }
+
+    long keys() {
+        return keys.get();
+    }
+
+    long capacity() {
+        return capacity;
+    }
+
+    long bits() {
+        return bits;
+    }
+
+    /** SplitMix64 finalizer: spreads every input bit over the whole output. */
+    static long mix(long value) {
+        value = (value ^ (value >>> 30)) * 0xbf58476d1ce4e5b9L;
+        value = (value ^ (value >>> 27)) * 0x94d049bb133111ebL;
+        return value ^ (value >>> 31);
+    }
+}
@@ -0,0 +1,17 @@
+package com.outforce.coupon.infrastructure.bloom;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * @param expectedInsertions coupons the filter is sized for; it grows past this, a rebuild resizes it
+ * @param falsePositiveRate  share of unknown ids and codes that still reach the repository
+ * @param rebuildInterval    how often the filter is rebuilt from the repository
+ */
+@ConfigurationProperties(prefix = "coupon.bloom")
+public record CouponBloomProperties(
+        long expectedInsertions,
+        double falsePositiveRate,
+        Duration rebuildInterval
+) {}
@@ -0,0 +1,79 @@
+package com.outforce.coupon.infrastructure.bloom;
+
+import java.util.Arrays;
+
+/**
+ * Bloom filter that keeps its false-positive rate when more keys arrive than it was
+ * sized for (Almeida et al., "Scalable Bloom Filters"). When the newest stage is full a
+ * new one is added with twice the capacity and half the false-positive rate, so the
+ * combined rate stays below the configured one however far the filter grows.
+ * Lookups check every stage; a periodic rebuild folds the stages back into one.
+ */
+final class ScalableBloomFilter {
+
+    private static final int GROWTH = 2;
+    private static final double TIGHTENING = 0.5;
+
+    private final double firstStageRate;
+    private volatile BloomFilter[] stages;
+
+    ScalableBloomFilter(long capacity, double falsePositiveRate) {
+        // Stage rates form a geometric series summing to at most p0 / (1 - r) = falsePositiveRate
+        this.firstStageRate = falsePositiveRate * (1 - TIGHTENING);
+        this.stages = new BloomFilter[] {new BloomFilter(capacity, firstStageRate)};
+    }
+
+    void put(long hash) {
+        BloomFilter[] current = stages;
+        for (int i = 0; i < current.length - 1; i++) {
+            if (current[i].mightContain(hash)) {
+                return;
+            }
+        }
+        BloomFilter last = current[current.length - 1];
+        if (last.put(hash) && last.isFull()) {
+            grow(current);
+        }
+    }
+
+    boolean mightContain(long hash) {
+        for (BloomFilter stage : stages) {
+            if (stage.mightContain(hash)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Keys added so far; duplicates and the rare false positive on insert are not counted. */
+    long keys() {
+        long keys = 0;
+        for (BloomFilter stage : stages) {
+            keys += stage.keys();
+        }
+        return keys;
+    }
+
+    long bits() {
+        long bits = 0;
+        for (BloomFilter stage : stages) {
+            bits += stage.bits();
+        }
+        return bits;
+    }
+
+    int stageCount() {
+        return stages.length;
+    }
+
+    private synchronized void grow(BloomFilter[] full) {
+        if (stages != full) {
+            return;
+        }
+        BloomFilter[] grown = Arrays.copyOf(full, full.length + 1);
+        grown[full.length] = new BloomFilter(
+            full[full.length - 1].capacity() * GROWTH,
+            firstStageRate * Math.pow(TIGHTENING, full.length));
+        stages = grown;
+    }
+}
@@ -0,0 +1,155 @@
+package com.outforce.coupon.infrastructure.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.outforce.coupon.application.get.CouponCacheStats;
+import com.outforce.coupon.application.get.CouponResponseCache;
+import com.outforce.coupon.application.get.EncodedCouponResponse;
+import com.outforce.coupon.application.get.GetCouponResponse;
+import com.outforce.coupon.shared.concurrent.SingleFlight;
+import com.outforce.coupon.shared.transaction.TransactionCallbacks;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * W-TinyLFU cache of {@link GetCouponResponse} keyed by coupon id, optionally holding the
+ * response's encoded body next to it. Entries live for the configured TTL but never past the
+ * coupon's expiration date.
+ *
+ * <p>Loads run outside the cache's internal locks. Concurrent misses for the same id share
+ * one load; waiting for it is bounded by {@code loadWaitTimeout}. A load that overlaps an
+ * invalidation is discarded after being stored, and misses after an invalidation never join
+ * a load started before it, so a reader can never resurrect a pre-delete snapshot.
+ */
+@Component
+public class CaffeineCouponResponseCache implements CouponResponseCache, MeterBinder {
+
+    private final Cache<UUID, Entry> cache;
+    private final AtomicLong invalidations = new AtomicLong();
+    private final SingleFlight<UUID, GetCouponResponse> loads;
+
+    public CaffeineCouponResponseCache(CouponCacheProperties properties) {
+        this.loads = new SingleFlight<>(properties.loadWaitTimeout());
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.maximumSize())
+                .expireAfter(new ExpirationBoundedExpiry(properties.timeToLive()))
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public GetCouponResponse get(UUID id, Function<UUID, GetCouponResponse> loader) {
+        Entry cached = cache.getIfPresent(id);
+        if (cached != null) {
+            return cached.response();
+        }
+        return load(id, loader, null).response();
+    }
+
+    @Override
+    public EncodedCouponResponse getEncoded(UUID id, Function<UUID, GetCouponResponse> loader,
+                                            Function<GetCouponResponse, byte[]> encoder) {
+        Entry cached = cache.getIfPresent(id);
+        if (cached == null) {
+            cached = load(id, loader, encoder);
+        } else if (cached.encoded() == null) {
+            // Attach only to the entry we read: if it was invalidated meanwhile, nothing is stored
+            Entry encoded = new Entry(cached.response(), encoder.apply(cached.response()));
+            cache.asMap().replace(id, cached, encoded);
+            cached = encoded;
+        }
+        return new EncodedCouponResponse(cached.response(), cached.encoded());
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "coupon-responses");
+        Gauge.builder("coupon.cache.loads.in.flight", loads, SingleFlight::inFlight)
+                .description("Distinct coupons being loaded after a cache miss")
+                .register(registry);
+    }
+
+    @Override
+    public void invalidate(UUID id) {
+        evict(id);
+        // Readers in other transactions may re-cache the old row until we commit
+        TransactionCallbacks.afterCommit(() -> evict(id));
+    }
+
+    @Override
+    public CouponCacheStats stats() {
+        CacheStats stats = cache.stats();
+        return new CouponCacheStats(
+                stats.hitCount(),
+                stats.missCount(),
+                stats.evictionCount(),
+                cache.estimatedSize()
+        );
+    }
+
+    private Entry load(UUID id, Function<UUID, GetCouponResponse> loader, Function<GetCouponResponse, byte[]> encoder) {
+        long stamp = invalidations.get();
+        GetCouponResponse loaded = loads.execute(id, () -> loader.apply(id));
+        Entry entry = new Entry(loaded, encoder != null ? encoder.apply(loaded) : null);
+        cache.put(id, entry);
+        if (invalidations.get() != stamp) {
+            cache.invalidate(id);
+        }
+        return entry;
+    }
+
+    private void evict(UUID id) {
+        invalidations.incrementAndGet();
+        loads.forget(id);
+        cache.invalidate(id);
+    }
+
+    /** A cached response and, once someone asked for it, its encoded body. */
+    private record Entry(GetCouponResponse response, byte[] encoded) {}
+
+    private static final class ExpirationBoundedExpiry implements Expiry<UUID, Entry> {
+
+        private final Duration timeToLive;
+
+        private ExpirationBoundedExpiry(Duration timeToLive) {
+            this.timeToLive = timeToLive;
+        }
+
+        @Override
+        public long expireAfterCreate(UUID key, Entry value, long currentTime) {
+            return durationFor(value.response());
+        }
+
+        @Override
+        public long expireAfterUpdate(UUID key, Entry value, long currentTime, long currentDuration) {
+            // Updates only attach an encoded body or repeat a racing load; neither extends the entry
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(UUID key, Entry value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        private long durationFor(GetCouponResponse value) {
+            Duration untilExpiration = Duration.between(OffsetDateTime.now(), value.expirationDate());
+            if (untilExpiration.isNegative()) {
+                return 0;
+            }
+            return untilExpiration.compareTo(timeToLive) < 0
+                    ? untilExpiration.toNanos()
+                    : timeToLive.toNanos();
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.outforce.coupon.infrastructure.cache;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * @param maximumSize     responses kept at most
+ * @param timeToLive      how long a response is served before it is reloaded
+ * @param loadWaitTimeout how long a miss waits for an identical load already running before getting a 503
+ */
+@ConfigurationProperties(prefix = "coupon.cache")
+public record CouponCacheProperties(
+        long maximumSize,
+        Duration timeToLive,
+        Duration loadWaitTimeout
+) {}
@@ -0,0 +1,21 @@
+package com.outforce.coupon.infrastructure.config;
+
+import com.outforce.coupon.domain.CouponIdGenerator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/** Picks the id scheme for new coupons; existing ids of either scheme keep working. */
+@Configuration
+public class CouponIdConfig {
+
+    @Bean
+    public CouponIdGenerator couponIdGenerator(@Value("${coupon.id.strategy:time-ordered}") String strategy) {
+        return switch (strategy) {
+            case "time-ordered" -> CouponIdGenerator.timeOrdered();
+            case "random" -> CouponIdGenerator.random();
+            default -> throw new IllegalArgumentException(
+                "Unknown coupon.id.strategy '%s'; expected time-ordered or random".formatted(strategy));
+        };
+    }
+}
@@ -0,0 +1,126 @@
+package com.outforce.coupon.infrastructure.diagnostics;
+
+import com.outforce.coupon.application.create.CreateCouponCommand;
+import com.outforce.coupon.application.create.CreateCouponResponse;
+import com.outforce.coupon.application.get.GetCouponResponse;
+import com.outforce.coupon.application.redeem.RedeemCouponResponse;
+import com.outforce.coupon.domain.Coupon;
+import com.outforce.coupon.domain.CouponCode;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.CodeSignature;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Emits {@link CouponOperationEvent} and {@link CouponRepositoryEvent} around use cases and
+ * repository calls, so coupon operations line up with GC, lock and socket events in a recording.
+ * With no recording running the events are disabled and the advice only asks JFR whether they are on.
+ */
+@Aspect
+@Component
+@ConditionalOnProperty(prefix = "coupon.diagnostics.jfr", name = "events", havingValue = "true", matchIfMissing = true)
+public class CouponJfrAspect {
+
+    @Around("execution(public * com.outforce.coupon.application..*UseCase.*(..))")
+    public Object recordOperation(ProceedingJoinPoint joinPoint) throws Throwable {
+        CouponOperationEvent event = new CouponOperationEvent();
+        if (!event.isEnabled()) {
+            return joinPoint.proceed();
+        }
+        event.begin();
+        Object result = null;
+        Throwable failure = null;
+        try {
+            result = joinPoint.proceed();
+            return result;
+        } catch (Throwable ex) {
+            failure = ex;
+            throw ex;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                CouponRef ref = CouponRef.of((CodeSignature) joinPoint.getSignature(), joinPoint.getArgs(), result);
+                event.operation = joinPoint.getSignature().getDeclaringType().getSimpleName()
+                        + "." + joinPoint.getSignature().getName();
+                event.couponId = ref.id();
+                event.code = ref.code();
+                event.outcome = outcome(failure);
+                event.commit();
+            }
+        }
+    }
+
+    @Around("execution(* com.outforce.coupon.domain.CouponRepository.*(..))")
+    public Object recordRepositoryCall(ProceedingJoinPoint joinPoint) throws Throwable {
+        CouponRepositoryEvent event = new CouponRepositoryEvent();
+        if (!event.isEnabled()) {
+            return joinPoint.proceed();
+        }
+        event.begin();
+        Object result = null;
+        Throwable failure = null;
+        try {
+            result = joinPoint.proceed();
+            return result;
+        } catch (Throwable ex) {
+            failure = ex;
+            throw ex;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                CouponRef ref = CouponRef.of((CodeSignature) joinPoint.getSignature(), joinPoint.getArgs(), result);
+                event.method = joinPoint.getSignature().getName();
+                event.couponId = ref.id();
+                event.code = ref.code();
+                event.outcome = outcome(failure);
+                event.commit();
+            }
+        }
+    }
+
+    private static String outcome(Throwable failure) {
+        return failure == null ? "success" : failure.getClass().getSimpleName();
+    }
+
+    /**
+     * Best-effort coupon id and code, from the result when it is a coupon and from the arguments otherwise.
+     * A plain string only counts as a code when its parameter is named as one; others (page cursors) are skipped.
+     */
+    private record CouponRef(String id, String code) {
+
+        private static final Set<String> CODE_PARAMETERS = Set.of("code", "rawCode");
+
+        static CouponRef of(CodeSignature signature, Object[] args, Object result) {
+            String[] names = signature.getParameterNames();
+            String id = null;
+            String code = null;
+            for (int i = 0; i < args.length; i++) {
+                Object arg = args[i];
+                if (arg instanceof UUID uuid && id == null) {
+                    id = uuid.toString();
+                } else if (arg instanceof CouponCode couponCode && code == null) {
+                    code = couponCode.value();
+                } else if (arg instanceof String raw && code == null
+                        && names != null && CODE_PARAMETERS.contains(names[i])) {
+                    code = raw;
+                } else if (arg instanceof CreateCouponCommand command && code == null) {
+                    code = command.code();
+                }
+            }
+            Object value = result instanceof Optional<?> optional ? optional.orElse(null) : result;
+            return switch (value) {
+                case Coupon coupon -> new CouponRef(coupon.getId().toString(), coupon.getCode().value());
+                case GetCouponResponse response -> new CouponRef(response.id().toString(), response.code());
+                case CreateCouponResponse response -> new CouponRef(response.id().toString(), response.code());
+                case RedeemCouponResponse response -> new CouponRef(response.id().toString(), response.code());
+                case null, default -> new CouponRef(id, code);
+            };
+        }
+    }
+}
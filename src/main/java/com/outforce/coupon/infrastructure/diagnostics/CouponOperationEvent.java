@@ -0,0 +1,28 @@
+package com.outforce.coupon.infrastructure.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.outforce.coupon.Operation")
+@Label("Coupon Operation")
+@Category("Coupon")
+@Description("A coupon use case invocation")
+@StackTrace(false)
+public class CouponOperationEvent extends Event {
+
+    @Label("Operation")
+    public String operation;
+
+    @Label("Coupon Id")
+    public String couponId;
+
+    @Label("Code")
+    public String code;
+
+    @Label("Outcome")
+    public String outcome;
+}
@@ -0,0 +1,28 @@
+package com.outforce.coupon.infrastructure.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.outforce.coupon.Repository")
+@Label("Coupon Repository Call")
+@Category("Coupon")
+@Description("A call through the CouponRepository port")
+@StackTrace(false)
+public class CouponRepositoryEvent extends Event {
+
+    @Label("Method")
+    public String method;
+
+    @Label("Coupon Id")
+    public String couponId;
+
+    @Label("Code")
+    public String code;
+
+    @Label("Outcome")
+    public String outcome;
+}
@@ -0,0 +1,22 @@
+package com.outforce.coupon.infrastructure.diagnostics;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * @param events      whether coupon operations emit JFR events at all
+ * @param settings    JFR configuration the recording starts with ({@code default} or {@code profile})
+ * @param maxAge      oldest data kept in the recording's ring buffer
+ * @param maxSize     largest amount of data kept on disk
+ * @param maxDuration the recording stops by itself after this long
+ */
+@ConfigurationProperties(prefix = "coupon.diagnostics.jfr")
+public record JfrRecordingProperties(
+        boolean events,
+        String settings,
+        Duration maxAge,
+        DataSize maxSize,
+        Duration maxDuration
+) {}
@@ -0,0 +1,179 @@
+package com.outforce.coupon.infrastructure.diagnostics;
+
+import com.outforce.coupon.shared.exception.BusinessException;
+import com.outforce.coupon.shared.exception.RecordingStateException;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import jdk.jfr.consumer.RecordingFile;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * One on-demand flight recording at a time, bounded in age, size and duration so a
+ * forgotten recording cannot fill the disk. A stopped recording stays available for
+ * dumping until the next one starts.
+ * A lock rather than {@code synchronized} guards the recording: dumps do file I/O and
+ * would otherwise pin a virtual thread to its carrier.
+ *
+ * <p>Only the JDK's {@code default} and {@code profile} settings are accepted, and events that
+ * carry environment variables, system properties or command lines are kept out of every dump:
+ * they hold credentials. Off unless {@code coupon.diagnostics.jfr.admin.enabled} is set.
+ */
+@Service
+@ConditionalOnProperty(prefix = "coupon.diagnostics.jfr.admin", name = "enabled", havingValue = "true")
+public class JfrRecordingService {
+
+    private static final String RECORDING_NAME = "coupon-on-demand";
+    private static final Set<String> ALLOWED_SETTINGS = Set.of("default", "profile");
+    private static final Set<String> SENSITIVE_EVENTS = Set.of(
+        "jdk.InitialEnvironmentVariable",
+        "jdk.InitialSystemProperty",
+        "jdk.JVMInformation",
+        "jdk.SystemProcess"
+    );
+
+    private final JfrRecordingProperties properties;
+    private final ReentrantLock lock = new ReentrantLock();
+    private Recording recording;
+    private String settings;
+
+    public JfrRecordingService(JfrRecordingProperties properties) {
+        this.properties = properties;
+    }
+
+    public JfrRecordingStatus start(String requestedSettings) {
+        return locked(() -> doStart(requestedSettings));
+    }
+
+    public JfrRecordingStatus stop() {
+        return locked(this::doStop);
+    }
+
+    /** Writes the recording so far to a temporary file; the caller owns and deletes it. */
+    public Path dump() {
+        return locked(this::doDump);
+    }
+
+    public Optional<JfrRecordingStatus> status() {
+        return locked(() -> Optional.ofNullable(recording).map(this::status));
+    }
+
+    @PreDestroy
+    void close() {
+        locked(() -> {
+            closeCurrent();
+            return null;
+        });
+    }
+
+    private JfrRecordingStatus doStart(String requestedSettings) {
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            throw new RecordingStateException("A recording is already running.");
+        }
+        closeCurrent();
+
+        String name = requestedSettings != null ? requestedSettings : properties.settings();
+        if (!ALLOWED_SETTINGS.contains(name)) {
+            throw new BusinessException("Unknown JFR settings '%s'.".formatted(name));
+        }
+        Configuration configuration;
+        try {
+            configuration = Configuration.getConfiguration(name);
+        } catch (IOException | ParseException ex) {
+            throw new BusinessException("Unknown JFR settings '%s'.".formatted(name));
+        }
+
+        Recording started = new Recording(configuration);
+        started.setName(RECORDING_NAME);
+        SENSITIVE_EVENTS.forEach(started::disable);
+        started.setToDisk(true);
+        started.setMaxAge(properties.maxAge());
+        started.setMaxSize(properties.maxSize().toBytes());
+        started.setDuration(properties.maxDuration());
+        started.start();
+
+        recording = started;
+        settings = name;
+        return status(started);
+    }
+
+    private JfrRecordingStatus doStop() {
+        if (recording == null || recording.getState() != RecordingState.RUNNING) {
+            throw new RecordingStateException("No recording is running.");
+        }
+        recording.stop();
+        return status(recording);
+    }
+
+    private Path doDump() {
+        if (recording == null || recording.getState() == RecordingState.NEW || recording.getState() == RecordingState.CLOSED) {
+            throw new RecordingStateException("There is no recording to dump.");
+        }
+        Path raw = null;
+        Path file = null;
+        try {
+            raw = Files.createTempFile("coupon-raw-", ".jfr");
+            recording.dump(raw);
+            // Chunks are shared with any other recording in the JVM, which may have these events on
+            file = Files.createTempFile("coupon-", ".jfr");
+            try (RecordingFile in = new RecordingFile(raw)) {
+                in.write(file, event -> !SENSITIVE_EVENTS.contains(event.getEventType().getName()));
+            }
+            return file;
+        } catch (IOException ex) {
+            deleteQuietly(file);
+            throw new UncheckedIOException(ex);
+        } finally {
+            deleteQuietly(raw);
+        }
+    }
+
+    private void closeCurrent() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ignored) {
+            // Temp directory is cleaned by the OS eventually
+        }
+    }
+
+    private <T> T locked(Supplier<T> action) {
+        lock.lock();
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private JfrRecordingStatus status(Recording current) {
+        return new JfrRecordingStatus(
+            current.getName(),
+            current.getState().name(),
+            settings,
+            current.getStartTime(),
+            current.getSize()
+        );
+    }
+}
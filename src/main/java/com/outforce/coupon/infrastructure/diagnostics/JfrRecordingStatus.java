@@ -0,0 +1,11 @@
+package com.outforce.coupon.infrastructure.diagnostics;
+
+import java.time.Instant;
+
+public record JfrRecordingStatus(
+        String name,
+        String state,
+        String settings,
+        Instant startedAt,
+        long sizeBytes
+) {}
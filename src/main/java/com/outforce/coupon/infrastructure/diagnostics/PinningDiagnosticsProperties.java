@@ -0,0 +1,16 @@
+package com.outforce.coupon.infrastructure.diagnostics;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * @param threshold shortest pinning episode worth reporting
+ * @param maxFrames stack frames logged per episode
+ */
+@ConfigurationProperties(prefix = "coupon.diagnostics.pinning")
+public record PinningDiagnosticsProperties(
+        boolean enabled,
+        Duration threshold,
+        int maxFrames
+) {}
@@ -0,0 +1,76 @@
+package com.outforce.coupon.infrastructure.diagnostics;
+
+import java.util.Locale;
+
+/**
+ * Phase timings of the request running on the current thread.
+ * Nothing is recorded unless {@link ServerTimingFilter} opened a recording for the request,
+ * so instrumentation points cost a single thread-local read when the mode is off.
+ */
+public final class ServerTiming {
+
+    private static final ThreadLocal<ServerTiming> CURRENT = new ThreadLocal<>();
+
+    private final long startNanos;
+    private long handlerEntryNanos;
+    private long serializeStartNanos;
+    private long useCaseNanos;
+    private long repositoryNanos;
+
+    private ServerTiming(long startNanos) {
+        this.startNanos = startNanos;
+    }
+
+    static ServerTiming start() {
+        ServerTiming timing = new ServerTiming(System.nanoTime());
+        CURRENT.set(timing);
+        return timing;
+    }
+
+    static void clear() {
+        CURRENT.remove();
+    }
+
+    static void markHandlerEntry() {
+        ServerTiming timing = CURRENT.get();
+        if (timing != null && timing.handlerEntryNanos == 0) {
+            timing.handlerEntryNanos = System.nanoTime();
+        }
+    }
+
+    static void markSerializeStart() {
+        ServerTiming timing = CURRENT.get();
+        if (timing != null) {
+            timing.serializeStartNanos = System.nanoTime();
+        }
+    }
+
+    public static void recordUseCase(long nanos) {
+        ServerTiming timing = CURRENT.get();
+        if (timing != null) {
+            timing.useCaseNanos += nanos;
+        }
+    }
+
+    public static void recordRepository(long nanos) {
+        ServerTiming timing = CURRENT.get();
+        if (timing != null) {
+            timing.repositoryNanos += nanos;
+        }
+    }
+
+    /** Renders the header value; {@code bind} is everything before the controller method was entered. */
+    String toHeader(long endNanos) {
+        long bind = handlerEntryNanos > 0 ? handlerEntryNanos - startNanos : 0;
+        long serialize = serializeStartNanos > 0 ? endNanos - serializeStartNanos : 0;
+        return metric("bind", bind) + ", "
+                + metric("usecase", useCaseNanos) + ", "
+                + metric("repository", repositoryNanos) + ", "
+                + metric("serialize", serialize) + ", "
+                + metric("total", endNanos - startNanos);
+    }
+
+    private static String metric(String name, long nanos) {
+        return String.format(Locale.ROOT, "%s;dur=%.3f", name, nanos / 1_000_000.0);
+    }
+}
@@ -0,0 +1,43 @@
+package com.outforce.coupon.infrastructure.diagnostics;
+
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Before;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Marks the two phase boundaries the filter cannot see: entering the controller method
+ * (arguments bound and validated) and handing the result to the message converter.
+ */
+@Aspect
+@RestControllerAdvice
+@ConditionalOnProperty(prefix = "coupon.diagnostics.server-timing", name = "enabled", havingValue = "true")
+public class ServerTimingAdvice implements ResponseBodyAdvice<Object> {
+
+    @Before("execution(public * com.outforce.coupon.infrastructure.web.CouponController.*(..))")
+    public void markHandlerEntry() {
+        ServerTiming.markHandlerEntry();
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body,
+                                  MethodParameter returnType,
+                                  MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request,
+                                  ServerHttpResponse response) {
+        ServerTiming.markSerializeStart();
+        return body;
+    }
+}
@@ -0,0 +1,44 @@
+package com.outforce.coupon.infrastructure.diagnostics;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+
+/**
+ * Adds a {@code Server-Timing} header with bind, use case, repository and serialization
+ * times to every coupon request. The body is buffered so the header can still be set
+ * after Jackson has written it. Opt-in: when disabled none of these beans exist.
+ */
+@Component
+@ConditionalOnProperty(prefix = "coupon.diagnostics.server-timing", name = "enabled", havingValue = "true")
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    static final String HEADER = "Server-Timing";
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/coupon");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain chain) throws ServletException, IOException {
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        ServerTiming timing = ServerTiming.start();
+        try {
+            chain.doFilter(request, wrapper);
+            wrapper.setHeader(HEADER, timing.toHeader(System.nanoTime()));
+        } finally {
+            ServerTiming.clear();
+            wrapper.copyBodyToResponse();
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.outforce.coupon.infrastructure.diagnostics;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Streams {@code jdk.VirtualThreadPinned} JFR events and logs where a virtual thread
+ * blocked while pinned to its carrier (typically blocking I/O inside a
+ * {@code synchronized} block in a driver or library).
+ */
+@Component
+@ConditionalOnProperty(prefix = "coupon.diagnostics.pinning", name = "enabled", havingValue = "true")
+public class VirtualThreadPinningMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    private final PinningDiagnosticsProperties properties;
+    private RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(PinningDiagnosticsProperties properties) {
+        this.properties = properties;
+    }
+
+    @PostConstruct
+    void start() {
+        stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(properties.threshold()).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::report);
+        stream.startAsync();
+        log.info("Virtual thread pinning monitor started (threshold {})", properties.threshold());
+    }
+
+    @PreDestroy
+    void stop() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    private void report(RecordedEvent event) {
+        log.warn("Virtual thread pinned for {} ms:{}", event.getDuration().toMillis(), formatStack(event));
+    }
+
+    private String formatStack(RecordedEvent event) {
+        if (event.getStackTrace() == null) {
+            return " <no stack trace>";
+        }
+        List<RecordedFrame> frames = event.getStackTrace().getFrames();
+        return frames.stream()
+                .limit(properties.maxFrames())
+                .map(frame -> "%n\tat %s.%s:%d".formatted(
+                        frame.getMethod().getType().getName(),
+                        frame.getMethod().getName(),
+                        frame.getLineNumber()))
+                .collect(Collectors.joining());
+    }
+}
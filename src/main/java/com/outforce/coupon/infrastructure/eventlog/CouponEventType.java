@@ -0,0 +1,13 @@
+package com.outforce.coupon.infrastructure.eventlog;
+
+/**
+ * Why a log record was written. Stored by ordinal: only ever add constants at the end.
+ */
+enum CouponEventType {
+    CREATED,
+    UPDATED,
+    DELETED,
+    REDEEMED,
+    EXPIRED,
+    USAGE
+}
@@ -0,0 +1,113 @@
+package com.outforce.coupon.infrastructure.eventlog;
+
+import com.outforce.coupon.domain.Coupon;
+import com.outforce.coupon.domain.CouponCode;
+import com.outforce.coupon.domain.CouponStatus;
+import com.outforce.coupon.infrastructure.offheap.StoredCoupon;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+/**
+ * Binary form of a {@link StoredCoupon}, shared by log events and snapshots.
+ * Fixed-width fields first, then the UTF-8 description; the discount is kept at scale 2
+ * like every other store. Optional fields follow the flags byte and are announced by it, so
+ * images written before the version was recorded still read, as version 0.
+ */
+final class CouponImageCodec {
+
+    private static final int DISCOUNT_SCALE = 2;
+    private static final int FIXED_BYTES = 8 + 8 + 8 + 8 + 12 + 12 + 1 + 1 + 4 + 4 + 4 + 4;
+    private static final int DELETED_AT_BYTES = 12;
+    private static final int VERSION_BYTES = 8;
+    private static final int PUBLISHED = 1;
+    private static final int REDEEMED = 1 << 1;
+    private static final int HAS_DELETED_AT = 1 << 2;
+    private static final int HAS_VERSION = 1 << 3;
+    private static final CouponStatus[] STATUSES = CouponStatus.values();
+
+    private CouponImageCodec() {}
+
+    static int size(StoredCoupon stored, byte[] description) {
+        return FIXED_BYTES + (stored.coupon().getDeletedAt() != null ? DELETED_AT_BYTES : 0) + VERSION_BYTES
+            + description.length;
+    }
+
+    static byte[] description(StoredCoupon stored) {
+        return stored.coupon().getDescription().getBytes(StandardCharsets.UTF_8);
+    }
+
+    static void write(ByteBuffer buffer, StoredCoupon stored, byte[] description) {
+        Coupon coupon = stored.coupon();
+        buffer.putLong(coupon.getId().getMostSignificantBits());
+        buffer.putLong(coupon.getId().getLeastSignificantBits());
+        buffer.putLong(coupon.getCode().packed());
+        buffer.putLong(coupon.getDiscountValue().setScale(DISCOUNT_SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact());
+        putTimestamp(buffer, coupon.getExpirationDate());
+        putTimestamp(buffer, coupon.getCreatedAt());
+        buffer.put((byte) coupon.getStatus().ordinal());
+        int flags = (coupon.isPublished() ? PUBLISHED : 0)
+            | (coupon.isRedeemed() ? REDEEMED : 0)
+            | (coupon.getDeletedAt() != null ? HAS_DELETED_AT : 0)
+            | HAS_VERSION;
+        buffer.put((byte) flags);
+        if (coupon.getDeletedAt() != null) {
+            putTimestamp(buffer, coupon.getDeletedAt());
+        }
+        buffer.putLong(coupon.getVersion());
+        buffer.putInt(coupon.getUsageLimit());
+        buffer.putInt(coupon.getUsageCount());
+        buffer.putInt(stored.usageLeased());
+        buffer.putInt(description.length);
+        buffer.put(description);
+    }
+
+    static StoredCoupon read(ByteBuffer buffer) {
+        UUID id = new UUID(buffer.getLong(), buffer.getLong());
+        String code = CouponCode.fromPacked(buffer.getLong()).value();
+        BigDecimal discount = BigDecimal.valueOf(buffer.getLong(), DISCOUNT_SCALE);
+        OffsetDateTime expirationDate = getTimestamp(buffer);
+        OffsetDateTime createdAt = getTimestamp(buffer);
+        CouponStatus status = STATUSES[buffer.get()];
+        int flags = buffer.get();
+        OffsetDateTime deletedAt = (flags & HAS_DELETED_AT) != 0 ? getTimestamp(buffer) : null;
+        long version = (flags & HAS_VERSION) != 0 ? buffer.getLong() : 0;
+        int usageLimit = buffer.getInt();
+        int usageCount = buffer.getInt();
+        int usageLeased = buffer.getInt();
+        byte[] description = new byte[buffer.getInt()];
+        buffer.get(description);
+        Coupon coupon = Coupon.reconstruct(
+            id,
+            code,
+            new String(description, StandardCharsets.UTF_8),
+            discount,
+            expirationDate,
+            (flags & PUBLISHED) != 0,
+            (flags & REDEEMED) != 0,
+            usageLimit,
+            usageCount,
+            status,
+            deletedAt,
+            createdAt,
+            version
+        );
+        return new StoredCoupon(coupon, usageLeased);
+    }
+
+    private static void putTimestamp(ByteBuffer buffer, OffsetDateTime timestamp) {
+        Instant instant = timestamp.toInstant();
+        buffer.putLong(instant.getEpochSecond());
+        buffer.putInt(instant.getNano());
+    }
+
+    private static OffsetDateTime getTimestamp(ByteBuffer buffer) {
+        return OffsetDateTime.ofInstant(Instant.ofEpochSecond(buffer.getLong(), buffer.getInt()), ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,21 @@
+package com.outforce.coupon.infrastructure.eventlog;
+
+/** When a write to the event log is considered done. */
+public enum Durability {
+
+    /**
+     * Returns once the event is in the mapped segment (the OS page cache); a background
+     * flush forces it to disk every flush interval. Survives a process crash, but an OS
+     * crash or power loss may drop the last interval of writes.
+     */
+    ASYNC,
+
+    /**
+     * Waits for the next background flush, which forces the events of every writer
+     * that arrived meanwhile with a single fsync (group commit). Durable on return.
+     */
+    GROUP,
+
+    /** Forces the log before the write lock is released: one fsync per write. Durable on return, slowest. */
+    SYNC
+}
@@ -0,0 +1,257 @@
+package com.outforce.coupon.infrastructure.eventlog;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only log of numbered records in memory-mapped segment files.
+ * Each frame is: payload length, CRC32C of sequence number and payload, sequence number, payload.
+ * A zero length ends a segment's records; a frame with a bad checksum or an unexpected
+ * sequence number is a torn write from a crash and ends the log there.
+ * Segments are named after the sequence number of their first record, so whole files
+ * covered by a snapshot can be skipped on replay and deleted afterwards.
+ * A record that does not fit a regular segment gets a segment of its own.
+ *
+ * <p>Appends are serialized by an internal lock; {@link #force()} runs its fsync outside it.
+ */
+final class EventLog implements AutoCloseable {
+
+    private static final int HEADER_BYTES = 16;
+    private static final String SUFFIX = ".log";
+    private static final byte[] ZEROS = new byte[64 * 1024];
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final NavigableMap<Long, Path> segments = new TreeMap<>();
+    private final CRC32C crc = new CRC32C();
+    private final ByteBuffer sequence = ByteBuffer.allocate(Long.BYTES);
+    private MappedByteBuffer current;
+    private int position;
+    private int forcedPosition;
+    private volatile long lastSequence;
+
+    EventLog(Path directory, int segmentBytes) {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+    }
+
+    /**
+     * Replays every intact record numbered after {@code afterSequence} and positions the log
+     * for appending right behind the last one. Returns how many records were replayed.
+     */
+    long recover(long afterSequence, Consumer<ByteBuffer> replay) throws IOException {
+        lock.lock();
+        try {
+            try (Stream<Path> files = Files.list(directory)) {
+                files.filter(file -> file.getFileName().toString().endsWith(SUFFIX))
+                    .forEach(file -> segments.put(firstSequence(file), file));
+            }
+            if (segments.isEmpty()) {
+                lastSequence = afterSequence;
+                openSegment(afterSequence + 1, segmentBytes);
+                return 0;
+            }
+
+            long next = Math.min(segments.firstKey(), afterSequence + 1);
+            long replayed = 0;
+            for (Map.Entry<Long, Path> entry : segments.entrySet()) {
+                long first = entry.getKey();
+                // A gap is only acceptable where the snapshot already covers the missing records
+                if (first < next || (first > next && first - 1 > afterSequence)) {
+                    throw new IllegalStateException(
+                        "Event log segment %s does not continue the log at record %d".formatted(entry.getValue(), next));
+                }
+                next = first;
+                MappedByteBuffer segment = map(entry.getValue(), Files.size(entry.getValue()));
+                int offset = 0;
+                ByteBuffer payload;
+                while ((payload = readFrame(segment, offset, next)) != null) {
+                    offset += HEADER_BYTES + payload.remaining();
+                    if (next > afterSequence) {
+                        replay.accept(payload);
+                        replayed++;
+                    }
+                    next++;
+                }
+                current = segment;
+                position = offset;
+            }
+
+            // Clear whatever a torn write left behind the last intact record
+            for (int offset = position; offset < current.capacity(); offset += ZEROS.length) {
+                current.put(offset, ZEROS, 0, Math.min(ZEROS.length, current.capacity() - offset));
+            }
+            current.force();
+            forcedPosition = position;
+            lastSequence = next - 1;
+
+            if (lastSequence < afterSequence) {
+                // The snapshot is ahead of a log whose tail never reached the disk: continue after the snapshot
+                lastSequence = afterSequence;
+                openSegment(afterSequence + 1, segmentBytes);
+            }
+            return replayed;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Appends a record and returns its sequence number. The payload's position is left untouched. */
+    long append(ByteBuffer payload) {
+        int length = payload.remaining();
+        lock.lock();
+        try {
+            long number = lastSequence + 1;
+            if (position + HEADER_BYTES + length > current.capacity()) {
+                roll(number, HEADER_BYTES + length);
+            }
+            current.putInt(position + Integer.BYTES, checksum(number, payload.duplicate()));
+            current.putLong(position + 2 * Integer.BYTES, number);
+            current.put(position + HEADER_BYTES, payload, payload.position(), length);
+            current.putInt(position, length);
+            position += HEADER_BYTES + length;
+            lastSequence = number;
+            return number;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Forces everything appended so far to disk and returns the last sequence number it covers. */
+    long force() {
+        MappedByteBuffer segment;
+        int from;
+        int to;
+        long covered;
+        lock.lock();
+        try {
+            segment = current;
+            from = forcedPosition;
+            to = position;
+            covered = lastSequence;
+            forcedPosition = to;
+        } finally {
+            lock.unlock();
+        }
+        if (to > from) {
+            segment.force(from, to - from);
+        }
+        return covered;
+    }
+
+    long lastSequence() {
+        return lastSequence;
+    }
+
+    int segmentCount() {
+        lock.lock();
+        try {
+            return segments.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Deletes the segments whose records are all numbered at or below {@code sequence}. */
+    void deleteSegmentsThrough(long sequence) throws IOException {
+        List<Path> obsolete = new ArrayList<>();
+        lock.lock();
+        try {
+            Long next;
+            while ((next = segments.higherKey(segments.firstKey())) != null && next - 1 <= sequence) {
+                obsolete.add(segments.pollFirstEntry().getValue());
+            }
+        } finally {
+            lock.unlock();
+        }
+        for (Path segment : obsolete) {
+            Files.deleteIfExists(segment);
+        }
+    }
+
+    @Override
+    public void close() {
+        force();
+    }
+
+    private void roll(long firstSequence, int minBytes) {
+        if (position > forcedPosition) {
+            current.force(forcedPosition, position - forcedPosition);
+        }
+        try {
+            openSegment(firstSequence, Math.max(segmentBytes, minBytes));
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not open a new event log segment", ex);
+        }
+    }
+
+    private void openSegment(long firstSequence, int bytes) throws IOException {
+        Path file = directory.resolve("%020d%s".formatted(firstSequence, SUFFIX));
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            current = channel.map(FileChannel.MapMode.READ_WRITE, 0, bytes);
+        }
+        forceDirectory(directory);
+        segments.put(firstSequence, file);
+        position = 0;
+        forcedPosition = 0;
+    }
+
+    private ByteBuffer readFrame(MappedByteBuffer segment, int offset, long expectedSequence) {
+        if (offset + HEADER_BYTES > segment.capacity()) {
+            return null;
+        }
+        int length = segment.getInt(offset);
+        if (length <= 0 || length > segment.capacity() - offset - HEADER_BYTES) {
+            return null;
+        }
+        int checksum = segment.getInt(offset + Integer.BYTES);
+        long number = segment.getLong(offset + 2 * Integer.BYTES);
+        if (number != expectedSequence) {
+            return null;
+        }
+        ByteBuffer payload = segment.slice(offset + HEADER_BYTES, length);
+        return checksum(number, payload.duplicate()) == checksum ? payload : null;
+    }
+
+    private int checksum(long number, ByteBuffer payload) {
+        crc.reset();
+        crc.update(sequence.clear().putLong(number).flip());
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    private static MappedByteBuffer map(Path file, long bytes) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, bytes);
+        }
+    }
+
+    private static long firstSequence(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+    }
+
+    /** Makes a created or renamed file survive a power loss; only meaningful on POSIX systems. */
+    static void forceDirectory(Path directory) throws IOException {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        }
+    }
+}
@@ -0,0 +1,305 @@
+package com.outforce.coupon.infrastructure.eventlog;
+
+import com.outforce.coupon.domain.Coupon;
+import com.outforce.coupon.domain.CouponCode;
+import com.outforce.coupon.domain.CouponExpiry;
+import com.outforce.coupon.domain.CouponKey;
+import com.outforce.coupon.domain.CouponPageCursor;
+import com.outforce.coupon.domain.CouponRepository;
+import com.outforce.coupon.domain.CouponSearchCriteria;
+import com.outforce.coupon.domain.CouponVersion;
+import com.outforce.coupon.domain.SoftDeleteResult;
+import com.outforce.coupon.infrastructure.offheap.OffHeapCouponRepository;
+import com.outforce.coupon.infrastructure.offheap.OffHeapStorageProperties;
+import com.outforce.coupon.infrastructure.offheap.StoredCoupon;
+import com.outforce.coupon.infrastructure.usage.CouponUsageLeaseStore;
+import com.outforce.coupon.infrastructure.usage.UsageReconciliation;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Durable {@link CouponRepository}, selected with the {@code eventlog} profile.
+ * Coupons are served from an {@link OffHeapCouponRepository}; every change is also appended
+ * to a memory-mapped event log as the post-change image of the coupons it touched.
+ * Images make replay idempotent, so snapshots can be taken while writes continue: a
+ * snapshot records the last event applied before it started, and replaying the events
+ * after it over a possibly newer image still ends in the same state.
+ *
+ * <p>On startup the latest snapshot is loaded and only the log tail after it is replayed,
+ * so recovery time grows with the tail, not with history. A background task snapshots
+ * once enough events have accumulated and then deletes the log segments it covers.
+ *
+ * <p>Writes are applied and logged under one lock, so log order is apply order. Readers
+ * may see a change before it is durable; the writer is acknowledged according to the
+ * configured {@link Durability}.
+ */
+@Component
+@Profile("eventlog")
+public class EventLogCouponRepository implements CouponRepository, CouponUsageLeaseStore, MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(EventLogCouponRepository.class);
+
+    private final OffHeapCouponRepository store;
+    private final EventLog eventLog;
+    private final SnapshotStore snapshots;
+    private final LogFlusher flusher;
+    private final Durability durability;
+    private final long snapshotMinEvents;
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final ReentrantLock snapshotLock = new ReentrantLock();
+    private volatile long snapshotSequence;
+    private volatile RuntimeException failure;
+
+    public EventLogCouponRepository(EventLogProperties properties, OffHeapStorageProperties storage) {
+        this.store = new OffHeapCouponRepository(storage);
+        this.durability = properties.durability();
+        this.snapshotMinEvents = properties.snapshotMinEvents();
+        this.snapshots = new SnapshotStore(properties.directory());
+        this.eventLog = new EventLog(properties.directory(), Math.toIntExact(properties.segmentSize().toBytes()));
+        try {
+            Files.createDirectories(properties.directory());
+            long start = System.nanoTime();
+            snapshots.deleteIncomplete();
+            snapshotSequence = snapshots.loadLatest(store::restore);
+            long replayed = eventLog.recover(snapshotSequence, this::replay);
+            log.info("Recovered coupons from snapshot at event {} and {} logged events in {} ms",
+                snapshotSequence, replayed, (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not open the coupon event log in " + properties.directory(), ex);
+        }
+        this.flusher = durability == Durability.SYNC ? null : new LogFlusher(eventLog, properties.flushInterval());
+    }
+
+    @Override
+    public Coupon save(Coupon coupon) {
+        CouponEventType type = coupon.isNew() ? CouponEventType.CREATED : CouponEventType.UPDATED;
+        return write(type, () -> store.save(coupon), saved -> List.of(saved.getId()));
+    }
+
+    @Override
+    public List<Coupon> saveAll(List<Coupon> coupons) {
+        // One event for the whole batch, so recovery never sees half of it
+        return write(CouponEventType.CREATED, () -> store.saveAll(coupons),
+            saved -> saved.stream().map(Coupon::getId).toList());
+    }
+
+    @Override
+    public Optional<Coupon> findById(UUID id) {
+        return store.findById(id);
+    }
+
+    @Override
+    public Optional<Coupon> findByCode(CouponCode code) {
+        return store.findByCode(code);
+    }
+
+    @Override
+    public Optional<CouponVersion> findVersion(UUID id) {
+        return store.findVersion(id);
+    }
+
+    @Override
+    public boolean existsByCode(CouponCode code) {
+        return store.existsByCode(code);
+    }
+
+    @Override
+    public Set<CouponCode> findExistingCodes(Collection<CouponCode> codes) {
+        return store.findExistingCodes(codes);
+    }
+
+    @Override
+    public List<Coupon> findAllByCodes(Collection<CouponCode> codes) {
+        return store.findAllByCodes(codes);
+    }
+
+    @Override
+    public SoftDeleteResult softDelete(UUID id, OffsetDateTime deletedAt) {
+        return write(CouponEventType.DELETED, () -> store.softDelete(id, deletedAt),
+            result -> result == SoftDeleteResult.DELETED ? List.of(id) : List.of());
+    }
+
+    @Override
+    public List<Coupon> search(CouponSearchCriteria criteria, CouponPageCursor after, int limit) {
+        return store.search(criteria, after, limit);
+    }
+
+    @Override
+    public List<UUID> findExpiredIds(OffsetDateTime now, int limit) {
+        return store.findExpiredIds(now, limit);
+    }
+
+    @Override
+    public List<CouponExpiry> findExpiringBetween(OffsetDateTime from, OffsetDateTime to, int limit) {
+        return store.findExpiringBetween(from, to, limit);
+    }
+
+    @Override
+    public int expire(Collection<UUID> ids, OffsetDateTime now) {
+        // Images of coupons that were already inactive are logged too; replaying them changes nothing
+        return write(CouponEventType.EXPIRED, () -> store.expire(ids, now),
+            expired -> expired > 0 ? ids : List.of());
+    }
+
+    @Override
+    public boolean markRedeemed(UUID id) {
+        return write(CouponEventType.REDEEMED, () -> store.markRedeemed(id),
+            redeemed -> redeemed ? List.of(id) : List.of());
+    }
+
+    @Override
+    public void forEachKey(Consumer<CouponKey> action) {
+        store.forEachKey(action);
+    }
+
+    @Override
+    public int lease(UUID couponId, int requested) {
+        return write(CouponEventType.USAGE, () -> store.lease(couponId, requested),
+            granted -> granted > 0 ? List.of(couponId) : List.of());
+    }
+
+    @Override
+    public void reconcile(List<UsageReconciliation> reconciliations) {
+        write(CouponEventType.USAGE, () -> {
+            store.reconcile(reconciliations);
+            return reconciliations;
+        }, applied -> applied.stream().map(UsageReconciliation::couponId).toList());
+    }
+
+    /** Snapshots the store once enough events have piled up since the last snapshot. */
+    @Scheduled(fixedDelayString = "${coupon.eventlog.snapshot-interval:1m}", initialDelayString = "${coupon.eventlog.snapshot-interval:1m}")
+    public void snapshotIfDue() {
+        if (eventLog.lastSequence() - snapshotSequence >= snapshotMinEvents) {
+            snapshot();
+        }
+    }
+
+    /** Writes a snapshot of the current state and deletes the log segments it makes redundant. */
+    public void snapshot() {
+        snapshotLock.lock();
+        try {
+            // Every event up to here is already applied: writes apply before they append
+            long sequence = eventLog.lastSequence();
+            if (sequence == snapshotSequence) {
+                return;
+            }
+            long start = System.nanoTime();
+            snapshots.write(sequence, store);
+            snapshotSequence = sequence;
+            eventLog.deleteSegmentsThrough(sequence);
+            log.info("Snapshot at event {} written in {} ms", sequence, (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not write a coupon snapshot", ex);
+        } finally {
+            snapshotLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        if (flusher != null) {
+            flusher.close();
+        }
+        eventLog.close();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        store.bindTo(registry);
+        Gauge.builder("coupon.eventlog.events.since.snapshot", this, repository -> repository.eventLog.lastSequence() - repository.snapshotSequence)
+            .description("Events a restart would replay on top of the latest snapshot")
+            .register(registry);
+        Gauge.builder("coupon.eventlog.segments", eventLog, EventLog::segmentCount)
+            .description("Event log segment files on disk")
+            .register(registry);
+    }
+
+    /**
+     * Applies the change, then logs the images of the coupons it reports as changed.
+     * The write is acknowledged according to the configured durability.
+     */
+    private <T> T write(CouponEventType type, Supplier<T> change, Function<T, Collection<UUID>> changedIds) {
+        T result;
+        long sequence;
+        writeLock.lock();
+        try {
+            if (failure != null) {
+                throw new IllegalStateException("Coupon event log is unavailable after an earlier failure", failure);
+            }
+            result = change.get();
+            Collection<UUID> ids = changedIds.apply(result);
+            if (ids.isEmpty()) {
+                return result;
+            }
+            try {
+                sequence = eventLog.append(encode(type, ids));
+                if (durability == Durability.SYNC) {
+                    eventLog.force();
+                }
+            } catch (RuntimeException ex) {
+                // Memory is now ahead of the log: refuse further writes rather than diverge
+                failure = ex;
+                throw ex;
+            }
+        } finally {
+            writeLock.unlock();
+        }
+        if (durability == Durability.GROUP) {
+            flusher.awaitDurable(sequence);
+        }
+        return result;
+    }
+
+    private ByteBuffer encode(CouponEventType type, Collection<UUID> ids) {
+        List<StoredCoupon> images = new ArrayList<>(ids.size());
+        List<byte[]> descriptions = new ArrayList<>(ids.size());
+        int size = 1 + Integer.BYTES;
+        for (UUID id : ids) {
+            Optional<StoredCoupon> stored = store.findStored(id);
+            if (stored.isPresent()) {
+                byte[] description = CouponImageCodec.description(stored.get());
+                images.add(stored.get());
+                descriptions.add(description);
+                size += CouponImageCodec.size(stored.get(), description);
+            }
+        }
+        ByteBuffer event = ByteBuffer.allocate(size);
+        event.put((byte) type.ordinal());
+        event.putInt(images.size());
+        for (int i = 0; i < images.size(); i++) {
+            CouponImageCodec.write(event, images.get(i), descriptions.get(i));
+        }
+        return event.flip();
+    }
+
+    private void replay(ByteBuffer event) {
+        event.get(); // the event type documents why the images were written; replay only needs the images
+        int count = event.getInt();
+        for (int i = 0; i < count; i++) {
+            store.restore(CouponImageCodec.read(event));
+        }
+    }
+}
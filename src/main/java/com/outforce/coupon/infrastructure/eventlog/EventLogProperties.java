@@ -0,0 +1,23 @@
+package com.outforce.coupon.infrastructure.eventlog;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * @param directory         where log segments and snapshots are kept
+ * @param segmentSize       size of each memory-mapped log segment
+ * @param durability        when a write is acknowledged, see {@link Durability}
+ * @param flushInterval     how often the background flush forces the log (ASYNC and GROUP)
+ * @param snapshotMinEvents events written since the last snapshot before a new one is taken
+ */
+@ConfigurationProperties(prefix = "coupon.eventlog")
+public record EventLogProperties(
+        Path directory,
+        DataSize segmentSize,
+        Durability durability,
+        Duration flushInterval,
+        long snapshotMinEvents
+) {}
@@ -0,0 +1,110 @@
+package com.outforce.coupon.infrastructure.eventlog;
+
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Background thread that forces the event log to disk.
+ * It flushes every interval, or right away when a writer is waiting; writers that arrive
+ * while a flush is running are all covered by the next one, so under load a single
+ * fsync acknowledges many writes (group commit).
+ */
+final class LogFlusher implements AutoCloseable {
+
+    private final EventLog log;
+    private final long intervalNanos;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition requested = lock.newCondition();
+    private final Condition flushed = lock.newCondition();
+    private final Thread thread;
+    private long durableSequence;
+    private boolean flushRequested;
+    private boolean running = true;
+    private RuntimeException failure;
+
+    LogFlusher(EventLog log, Duration interval) {
+        this.log = log;
+        this.intervalNanos = interval.toNanos();
+        this.durableSequence = log.lastSequence();
+        this.thread = Thread.ofPlatform().name("coupon-eventlog-flusher").daemon().start(this::run);
+    }
+
+    /** Blocks until the record numbered {@code sequence} is on disk. */
+    void awaitDurable(long sequence) {
+        lock.lock();
+        try {
+            while (durableSequence < sequence) {
+                if (failure != null) {
+                    throw new IllegalStateException("Event log flush failed", failure);
+                }
+                if (!running) {
+                    throw new IllegalStateException("Event log is closed");
+                }
+                flushRequested = true;
+                requested.signal();
+                flushed.awaitUninterruptibly();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            running = false;
+            requested.signal();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            thread.join();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        while (true) {
+            lock.lock();
+            try {
+                if (!flushRequested && running) {
+                    requested.awaitNanos(intervalNanos);
+                }
+                flushRequested = false;
+            } catch (InterruptedException ex) {
+                running = false;
+            } finally {
+                lock.unlock();
+            }
+
+            long covered;
+            RuntimeException error = null;
+            try {
+                covered = log.force();
+            } catch (UncheckedIOException | IllegalStateException ex) {
+                covered = -1;
+                error = ex;
+            }
+
+            lock.lock();
+            try {
+                if (error != null) {
+                    failure = error;
+                    running = false;
+                } else {
+                    durableSequence = Math.max(durableSequence, covered);
+                }
+                flushed.signalAll();
+                if (!running) {
+                    return;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
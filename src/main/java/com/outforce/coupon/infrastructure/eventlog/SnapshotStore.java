@@ -0,0 +1,147 @@
+package com.outforce.coupon.infrastructure.eventlog;
+
+import com.outforce.coupon.infrastructure.offheap.OffHeapCouponRepository;
+import com.outforce.coupon.infrastructure.offheap.StoredCoupon;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Point-in-time copies of the store, named after the last log record they include.
+ * A snapshot is written to a temporary file, forced and then renamed, so a crash never
+ * leaves a half-written one behind; older snapshots are deleted once a new one is in place.
+ * Each entry is a length- and CRC32C-framed {@link StoredCoupon} image; a trailer with the
+ * entry count proves the file is complete.
+ */
+final class SnapshotStore {
+
+    private static final int MAGIC = 0x43504e53;
+    private static final int END_OF_ENTRIES = -1;
+    private static final int EXPORT_BATCH = 4_096;
+    private static final String PREFIX = "snapshot-";
+    private static final String SUFFIX = ".snap";
+    private static final String TEMPORARY_SUFFIX = ".tmp";
+
+    private final Path directory;
+
+    SnapshotStore(Path directory) {
+        this.directory = directory;
+    }
+
+    /** Loads the latest snapshot into the sink and returns the log sequence it covers, or 0 if there is none. */
+    long loadLatest(Consumer<StoredCoupon> sink) throws IOException {
+        List<Path> snapshots = list(SUFFIX);
+        if (snapshots.isEmpty()) {
+            return 0;
+        }
+        Path latest = snapshots.getLast();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(latest)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IllegalStateException("Not a coupon snapshot: " + latest);
+            }
+            long sequence = in.readLong();
+            CRC32C crc = new CRC32C();
+            long entries = 0;
+            int length;
+            while ((length = in.readInt()) != END_OF_ENTRIES) {
+                int checksum = in.readInt();
+                byte[] image = new byte[length];
+                in.readFully(image);
+                crc.reset();
+                crc.update(image);
+                if ((int) crc.getValue() != checksum) {
+                    throw new IllegalStateException("Corrupt entry %d in snapshot %s".formatted(entries, latest));
+                }
+                sink.accept(CouponImageCodec.read(ByteBuffer.wrap(image)));
+                entries++;
+            }
+            if (in.readLong() != entries) {
+                throw new IllegalStateException("Incomplete snapshot " + latest);
+            }
+            return sequence;
+        }
+    }
+
+    /** Writes every row of the store as the snapshot covering the log up to {@code sequence}. */
+    void write(long sequence, OffHeapCouponRepository store) throws IOException {
+        Path temporary = directory.resolve(name(sequence) + TEMPORARY_SUFFIX);
+        try (FileChannel channel = FileChannel.open(temporary,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16));
+            out.writeInt(MAGIC);
+            out.writeLong(sequence);
+            CRC32C crc = new CRC32C();
+            long entries = 0;
+            Consumer<StoredCoupon> writer = stored -> {
+                byte[] description = CouponImageCodec.description(stored);
+                ByteBuffer image = ByteBuffer.allocate(CouponImageCodec.size(stored, description));
+                CouponImageCodec.write(image, stored, description);
+                crc.reset();
+                crc.update(image.array());
+                try {
+                    out.writeInt(image.capacity());
+                    out.writeInt((int) crc.getValue());
+                    out.write(image.array());
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            };
+            int exported;
+            try {
+                while ((exported = store.export((int) entries, EXPORT_BATCH, writer)) > 0) {
+                    entries += exported;
+                }
+            } catch (UncheckedIOException ex) {
+                throw ex.getCause();
+            }
+            out.writeInt(END_OF_ENTRIES);
+            out.writeLong(entries);
+            out.flush();
+            channel.force(true);
+        }
+        Files.move(temporary, directory.resolve(name(sequence) + SUFFIX), StandardCopyOption.ATOMIC_MOVE);
+        EventLog.forceDirectory(directory);
+
+        for (Path older : list(SUFFIX)) {
+            if (!older.getFileName().toString().equals(name(sequence) + SUFFIX)) {
+                Files.deleteIfExists(older);
+            }
+        }
+    }
+
+    /** Removes temporary files left by a snapshot interrupted by a crash. */
+    void deleteIncomplete() throws IOException {
+        for (Path temporary : list(TEMPORARY_SUFFIX)) {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    private List<Path> list(String suffix) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().startsWith(PREFIX))
+                .filter(file -> file.getFileName().toString().endsWith(suffix))
+                .sorted(Comparator.comparing(file -> file.getFileName().toString()))
+                .toList();
+        }
+    }
+
+    private static String name(long sequence) {
+        return "%s%020d".formatted(PREFIX, sequence);
+    }
+}
@@ -0,0 +1,104 @@
+package com.outforce.coupon.infrastructure.expiration;
+
+import com.outforce.coupon.application.get.CouponResponseCache;
+import com.outforce.coupon.domain.CouponExpiry;
+import com.outforce.coupon.domain.CouponRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Moves coupons past their expiration date from ACTIVE to INACTIVE.
+ * Coupons expiring soon are loaded into a timing wheel and expired on the tick they
+ * fall due; a slower sweep catches everything else (downtime, coupons beyond the
+ * wheel's horizon) in bounded batches driven by the (status, expiration_date) index.
+ * Every write is a conditional UPDATE, so several nodes may run the engine at once:
+ * whoever gets there first changes the row, the others update nothing.
+ * Cached responses of the expired coupons are invalidated, as the status and version changed.
+ */
+@Component
+@ConditionalOnProperty(name = "coupon.expiration.enabled", havingValue = "true", matchIfMissing = true)
+public class CouponExpirationEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(CouponExpirationEngine.class);
+
+    private final CouponRepository repository;
+    private final CouponResponseCache cache;
+    private final ExpirationTimingWheel wheel;
+    private final int batchSize;
+    private final int maxBatchesPerSweep;
+    private final int maxScheduled;
+
+    public CouponExpirationEngine(CouponRepository repository, CouponResponseCache cache,
+                                  CouponExpirationProperties properties) {
+        this.repository = repository;
+        this.cache = cache;
+        this.batchSize = properties.batchSize();
+        this.maxBatchesPerSweep = properties.maxBatchesPerSweep();
+        this.maxScheduled = properties.maxScheduled();
+        this.wheel = new ExpirationTimingWheel(
+            properties.tick().toMillis(),
+            properties.wheelSlots(),
+            properties.maxScheduled(),
+            System.currentTimeMillis()
+        );
+    }
+
+    @Scheduled(fixedDelayString = "${coupon.expiration.tick:1s}")
+    public void tick() {
+        List<UUID> due = wheel.advance(System.currentTimeMillis());
+        if (due.isEmpty()) {
+            return;
+        }
+        OffsetDateTime now = OffsetDateTime.now();
+        int expired = 0;
+        for (int from = 0; from < due.size(); from += batchSize) {
+            expired += expire(due.subList(from, Math.min(from + batchSize, due.size())), now);
+        }
+        log.debug("Expired {} of {} coupons due on this tick", expired, due.size());
+    }
+
+    @Scheduled(fixedDelayString = "${coupon.expiration.sweep-interval:1m}", initialDelayString = "${coupon.expiration.tick:1s}")
+    public void sweep() {
+        OffsetDateTime now = OffsetDateTime.now();
+        int expired = 0;
+        for (int batch = 0; batch < maxBatchesPerSweep; batch++) {
+            List<UUID> ids = repository.findExpiredIds(now, batchSize);
+            if (ids.isEmpty()) {
+                break;
+            }
+            expired += expire(ids, now);
+            if (ids.size() < batchSize) {
+                break;
+            }
+        }
+        if (expired > 0) {
+            log.info("Expiration sweep moved {} coupons to INACTIVE", expired);
+        }
+        refill(now);
+    }
+
+    private int expire(List<UUID> ids, OffsetDateTime now) {
+        int expired = repository.expire(ids, now);
+        // Another node may have expired some of them; dropping a fresh entry only costs a reload
+        ids.forEach(cache::invalidate);
+        return expired;
+    }
+
+    private void refill(OffsetDateTime now) {
+        OffsetDateTime horizon = now.plusNanos(wheel.horizonMillis() * 1_000_000);
+        int capacity = maxScheduled - wheel.size();
+        if (capacity <= 0) {
+            return;
+        }
+        for (CouponExpiry expiry : repository.findExpiringBetween(now, horizon, capacity)) {
+            wheel.schedule(expiry.id(), expiry.expirationDate().toInstant().toEpochMilli());
+        }
+    }
+}
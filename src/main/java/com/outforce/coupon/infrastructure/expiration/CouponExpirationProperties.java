@@ -0,0 +1,21 @@
+package com.outforce.coupon.infrastructure.expiration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * @param batchSize          coupons moved to INACTIVE per UPDATE
+ * @param maxBatchesPerSweep upper bound on UPDATEs per sweep, so a backlog drains over several sweeps
+ * @param tick               resolution of the timing wheel
+ * @param wheelSlots         ticks per wheel turn; tick * slots is how far ahead the wheel looks
+ * @param maxScheduled       coupons held in memory by the wheel
+ */
+@ConfigurationProperties(prefix = "coupon.expiration")
+public record CouponExpirationProperties(
+        int batchSize,
+        int maxBatchesPerSweep,
+        Duration tick,
+        int wheelSlots,
+        int maxScheduled
+) {}
@@ -0,0 +1,105 @@
+package com.outforce.coupon.infrastructure.expiration;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Hashed timing wheel for coupons expiring within the next {@code tickMillis * slots}.
+ * Each slot holds the coupons due in one tick, so advancing the wheel hands back
+ * exactly the coupons that just expired — the work follows the expiration dates
+ * instead of piling up for a periodic scan.
+ * Time is always passed in, which keeps the wheel deterministic and easy to test.
+ */
+public class ExpirationTimingWheel {
+
+    private final long tickMillis;
+    private final int maxScheduled;
+    private final List<List<UUID>> slots;
+    private final List<UUID> overdue = new ArrayList<>();
+    private final Set<UUID> scheduled = new HashSet<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private long currentTick;
+
+    public ExpirationTimingWheel(long tickMillis, int slots, int maxScheduled, long startMillis) {
+        if (tickMillis <= 0 || slots <= 0 || maxScheduled <= 0) {
+            throw new IllegalArgumentException("Tick, slots and capacity must be positive.");
+        }
+        this.tickMillis = tickMillis;
+        this.maxScheduled = maxScheduled;
+        this.slots = new ArrayList<>(slots);
+        for (int i = 0; i < slots; i++) {
+            this.slots.add(new ArrayList<>());
+        }
+        this.currentTick = startMillis / tickMillis;
+    }
+
+    /**
+     * Schedules a coupon to come out of the wheel once {@code deadlineMillis} has passed.
+     * Returns false when the deadline is beyond the wheel's horizon or the wheel is full;
+     * such coupons are left to the database sweep.
+     */
+    public boolean schedule(UUID id, long deadlineMillis) {
+        // Round up so a coupon never comes out before its deadline
+        long tick = Math.ceilDiv(deadlineMillis, tickMillis);
+        lock.lock();
+        try {
+            if (tick - currentTick >= slots.size() || scheduled.size() >= maxScheduled) {
+                return false;
+            }
+            if (!scheduled.add(id)) {
+                return true;
+            }
+            if (tick <= currentTick) {
+                overdue.add(id);
+            } else {
+                slots.get(slotOf(tick)).add(id);
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Moves the wheel to {@code nowMillis} and returns every coupon whose deadline has passed. */
+    public List<UUID> advance(long nowMillis) {
+        long targetTick = nowMillis / tickMillis;
+        lock.lock();
+        try {
+            List<UUID> due = new ArrayList<>(overdue);
+            overdue.clear();
+            // Past one full turn every slot is due, so there is no point in spinning further
+            long ticks = Math.min(targetTick - currentTick, slots.size());
+            for (long i = 1; i <= ticks; i++) {
+                List<UUID> slot = slots.get(slotOf(currentTick + i));
+                due.addAll(slot);
+                slot.clear();
+            }
+            currentTick = Math.max(currentTick, targetTick);
+            due.forEach(scheduled::remove);
+            return due;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long horizonMillis() {
+        return tickMillis * slots.size();
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return scheduled.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int slotOf(long tick) {
+        return (int) Math.floorMod(tick, (long) slots.size());
+    }
+}
@@ -0,0 +1,155 @@
+package com.outforce.coupon.infrastructure.groupcommit;
+
+import com.outforce.coupon.application.create.CouponInsertQueue;
+import com.outforce.coupon.domain.Coupon;
+import com.outforce.coupon.domain.CouponCode;
+import com.outforce.coupon.domain.CouponRepository;
+import com.outforce.coupon.shared.exception.CouponBatchConflictException;
+import com.outforce.coupon.shared.exception.CouponCodeAlreadyExistsException;
+import com.outforce.coupon.shared.exception.ServiceBusyException;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Group commit for single creates.
+ * Callers park their coupon in a bounded queue; one writer thread takes up to
+ * {@code maxBatchSize} of them, waiting at most {@code maxDelay} after the first,
+ * and inserts them with one {@link CouponRepository#saveAll} — one transaction,
+ * batched inserts — then hands every caller its own saved coupon or business error.
+ * If another writer took one of the codes in the meantime, the batch falls back to
+ * item-by-item inserts so only the conflicting caller fails.
+ * A full queue is backpressure: callers wait up to {@code enqueueTimeout} and then get a 503.
+ */
+@Component
+@ConditionalOnProperty(prefix = "coupon.create.group-commit", name = "enabled", havingValue = "true")
+public class GroupCommitCouponInsertQueue implements CouponInsertQueue {
+
+    private static final Logger log = LoggerFactory.getLogger(GroupCommitCouponInsertQueue.class);
+    private static final long IDLE_POLL_MILLIS = 100;
+
+    private final CouponRepository repository;
+    private final BlockingQueue<PendingInsert> queue;
+    private final int maxBatchSize;
+    private final long maxDelayNanos;
+    private final long enqueueTimeoutNanos;
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    public GroupCommitCouponInsertQueue(CouponRepository repository, GroupCommitProperties properties) {
+        this.repository = repository;
+        this.queue = new ArrayBlockingQueue<>(properties.queueCapacity());
+        this.maxBatchSize = properties.maxBatchSize();
+        this.maxDelayNanos = properties.maxDelay().toNanos();
+        this.enqueueTimeoutNanos = properties.enqueueTimeout().toNanos();
+        this.writer = Thread.ofPlatform().name("coupon-group-commit").daemon().start(this::run);
+    }
+
+    @Override
+    public Coupon insert(Coupon coupon) {
+        PendingInsert pending = new PendingInsert(coupon, new CompletableFuture<>());
+        try {
+            if (!running || !queue.offer(pending, enqueueTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                throw new ServiceBusyException("Too many coupons are being created right now. Try again shortly.");
+            }
+            return pending.result().get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new ServiceBusyException("Interrupted while waiting for the coupon to be created.");
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(ex.getCause());
+        }
+    }
+
+    @PreDestroy
+    public void close() throws InterruptedException {
+        running = false;
+        writer.join();
+    }
+
+    private void run() {
+        List<PendingInsert> batch = new ArrayList<>(maxBatchSize);
+        // Keeps committing after close() until the queue is empty, so no accepted create is lost
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingInsert first = queue.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + maxDelayNanos;
+                while (batch.size() < maxBatchSize) {
+                    PendingInsert next = queue.poll(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                running = false;
+            }
+            if (!batch.isEmpty()) {
+                commit(batch);
+                batch.clear();
+            }
+            if (Thread.currentThread().isInterrupted()) {
+                break;
+            }
+        }
+        for (PendingInsert pending; (pending = queue.poll()) != null; ) {
+            pending.result().completeExceptionally(new ServiceBusyException("The service is shutting down."));
+        }
+    }
+
+    private void commit(List<PendingInsert> batch) {
+        List<PendingInsert> unique = new ArrayList<>(batch.size());
+        Set<CouponCode> codes = new HashSet<>();
+        for (PendingInsert pending : batch) {
+            CouponCode code = pending.coupon().getCode();
+            if (codes.add(code)) {
+                unique.add(pending);
+            } else {
+                // Two callers raced for the same code: the first one in the queue wins
+                pending.result().completeExceptionally(new CouponCodeAlreadyExistsException(code.value()));
+            }
+        }
+
+        try {
+            List<Coupon> saved = repository.saveAll(unique.stream().map(PendingInsert::coupon).toList());
+            for (int i = 0; i < unique.size(); i++) {
+                unique.get(i).result().complete(saved.get(i));
+            }
+        } catch (CouponBatchConflictException ex) {
+            unique.forEach(this::commitAlone);
+        } catch (RuntimeException ex) {
+            log.warn("Group commit of {} coupons failed", unique.size(), ex);
+            unique.forEach(pending -> pending.result().completeExceptionally(ex));
+        }
+    }
+
+    private void commitAlone(PendingInsert pending) {
+        try {
+            pending.result().complete(repository.save(pending.coupon()));
+        } catch (RuntimeException ex) {
+            pending.result().completeExceptionally(ex);
+        }
+    }
+
+    private record PendingInsert(Coupon coupon, CompletableFuture<Coupon> result) {}
+}
@@ -0,0 +1,19 @@
+package com.outforce.coupon.infrastructure.groupcommit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * @param maxBatchSize   creates committed together at most
+ * @param maxDelay       how long the writer waits for more creates after the first one of a batch
+ * @param queueCapacity  creates waiting for the writer before callers are turned away
+ * @param enqueueTimeout how long a caller waits for room in a full queue before getting a 503
+ */
+@ConfigurationProperties(prefix = "coupon.create.group-commit")
+public record GroupCommitProperties(
+        int maxBatchSize,
+        Duration maxDelay,
+        int queueCapacity,
+        Duration enqueueTimeout
+) {}
@@ -0,0 +1,143 @@
+package com.outforce.coupon.infrastructure.metrics;
+
+import com.outforce.coupon.domain.CouponRepository;
+import com.outforce.coupon.infrastructure.diagnostics.ServerTiming;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency histograms for every use case and every repository port method.
+ * Timers are registered at startup and looked up by {@link Method} afterwards,
+ * so a timed call costs a map lookup and two clock reads — no tags are built per call.
+ */
+@Aspect
+@Component
+public class CouponMetricsAspect implements SmartInitializingSingleton {
+
+    static final String USE_CASE_TIMER = "coupon.usecase";
+    static final String REPOSITORY_TIMER = "coupon.repository";
+
+    private static final String APPLICATION_PACKAGE = "com.outforce.coupon.application";
+
+    private final MeterRegistry registry;
+    private final ListableBeanFactory beanFactory;
+    private final Map<Method, OutcomeTimers> timers = new ConcurrentHashMap<>();
+
+    public CouponMetricsAspect(MeterRegistry registry, ListableBeanFactory beanFactory) {
+        this.registry = registry;
+        this.beanFactory = beanFactory;
+    }
+
+    @Around("execution(public * com.outforce.coupon.application..*UseCase.*(..))")
+    public Object timeUseCase(ProceedingJoinPoint joinPoint) throws Throwable {
+        long start = System.nanoTime();
+        try {
+            return time(joinPoint, USE_CASE_TIMER, start);
+        } finally {
+            ServerTiming.recordUseCase(System.nanoTime() - start);
+        }
+    }
+
+    @Around("execution(* com.outforce.coupon.domain.CouponRepository.*(..))")
+    public Object timeRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+        long start = System.nanoTime();
+        try {
+            return time(joinPoint, REPOSITORY_TIMER, start);
+        } finally {
+            ServerTiming.recordRepository(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Registers every timer up front so they are scraped from the first request on, and keys
+     * them by {@link Method} so timed calls find them without building tags.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        Map<Method, OutcomeTimers> repositoryTimers = new HashMap<>();
+        for (Method method : CouponRepository.class.getMethods()) {
+            OutcomeTimers outcomeTimers = timersFor(REPOSITORY_TIMER, Tags.of("method", method.getName()));
+            repositoryTimers.put(method, outcomeTimers);
+            timers.put(method, outcomeTimers);
+        }
+        for (String name : beanFactory.getBeanDefinitionNames()) {
+            Class<?> type = beanFactory.getType(name);
+            if (type == null) {
+                continue;
+            }
+            Class<?> userClass = ClassUtils.getUserClass(type);
+            if (CouponRepository.class.isAssignableFrom(userClass)) {
+                // Class-based proxies report the implementing method, not the interface one
+                repositoryTimers.forEach((method, outcomeTimers) ->
+                        timers.put(ClassUtils.getMostSpecificMethod(method, userClass), outcomeTimers));
+            } else if (userClass.getPackageName().startsWith(APPLICATION_PACKAGE) && userClass.getSimpleName().endsWith("UseCase")) {
+                for (Method method : userClass.getDeclaredMethods()) {
+                    if (Modifier.isPublic(method.getModifiers())) {
+                        timers.put(method, timersFor(USE_CASE_TIMER, useCaseTags(userClass, method)));
+                    }
+                }
+            }
+        }
+    }
+
+    private Object time(ProceedingJoinPoint joinPoint, String timerName, long start) throws Throwable {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        OutcomeTimers outcomeTimers = timers.get(method);
+        if (outcomeTimers == null) {
+            outcomeTimers = timers.computeIfAbsent(method, m -> timersFor(timerName, tagsFor(timerName, joinPoint, m)));
+        }
+
+        try {
+            Object result = joinPoint.proceed();
+            outcomeTimers.success().record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return result;
+        } catch (Throwable ex) {
+            outcomeTimers.error().record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw ex;
+        }
+    }
+
+    private static Tags tagsFor(String timerName, ProceedingJoinPoint joinPoint, Method method) {
+        if (REPOSITORY_TIMER.equals(timerName)) {
+            return Tags.of("method", method.getName());
+        }
+        return useCaseTags(AopUtils.getTargetClass(joinPoint.getTarget()), method);
+    }
+
+    private static Tags useCaseTags(Class<?> useCase, Method method) {
+        return Tags.of("usecase", ClassUtils.getUserClass(useCase).getSimpleName(), "method", method.getName());
+    }
+
+    private OutcomeTimers timersFor(String name, Tags tags) {
+        return new OutcomeTimers(timer(name, tags, "success"), timer(name, tags, "error"));
+    }
+
+    private Timer timer(String name, Tags tags, String outcome) {
+        // Registering an existing name and tag set returns the meter already in the registry
+        return Timer.builder(name)
+                .tags(tags)
+                .tag("outcome", outcome)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    private record OutcomeTimers(Timer success, Timer error) {}
+}
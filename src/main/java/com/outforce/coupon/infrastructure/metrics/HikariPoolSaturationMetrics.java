@@ -0,0 +1,57 @@
+package com.outforce.coupon.infrastructure.metrics;
+
+import com.zaxxer.hikari.HikariConfigMXBean;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.jdbc.DataSourceUnwrapper;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * Pool saturation on top of the per-state {@code hikaricp.connections.*} gauges Boot already exports:
+ * the share of the pool in use and the threads queued for a connection, the two numbers
+ * that tell a slow query apart from a starved pool.
+ */
+@Component
+public class HikariPoolSaturationMetrics implements MeterBinder {
+
+    private final ObjectProvider<DataSource> dataSource;
+
+    public HikariPoolSaturationMetrics(ObjectProvider<DataSource> dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        // Storage profiles without a database (offheap) have no pool to watch
+        DataSource available = dataSource.getIfAvailable();
+        HikariDataSource hikari = available != null
+                ? DataSourceUnwrapper.unwrap(available, HikariConfigMXBean.class, HikariDataSource.class)
+                : null;
+        if (hikari == null) {
+            return;
+        }
+        Gauge.builder("coupon.db.pool.saturation", hikari, HikariPoolSaturationMetrics::saturation)
+                .description("Active connections divided by the maximum pool size")
+                .register(registry);
+        Gauge.builder("coupon.db.pool.waiting", hikari, HikariPoolSaturationMetrics::waiting)
+                .description("Threads waiting for a connection")
+                .register(registry);
+    }
+
+    private static double saturation(HikariDataSource hikari) {
+        // The pool is created on first use; until then nothing is in use
+        HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+        return pool == null ? 0 : (double) pool.getActiveConnections() / hikari.getMaximumPoolSize();
+    }
+
+    private static double waiting(HikariDataSource hikari) {
+        HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+        return pool == null ? 0 : pool.getThreadsAwaitingConnection();
+    }
+}
@@ -0,0 +1,105 @@
+package com.outforce.coupon.infrastructure.offheap;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fixed-width columns in direct memory.
+ * Rows are allocated in chunks; inside a chunk each column is a contiguous region,
+ * so a scan over one column walks sequential memory. Only absolute buffer accesses
+ * are used, which makes concurrent reads safe; writers are serialized by the caller.
+ */
+final class ColumnTable {
+
+    enum Column {
+        ID_HI(8), ID_LO(8), CODE(8), DISCOUNT(8),
+        EXPIRES_SECOND(8), EXPIRES_NANO(4),
+        CREATED_SECOND(8), CREATED_NANO(4),
+        DELETED_SECOND(8), DELETED_NANO(4),
+        DESCRIPTION_ADDRESS(8), DESCRIPTION_LENGTH(4),
+        USAGE_LIMIT(4), USAGE_LEASED(4), USAGE_COUNT(4),
+        VERSION(8),
+        FLAGS(1);
+
+        final int width;
+
+        Column(int width) {
+            this.width = width;
+        }
+    }
+
+    private static final Column[] COLUMNS = Column.values();
+
+    private final int chunkShift;
+    private final int chunkMask;
+    private final int[] columnOffsets = new int[COLUMNS.length];
+    private final int chunkBytes;
+    private final List<ByteBuffer> chunks = new ArrayList<>();
+    private volatile int size;
+
+    ColumnTable(int rowsPerChunk) {
+        if (Integer.bitCount(rowsPerChunk) != 1) {
+            throw new IllegalArgumentException("Rows per chunk must be a power of two: " + rowsPerChunk);
+        }
+        this.chunkShift = Integer.numberOfTrailingZeros(rowsPerChunk);
+        this.chunkMask = rowsPerChunk - 1;
+        int offset = 0;
+        for (Column column : COLUMNS) {
+            columnOffsets[column.ordinal()] = offset;
+            offset += column.width * rowsPerChunk;
+        }
+        this.chunkBytes = offset;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /** Appends a zeroed row and returns its index. */
+    int addRow() {
+        int row = size;
+        if ((row >>> chunkShift) == chunks.size()) {
+            chunks.add(ByteBuffer.allocateDirect(chunkBytes).order(ByteOrder.nativeOrder()));
+        }
+        size = row + 1;
+        return row;
+    }
+
+    long getLong(Column column, int row) {
+        return chunk(row).getLong(address(column, row));
+    }
+
+    void putLong(Column column, int row, long value) {
+        chunk(row).putLong(address(column, row), value);
+    }
+
+    int getInt(Column column, int row) {
+        return chunk(row).getInt(address(column, row));
+    }
+
+    void putInt(Column column, int row, int value) {
+        chunk(row).putInt(address(column, row), value);
+    }
+
+    byte getByte(Column column, int row) {
+        return chunk(row).get(address(column, row));
+    }
+
+    void putByte(Column column, int row, byte value) {
+        chunk(row).put(address(column, row), value);
+    }
+
+    long offHeapBytes() {
+        return (long) chunks.size() * chunkBytes;
+    }
+
+    private ByteBuffer chunk(int row) {
+        return chunks.get(row >>> chunkShift);
+    }
+
+    private int address(Column column, int row) {
+        return columnOffsets[column.ordinal()] + (row & chunkMask) * column.width;
+    }
+}
@@ -0,0 +1,99 @@
+package com.outforce.coupon.infrastructure.offheap;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Open-addressing hash index from a 128-bit key to a row number, stored in direct memory.
+ * Linear probing, at most half full; rows are never removed (deletes are soft), so there
+ * are no tombstones. Slots hold {@code row + 1} so that zeroed memory reads as empty.
+ */
+final class HashIndex {
+
+    private static final int SLOT_BYTES = 20;
+    private static final int HI = 0;
+    private static final int LO = 8;
+    private static final int ROW = 16;
+
+    private ByteBuffer slots;
+    private int mask;
+    private int size;
+
+    HashIndex(int initialCapacity) {
+        int capacity = Integer.highestOneBit(Math.max(16, initialCapacity - 1)) << 1;
+        allocate(capacity);
+    }
+
+    /** Returns the row for the key, or -1. */
+    int get(long hi, long lo) {
+        ByteBuffer table = slots;
+        int slot = hash(hi, lo) & mask;
+        while (true) {
+            int base = slot * SLOT_BYTES;
+            int stored = table.getInt(base + ROW);
+            if (stored == 0) {
+                return -1;
+            }
+            if (table.getLong(base + HI) == hi && table.getLong(base + LO) == lo) {
+                return stored - 1;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    /** Maps the key to the row unless it is already present; returns false in that case. */
+    boolean putIfAbsent(long hi, long lo, int row) {
+        if ((size + 1) * 2L > mask + 1L) {
+            grow();
+        }
+        int slot = hash(hi, lo) & mask;
+        while (true) {
+            int base = slot * SLOT_BYTES;
+            int stored = slots.getInt(base + ROW);
+            if (stored == 0) {
+                slots.putLong(base + HI, hi);
+                slots.putLong(base + LO, lo);
+                slots.putInt(base + ROW, row + 1);
+                size++;
+                return true;
+            }
+            if (slots.getLong(base + HI) == hi && slots.getLong(base + LO) == lo) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    long offHeapBytes() {
+        return slots.capacity();
+    }
+
+    private void grow() {
+        ByteBuffer old = slots;
+        int oldCapacity = mask + 1;
+        allocate(oldCapacity << 1);
+        size = 0;
+        for (int slot = 0; slot < oldCapacity; slot++) {
+            int base = slot * SLOT_BYTES;
+            int stored = old.getInt(base + ROW);
+            if (stored != 0) {
+                putIfAbsent(old.getLong(base + HI), old.getLong(base + LO), stored - 1);
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        // A single buffer caps the index at 2^26 slots, i.e. about 33 million keys
+        slots = ByteBuffer.allocateDirect(Math.multiplyExact(capacity, SLOT_BYTES)).order(ByteOrder.nativeOrder());
+        mask = capacity - 1;
+    }
+
+    private static int hash(long hi, long lo) {
+        long h = hi * 0x9E3779B97F4A7C15L ^ lo * 0xC2B2AE3D27D4EB4FL;
+        return (int) (h ^ (h >>> 29) ^ (h >>> 47));
+    }
+}
@@ -0,0 +1,598 @@
+package com.outforce.coupon.infrastructure.offheap;
+
+import com.outforce.coupon.domain.Coupon;
+import com.outforce.coupon.domain.CouponCode;
+import com.outforce.coupon.domain.CouponExpiry;
+import com.outforce.coupon.domain.CouponKey;
+import com.outforce.coupon.domain.CouponPageCursor;
+import com.outforce.coupon.domain.CouponRepository;
+import com.outforce.coupon.domain.CouponSearchCriteria;
+import com.outforce.coupon.domain.CouponStatus;
+import com.outforce.coupon.domain.CouponVersion;
+import com.outforce.coupon.domain.SoftDeleteResult;
+import com.outforce.coupon.infrastructure.offheap.ColumnTable.Column;
+import com.outforce.coupon.infrastructure.usage.CouponUsageLeaseStore;
+import com.outforce.coupon.infrastructure.usage.UsageReconciliation;
+import com.outforce.coupon.shared.exception.CouponBatchConflictException;
+import com.outforce.coupon.shared.exception.CouponCodeAlreadyExistsException;
+import com.outforce.coupon.shared.exception.CouponNotFoundException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.IntPredicate;
+
+/**
+ * In-memory {@link CouponRepository} for edge deployments, selected with the {@code offheap} profile.
+ * Coupons live in direct-memory columns (UUID halves, packed code, discount in cents,
+ * epoch-second timestamps, version, status and flags in one byte) with primitive hash indexes by
+ * id and by code. Only a handful of buffers live on the heap, so heap size and GC pauses
+ * stay flat however many coupons are stored.
+ *
+ * <p>Point operations go through the indexes; listing and expiration scan the columns.
+ * A read-write lock serializes writers; readers run in parallel. Data does not survive a restart
+ * on its own; the {@code eventlog} store uses this class as its in-memory image and makes it durable.
+ */
+@Component
+@Profile("offheap")
+public class OffHeapCouponRepository implements CouponRepository, CouponUsageLeaseStore, MeterBinder {
+
+    private static final int DISCOUNT_SCALE = 2;
+    private static final int STATUS_MASK = 0b11;
+    private static final int PUBLISHED = 1 << 2;
+    private static final int REDEEMED = 1 << 3;
+    private static final int HAS_DELETED_AT = 1 << 4;
+    private static final CouponStatus[] STATUSES = CouponStatus.values();
+    private static final int KEY_BATCH = 4_096;
+
+    private final ColumnTable table;
+    private final StringArena descriptions;
+    private final HashIndex idIndex;
+    private final HashIndex codeIndex;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public OffHeapCouponRepository(OffHeapStorageProperties properties) {
+        this.table = new ColumnTable(properties.rowsPerChunk());
+        this.descriptions = new StringArena((int) properties.textChunkSize().toBytes());
+        this.idIndex = new HashIndex(properties.initialIndexCapacity());
+        this.codeIndex = new HashIndex(properties.initialIndexCapacity());
+    }
+
+    @Override
+    public Coupon save(Coupon coupon) {
+        lock.writeLock().lock();
+        try {
+            if (coupon.isNew()) {
+                if (rowOf(coupon.getId()) >= 0) {
+                    throw duplicateId(coupon.getId());
+                }
+                if (codeIndex.get(coupon.getCode().packed(), 0) >= 0) {
+                    throw new CouponCodeAlreadyExistsException(coupon.getCode().value());
+                }
+                return read(insert(coupon));
+            }
+            int row = rowOf(coupon.getId());
+            if (row < 0) {
+                throw new CouponNotFoundException(coupon.getId());
+            }
+            writeState(row, coupon.getStatus(), coupon.getDeletedAt(), coupon.isRedeemed());
+            bumpVersion(row);
+            return coupon;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Coupon> saveAll(List<Coupon> coupons) {
+        lock.writeLock().lock();
+        try {
+            // All or nothing, like the database batch: check every id and code before writing any row
+            Set<UUID> ids = new HashSet<>();
+            Set<Long> codes = new HashSet<>();
+            for (Coupon coupon : coupons) {
+                if (!ids.add(coupon.getId()) || rowOf(coupon.getId()) >= 0) {
+                    throw duplicateId(coupon.getId());
+                }
+                long code = coupon.getCode().packed();
+                if (!codes.add(code) || codeIndex.get(code, 0) >= 0) {
+                    throw new CouponBatchConflictException();
+                }
+            }
+            List<Coupon> saved = new ArrayList<>(coupons.size());
+            for (Coupon coupon : coupons) {
+                saved.add(read(insert(coupon)));
+            }
+            return saved;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Optional<Coupon> findById(UUID id) {
+        lock.readLock().lock();
+        try {
+            int row = rowOf(id);
+            return row < 0 ? Optional.empty() : Optional.of(read(row));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Optional<Coupon> findByCode(CouponCode code) {
+        lock.readLock().lock();
+        try {
+            int row = codeIndex.get(code.packed(), 0);
+            return row < 0 ? Optional.empty() : Optional.of(read(row));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Optional<CouponVersion> findVersion(UUID id) {
+        lock.readLock().lock();
+        try {
+            int row = rowOf(id);
+            return row < 0
+                ? Optional.empty()
+                : Optional.of(new CouponVersion(table.getLong(Column.VERSION, row),
+                    timestamp(table.getLong(Column.EXPIRES_SECOND, row), table.getInt(Column.EXPIRES_NANO, row))));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean existsByCode(CouponCode code) {
+        lock.readLock().lock();
+        try {
+            return codeIndex.get(code.packed(), 0) >= 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Set<CouponCode> findExistingCodes(Collection<CouponCode> codes) {
+        lock.readLock().lock();
+        try {
+            Set<CouponCode> existing = new HashSet<>();
+            for (CouponCode code : codes) {
+                if (codeIndex.get(code.packed(), 0) >= 0) {
+                    existing.add(code);
+                }
+            }
+            return existing;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Coupon> findAllByCodes(Collection<CouponCode> codes) {
+        lock.readLock().lock();
+        try {
+            List<Coupon> found = new ArrayList<>(codes.size());
+            for (CouponCode code : codes) {
+                int row = codeIndex.get(code.packed(), 0);
+                if (row >= 0) {
+                    found.add(read(row));
+                }
+            }
+            return found;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public SoftDeleteResult softDelete(UUID id, OffsetDateTime deletedAt) {
+        lock.writeLock().lock();
+        try {
+            int row = rowOf(id);
+            if (row < 0) {
+                return SoftDeleteResult.NOT_FOUND;
+            }
+            if (status(row) == CouponStatus.DELETED) {
+                return SoftDeleteResult.ALREADY_DELETED;
+            }
+            writeState(row, CouponStatus.DELETED, deletedAt, isSet(row, REDEEMED));
+            bumpVersion(row);
+            return SoftDeleteResult.DELETED;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Coupon> search(CouponSearchCriteria criteria, CouponPageCursor after, int limit) {
+        long expiresFrom = criteria.expiresFrom() != null ? epochMicros(criteria.expiresFrom()) : Long.MIN_VALUE;
+        long expiresTo = criteria.expiresTo() != null ? epochMicros(criteria.expiresTo()) : Long.MAX_VALUE;
+        lock.readLock().lock();
+        try {
+            IntPredicate matches = row ->
+                (criteria.status() == null || status(row) == criteria.status())
+                    && (criteria.published() == null || isSet(row, PUBLISHED) == criteria.published())
+                    && (criteria.redeemed() == null || isSet(row, REDEEMED) == criteria.redeemed())
+                    && expiresAt(row) >= expiresFrom
+                    && expiresAt(row) < expiresTo
+                    && (after == null || compareToCursor(row, after) > 0);
+            return smallest(matches, creationOrder(), limit).stream().map(this::read).toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<UUID> findExpiredIds(OffsetDateTime now, int limit) {
+        long nowMicros = epochMicros(now);
+        lock.readLock().lock();
+        try {
+            IntPredicate matches = row -> status(row) == CouponStatus.ACTIVE && expiresAt(row) <= nowMicros;
+            return smallest(matches, Comparator.comparingLong(this::expiresAt), limit).stream()
+                .map(this::idOf)
+                .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<CouponExpiry> findExpiringBetween(OffsetDateTime from, OffsetDateTime to, int limit) {
+        long fromMicros = epochMicros(from);
+        long toMicros = epochMicros(to);
+        lock.readLock().lock();
+        try {
+            IntPredicate matches = row -> status(row) == CouponStatus.ACTIVE
+                && expiresAt(row) > fromMicros && expiresAt(row) <= toMicros;
+            return smallest(matches, Comparator.comparingLong(this::expiresAt), limit).stream()
+                .map(row -> new CouponExpiry(idOf(row), timestamp(table.getLong(Column.EXPIRES_SECOND, row), table.getInt(Column.EXPIRES_NANO, row))))
+                .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public int expire(Collection<UUID> ids, OffsetDateTime now) {
+        long nowMicros = epochMicros(now);
+        lock.writeLock().lock();
+        try {
+            int expired = 0;
+            for (UUID id : ids) {
+                int row = rowOf(id);
+                if (row >= 0 && status(row) == CouponStatus.ACTIVE && expiresAt(row) <= nowMicros) {
+                    writeStatus(row, CouponStatus.INACTIVE);
+                    bumpVersion(row);
+                    expired++;
+                }
+            }
+            return expired;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean markRedeemed(UUID id) {
+        lock.writeLock().lock();
+        try {
+            int row = rowOf(id);
+            if (row < 0 || status(row) != CouponStatus.ACTIVE || !isSet(row, PUBLISHED) || isSet(row, REDEEMED)) {
+                return false;
+            }
+            table.putByte(Column.FLAGS, row, (byte) (table.getByte(Column.FLAGS, row) | REDEEMED));
+            bumpVersion(row);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void forEachKey(Consumer<CouponKey> action) {
+        // Keys are copied out in batches so the action never runs under the lock
+        List<CouponKey> batch = new ArrayList<>(KEY_BATCH);
+        for (int from = 0; ; from += KEY_BATCH) {
+            batch.clear();
+            lock.readLock().lock();
+            try {
+                int to = (int) Math.min(table.size(), (long) from + KEY_BATCH);
+                for (int row = from; row < to; row++) {
+                    batch.add(new CouponKey(idOf(row), CouponCode.fromPacked(table.getLong(Column.CODE, row))));
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+            batch.forEach(action);
+            if (batch.size() < KEY_BATCH) {
+                return;
+            }
+        }
+    }
+
+    @Override
+    public int lease(UUID couponId, int requested) {
+        lock.writeLock().lock();
+        try {
+            int row = rowOf(couponId);
+            if (row < 0 || status(row) != CouponStatus.ACTIVE) {
+                return 0;
+            }
+            int leased = table.getInt(Column.USAGE_LEASED, row);
+            int granted = Math.min(requested, table.getInt(Column.USAGE_LIMIT, row) - leased);
+            if (granted <= 0) {
+                return 0;
+            }
+            table.putInt(Column.USAGE_LEASED, row, leased + granted);
+            return granted;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void reconcile(List<UsageReconciliation> reconciliations) {
+        lock.writeLock().lock();
+        try {
+            for (UsageReconciliation reconciliation : reconciliations) {
+                int row = rowOf(reconciliation.couponId());
+                if (row < 0) {
+                    continue;
+                }
+                table.putInt(Column.USAGE_COUNT, row, table.getInt(Column.USAGE_COUNT, row) + reconciliation.consumed());
+                table.putInt(Column.USAGE_LEASED, row, table.getInt(Column.USAGE_LEASED, row) - reconciliation.released());
+                bumpVersion(row);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Row image of one coupon, lease counter included. */
+    public Optional<StoredCoupon> findStored(UUID id) {
+        lock.readLock().lock();
+        try {
+            int row = rowOf(id);
+            return row < 0 ? Optional.empty() : Optional.of(new StoredCoupon(read(row), table.getInt(Column.USAGE_LEASED, row)));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Writes a row image as is: inserts it when the id is unknown, otherwise overwrites
+     * every mutable field. Applying the same image twice is harmless.
+     */
+    public void restore(StoredCoupon stored) {
+        Coupon coupon = stored.coupon();
+        lock.writeLock().lock();
+        try {
+            int row = rowOf(coupon.getId());
+            if (row < 0) {
+                row = insert(coupon);
+            } else {
+                writeState(row, coupon.getStatus(), coupon.getDeletedAt(), coupon.isRedeemed());
+                table.putInt(Column.USAGE_COUNT, row, coupon.getUsageCount());
+                table.putLong(Column.VERSION, row, coupon.getVersion());
+            }
+            table.putInt(Column.USAGE_LEASED, row, stored.usageLeased());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Hands up to {@code maxRows} row images, starting at row {@code fromRow}, to the sink
+     * and returns how many were exported. Rows are never removed, so callers can walk the
+     * whole store in short batches without blocking writers for the full scan.
+     */
+    public int export(int fromRow, int maxRows, Consumer<StoredCoupon> sink) {
+        lock.readLock().lock();
+        try {
+            int to = (int) Math.min(table.size(), (long) fromRow + maxRows);
+            for (int row = fromRow; row < to; row++) {
+                sink.accept(new StoredCoupon(read(row), table.getInt(Column.USAGE_LEASED, row)));
+            }
+            return Math.max(0, to - fromRow);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("coupon.offheap.rows", this, repository -> repository.table.size())
+            .description("Coupons held in off-heap storage")
+            .register(registry);
+        Gauge.builder("coupon.offheap.bytes", this, OffHeapCouponRepository::offHeapBytes)
+            .description("Direct memory used by coupon columns, text and indexes")
+            .baseUnit("bytes")
+            .register(registry);
+    }
+
+    private double offHeapBytes() {
+        lock.readLock().lock();
+        try {
+            return table.offHeapBytes() + descriptions.offHeapBytes() + idIndex.offHeapBytes() + codeIndex.offHeapBytes();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int insert(Coupon coupon) {
+        int row = table.addRow();
+        UUID id = coupon.getId();
+        table.putLong(Column.ID_HI, row, id.getMostSignificantBits());
+        table.putLong(Column.ID_LO, row, id.getLeastSignificantBits());
+        table.putLong(Column.CODE, row, coupon.getCode().packed());
+        table.putLong(Column.DISCOUNT, row,
+            coupon.getDiscountValue().setScale(DISCOUNT_SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact());
+        putTimestamp(Column.EXPIRES_SECOND, Column.EXPIRES_NANO, row, coupon.getExpirationDate());
+        putTimestamp(Column.CREATED_SECOND, Column.CREATED_NANO, row, coupon.getCreatedAt());
+
+        byte[] description = coupon.getDescription().getBytes(StandardCharsets.UTF_8);
+        table.putLong(Column.DESCRIPTION_ADDRESS, row, descriptions.append(description));
+        table.putInt(Column.DESCRIPTION_LENGTH, row, description.length);
+
+        table.putInt(Column.USAGE_LIMIT, row, coupon.getUsageLimit());
+        table.putInt(Column.USAGE_COUNT, row, coupon.getUsageCount());
+        table.putLong(Column.VERSION, row, coupon.getVersion());
+        table.putByte(Column.FLAGS, row, (byte) (coupon.isPublished() ? PUBLISHED : 0));
+        writeState(row, coupon.getStatus(), coupon.getDeletedAt(), coupon.isRedeemed());
+
+        idIndex.putIfAbsent(id.getMostSignificantBits(), id.getLeastSignificantBits(), row);
+        codeIndex.putIfAbsent(coupon.getCode().packed(), 0, row);
+        return row;
+    }
+
+    private Coupon read(int row) {
+        int flags = table.getByte(Column.FLAGS, row);
+        return Coupon.reconstruct(
+            idOf(row),
+            CouponCode.fromPacked(table.getLong(Column.CODE, row)).value(),
+            descriptions.read(table.getLong(Column.DESCRIPTION_ADDRESS, row), table.getInt(Column.DESCRIPTION_LENGTH, row)),
+            BigDecimal.valueOf(table.getLong(Column.DISCOUNT, row), DISCOUNT_SCALE),
+            timestamp(table.getLong(Column.EXPIRES_SECOND, row), table.getInt(Column.EXPIRES_NANO, row)),
+            (flags & PUBLISHED) != 0,
+            (flags & REDEEMED) != 0,
+            table.getInt(Column.USAGE_LIMIT, row),
+            table.getInt(Column.USAGE_COUNT, row),
+            STATUSES[flags & STATUS_MASK],
+            (flags & HAS_DELETED_AT) != 0
+                ? timestamp(table.getLong(Column.DELETED_SECOND, row), table.getInt(Column.DELETED_NANO, row))
+                : null,
+            timestamp(table.getLong(Column.CREATED_SECOND, row), table.getInt(Column.CREATED_NANO, row)),
+            table.getLong(Column.VERSION, row)
+        );
+    }
+
+    private void writeState(int row, CouponStatus status, OffsetDateTime deletedAt, boolean redeemed) {
+        int flags = table.getByte(Column.FLAGS, row) & PUBLISHED;
+        flags |= status.ordinal();
+        if (redeemed) {
+            flags |= REDEEMED;
+        }
+        if (deletedAt != null) {
+            flags |= HAS_DELETED_AT;
+            putTimestamp(Column.DELETED_SECOND, Column.DELETED_NANO, row, deletedAt);
+        }
+        table.putByte(Column.FLAGS, row, (byte) flags);
+    }
+
+    private void writeStatus(int row, CouponStatus status) {
+        int flags = table.getByte(Column.FLAGS, row) & ~STATUS_MASK;
+        table.putByte(Column.FLAGS, row, (byte) (flags | status.ordinal()));
+    }
+
+    private void bumpVersion(int row) {
+        table.putLong(Column.VERSION, row, table.getLong(Column.VERSION, row) + 1);
+    }
+
+    /** Same exception the database adapter surfaces for a primary key clash. */
+    private static DuplicateKeyException duplicateId(UUID id) {
+        return new DuplicateKeyException("Coupon with id '%s' already exists.".formatted(id));
+    }
+
+    private int rowOf(UUID id) {
+        return idIndex.get(id.getMostSignificantBits(), id.getLeastSignificantBits());
+    }
+
+    private UUID idOf(int row) {
+        return new UUID(table.getLong(Column.ID_HI, row), table.getLong(Column.ID_LO, row));
+    }
+
+    private CouponStatus status(int row) {
+        return STATUSES[table.getByte(Column.FLAGS, row) & STATUS_MASK];
+    }
+
+    private boolean isSet(int row, int flag) {
+        return (table.getByte(Column.FLAGS, row) & flag) != 0;
+    }
+
+    /** Microseconds keep range comparisons in one long for any realistic date, at the database's precision. */
+    private long expiresAt(int row) {
+        return table.getLong(Column.EXPIRES_SECOND, row) * 1_000_000L + table.getInt(Column.EXPIRES_NANO, row) / 1_000;
+    }
+
+    /** Same order as the JPA listing: creation time, then id compared as unsigned halves. */
+    private Comparator<Integer> creationOrder() {
+        return Comparator.<Integer>comparingLong(row -> table.getLong(Column.CREATED_SECOND, row))
+            .thenComparingInt(row -> table.getInt(Column.CREATED_NANO, row))
+            .thenComparing((a, b) -> Long.compareUnsigned(table.getLong(Column.ID_HI, a), table.getLong(Column.ID_HI, b)))
+            .thenComparing((a, b) -> Long.compareUnsigned(table.getLong(Column.ID_LO, a), table.getLong(Column.ID_LO, b)));
+    }
+
+    private int compareToCursor(int row, CouponPageCursor cursor) {
+        Instant createdAt = cursor.createdAt().toInstant();
+        int result = Long.compare(table.getLong(Column.CREATED_SECOND, row), createdAt.getEpochSecond());
+        if (result == 0) {
+            result = Integer.compare(table.getInt(Column.CREATED_NANO, row), createdAt.getNano());
+        }
+        if (result == 0) {
+            result = Long.compareUnsigned(table.getLong(Column.ID_HI, row), cursor.id().getMostSignificantBits());
+        }
+        if (result == 0) {
+            result = Long.compareUnsigned(table.getLong(Column.ID_LO, row), cursor.id().getLeastSignificantBits());
+        }
+        return result;
+    }
+
+    /** Scans every row and keeps the {@code limit} smallest matches in a bounded heap. */
+    private List<Integer> smallest(IntPredicate matches, Comparator<Integer> order, int limit) {
+        PriorityQueue<Integer> largestFirst = new PriorityQueue<>(order.reversed());
+        int size = table.size();
+        for (int row = 0; row < size; row++) {
+            if (!matches.test(row)) {
+                continue;
+            }
+            if (largestFirst.size() < limit) {
+                largestFirst.add(row);
+            } else if (order.compare(row, largestFirst.peek()) < 0) {
+                largestFirst.poll();
+                largestFirst.add(row);
+            }
+        }
+        List<Integer> rows = new ArrayList<>(largestFirst);
+        rows.sort(order);
+        return rows;
+    }
+
+    private void putTimestamp(Column seconds, Column nanos, int row, OffsetDateTime timestamp) {
+        Instant instant = timestamp.toInstant();
+        table.putLong(seconds, row, instant.getEpochSecond());
+        table.putInt(nanos, row, instant.getNano());
+    }
+
+    private static OffsetDateTime timestamp(long epochSecond, int nano) {
+        return OffsetDateTime.ofInstant(Instant.ofEpochSecond(epochSecond, nano), ZoneOffset.UTC);
+    }
+
+    private static long epochMicros(OffsetDateTime timestamp) {
+        Instant instant = timestamp.toInstant();
+        return instant.getEpochSecond() * 1_000_000L + instant.getNano() / 1_000;
+    }
+}
@@ -0,0 +1,16 @@
+package com.outforce.coupon.infrastructure.offheap;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * @param rowsPerChunk         rows allocated at a time; must be a power of two
+ * @param textChunkSize        size of each off-heap block holding descriptions
+ * @param initialIndexCapacity expected number of coupons, to size the hash indexes up front
+ */
+@ConfigurationProperties(prefix = "coupon.offheap")
+public record OffHeapStorageProperties(
+        int rowsPerChunk,
+        DataSize textChunkSize,
+        int initialIndexCapacity
+) {}
@@ -0,0 +1,13 @@
+package com.outforce.coupon.infrastructure.offheap;
+
+import com.outforce.coupon.domain.Coupon;
+
+/**
+ * Complete image of a stored row, including the storage-only lease counter.
+ *
+ * @param usageLeased uses currently handed out to nodes (see {@code CouponUsageLeaseStore})
+ */
+public record StoredCoupon(
+        Coupon coupon,
+        int usageLeased
+) {}
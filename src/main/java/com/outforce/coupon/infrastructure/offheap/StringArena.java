@@ -0,0 +1,49 @@
+package com.outforce.coupon.infrastructure.offheap;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Append-only UTF-8 storage in direct memory for variable-length text.
+ * An address packs the chunk index in the high 32 bits and the offset in the low 32.
+ * Text that does not fit a regular chunk gets a chunk of its own.
+ */
+final class StringArena {
+
+    private final int chunkBytes;
+    private final List<ByteBuffer> chunks = new ArrayList<>();
+    private int position;
+
+    StringArena(int chunkBytes) {
+        this.chunkBytes = chunkBytes;
+    }
+
+    /** Stores the text; callers keep the returned address and the encoded length. */
+    long append(byte[] utf8) {
+        if (chunks.isEmpty() || position + utf8.length > chunks.getLast().capacity()) {
+            chunks.add(ByteBuffer.allocateDirect(Math.max(chunkBytes, utf8.length)));
+            position = 0;
+        }
+        int chunk = chunks.size() - 1;
+        chunks.get(chunk).put(position, utf8);
+        long address = ((long) chunk << 32) | position;
+        position += utf8.length;
+        return address;
+    }
+
+    String read(long address, int length) {
+        byte[] utf8 = new byte[length];
+        chunks.get((int) (address >>> 32)).get((int) address, utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+
+    long offHeapBytes() {
+        long total = 0;
+        for (ByteBuffer chunk : chunks) {
+            total += chunk.capacity();
+        }
+        return total;
+    }
+}
@@ -0,0 +1,31 @@
+package com.outforce.coupon.infrastructure.persistence;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Inserts a chunk of new coupons through {@code persist} so Hibernate groups them
+ * into JDBC batches ({@code hibernate.jdbc.batch_size}), then flushes and clears
+ * the persistence context to keep memory flat across chunks.
+ */
+@Repository
+@Profile("!offheap & !eventlog")
+public class CouponBatchWriter {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Transactional
+    public void insertAll(List<CouponJpaEntity> entities) {
+        for (CouponJpaEntity entity : entities) {
+            entityManager.persist(entity);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+}
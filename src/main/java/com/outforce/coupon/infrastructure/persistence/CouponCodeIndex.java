@@ -0,0 +1,34 @@
+package com.outforce.coupon.infrastructure.persistence;
+
+import com.outforce.coupon.domain.CouponCode;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-process code → id index.
+ * Codes are unique and never change, so a known mapping never goes stale;
+ * callers only register mappings for committed rows.
+ * Keyed by {@link CouponCode}, whose equality and hash come from the packed code.
+ */
+@Component
+@Profile("!offheap & !eventlog")
+public class CouponCodeIndex {
+
+    private final ConcurrentHashMap<CouponCode, UUID> idsByCode = new ConcurrentHashMap<>();
+
+    public Optional<UUID> find(CouponCode code) {
+        return Optional.ofNullable(idsByCode.get(code));
+    }
+
+    public boolean contains(CouponCode code) {
+        return idsByCode.containsKey(code);
+    }
+
+    public void register(CouponCode code, UUID id) {
+        idsByCode.putIfAbsent(code, id);
+    }
+}
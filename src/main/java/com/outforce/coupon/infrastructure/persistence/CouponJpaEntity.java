@@ -6,20 +6,33 @@ import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+import org.springframework.data.domain.Persistable;
 
 import java.math.BigDecimal;
 import java.time.OffsetDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "coupons")
+@Table(
+        name = "coupons",
+        indexes = {
+                @Index(name = "ux_coupons_code", columnList = "code", unique = true),
+                @Index(name = "ix_coupons_created_at_id", columnList = "created_at, id"),
+                @Index(name = "ix_coupons_status_created_at_id", columnList = "status, created_at, id"),
+                @Index(name = "ix_coupons_status_expiration_date", columnList = "status, expiration_date")
+        }
+)
 @Getter
 @Setter
 @NoArgsConstructor
-public class CouponJpaEntity {
+public class CouponJpaEntity implements Persistable<UUID> {
 
+    /** 16 raw bytes, most significant first, so time-ordered ids also sort by creation in the index. */
     @Id
-    @Column(nullable = false, updatable = false)
+    @JdbcTypeCode(SqlTypes.BINARY)
+    @Column(nullable = false, updatable = false, length = 16)
     private UUID id;
 
     @Column(nullable = false, length = 6)
@@ -31,7 +44,7 @@ public class CouponJpaEntity {
     @Column(nullable = false, precision = 10, scale = 2)
     private BigDecimal discountValue;
 
-    @Column(nullable = false)
+    @Column(name = "expiration_date", nullable = false)
     private OffsetDateTime expirationDate;
 
     @Column(nullable = false)
@@ -40,15 +53,35 @@ public class CouponJpaEntity {
     @Column(nullable = false)
     private boolean redeemed;
 
-    @Enumerated(EnumType.STRING)
     @Column(nullable = false)
+    private int usageLimit;
+
+    /** Uses handed out to nodes as leases; never exceeds {@code usageLimit}. */
+    @Column(nullable = false)
+    private int usageLeased;
+
+    /** Uses actually consumed, as reconciled back from the nodes. */
+    @Column(nullable = false)
+    private int usageCount;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
     private CouponStatus status;
 
     private OffsetDateTime deletedAt;
 
-    @Column(nullable = false)
+    @Column(name = "created_at", nullable = false)
     private OffsetDateTime createdAt;
 
+    /** Bumped by every bulk update that changes what readers see; exposed as the ETag. */
+    @Version
+    @Column(nullable = false)
+    private long version;
+
+    /** Carried from the domain so Spring Data persists new coupons instead of merging them. */
+    @Transient
+    private boolean newEntity;
+
     public static CouponJpaEntity from(Coupon coupon) {
         CouponJpaEntity entity = new CouponJpaEntity();
         entity.id = coupon.getId();
@@ -58,12 +91,27 @@ public class CouponJpaEntity {
         entity.expirationDate = coupon.getExpirationDate();
         entity.published = coupon.isPublished();
         entity.redeemed = coupon.isRedeemed();
+        entity.usageLimit = coupon.getUsageLimit();
+        entity.usageCount = coupon.getUsageCount();
         entity.status = coupon.getStatus();
         entity.deletedAt = coupon.getDeletedAt();
         entity.createdAt = coupon.getCreatedAt();
+        entity.version = coupon.getVersion();
+        entity.newEntity = coupon.isNew();
         return entity;
     }
 
+    @Override
+    public boolean isNew() {
+        return newEntity;
+    }
+
+    @PostPersist
+    @PostLoad
+    void markNotNew() {
+        this.newEntity = false;
+    }
+
     public Coupon toDomain() {
         return Coupon.reconstruct(
             id,
@@ -73,9 +121,12 @@ public class CouponJpaEntity {
             expirationDate,
             published,
             redeemed,
+            usageLimit,
+            usageCount,
             status,
             deletedAt,
-            createdAt
+            createdAt,
+            version
         );
     }
 }
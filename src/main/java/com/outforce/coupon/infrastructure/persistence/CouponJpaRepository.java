@@ -1,7 +1,129 @@
 package com.outforce.coupon.infrastructure.persistence;
 
+import com.outforce.coupon.domain.CouponExpiry;
+import com.outforce.coupon.domain.CouponKey;
+import com.outforce.coupon.domain.CouponStatus;
+import com.outforce.coupon.domain.CouponVersion;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
-public interface CouponJpaRepository extends JpaRepository<CouponJpaEntity, UUID> {}
+public interface CouponJpaRepository extends JpaRepository<CouponJpaEntity, UUID> {
+
+    Optional<CouponJpaEntity> findByCode(String code);
+
+    boolean existsByCode(String code);
+
+    @Query("select new com.outforce.coupon.domain.CouponVersion(c.version, c.expirationDate) from CouponJpaEntity c where c.id = :id")
+    Optional<CouponVersion> findVersion(@Param("id") UUID id);
+
+    @Query("select c.code from CouponJpaEntity c where c.code in :codes")
+    List<String> findExistingCodes(@Param("codes") Collection<String> codes);
+
+    List<CouponJpaEntity> findAllByCodeIn(Collection<String> codes);
+
+    /** Writes the mutable columns of an existing coupon without loading it first. */
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            update CouponJpaEntity c
+               set c.status = :status, c.deletedAt = :deletedAt, c.redeemed = :redeemed, c.version = c.version + 1
+             where c.id = :id
+            """)
+    int updateState(@Param("id") UUID id,
+                    @Param("status") CouponStatus status,
+                    @Param("deletedAt") OffsetDateTime deletedAt,
+                    @Param("redeemed") boolean redeemed);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            update CouponJpaEntity c
+               set c.status = :deleted, c.deletedAt = :deletedAt, c.version = c.version + 1
+             where c.id = :id and c.status <> :deleted
+            """)
+    int softDelete(@Param("id") UUID id,
+                   @Param("deletedAt") OffsetDateTime deletedAt,
+                   @Param("deleted") CouponStatus deleted);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            update CouponJpaEntity c
+               set c.redeemed = true, c.version = c.version + 1
+             where c.id = :id and c.redeemed = false and c.published = true and c.status = :active
+            """)
+    int markRedeemed(@Param("id") UUID id, @Param("active") CouponStatus active);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            update CouponJpaEntity c
+               set c.usageLeased = c.usageLeased + :amount
+             where c.id = :id and c.status = :active and c.usageLeased + :amount <= c.usageLimit
+            """)
+    int leaseUses(@Param("id") UUID id, @Param("amount") int amount, @Param("active") CouponStatus active);
+
+    @Query("select c.usageLimit - c.usageLeased from CouponJpaEntity c where c.id = :id")
+    Optional<Integer> findLeasableUses(@Param("id") UUID id);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            update CouponJpaEntity c
+               set c.usageCount = c.usageCount + :consumed, c.usageLeased = c.usageLeased - :released,
+                   c.version = c.version + 1
+             where c.id = :id
+            """)
+    int reconcileUsage(@Param("id") UUID id, @Param("consumed") int consumed, @Param("released") int released);
+
+    @Query("""
+            select c.id from CouponJpaEntity c
+             where c.status = :active and c.expirationDate <= :now
+             order by c.expirationDate
+            """)
+    List<UUID> findExpiredIds(@Param("now") OffsetDateTime now, @Param("active") CouponStatus active, Limit limit);
+
+    @Query("""
+            select new com.outforce.coupon.domain.CouponExpiry(c.id, c.expirationDate)
+              from CouponJpaEntity c
+             where c.status = :active and c.expirationDate > :from and c.expirationDate <= :to
+             order by c.expirationDate
+            """)
+    List<CouponExpiry> findExpiringBetween(@Param("from") OffsetDateTime from,
+                                           @Param("to") OffsetDateTime to,
+                                           @Param("active") CouponStatus active,
+                                           Limit limit);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            update CouponJpaEntity c
+               set c.status = :inactive, c.version = c.version + 1
+             where c.id in :ids and c.status = :active and c.expirationDate <= :now
+            """)
+    int expire(@Param("ids") Collection<UUID> ids,
+               @Param("now") OffsetDateTime now,
+               @Param("active") CouponStatus active,
+               @Param("inactive") CouponStatus inactive);
+
+    @Query("select new com.outforce.coupon.domain.CouponKey(c.id, c.code) from CouponJpaEntity c order by c.id")
+    List<CouponKey> findKeys(Limit limit);
+
+    @Query("""
+            select new com.outforce.coupon.domain.CouponKey(c.id, c.code)
+              from CouponJpaEntity c
+             where c.id > :after
+             order by c.id
+            """)
+    List<CouponKey> findKeysAfter(@Param("after") UUID after, Limit limit);
+}
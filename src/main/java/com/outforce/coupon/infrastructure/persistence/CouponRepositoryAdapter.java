@@ -1,29 +1,229 @@
 package com.outforce.coupon.infrastructure.persistence;
 
 import com.outforce.coupon.domain.Coupon;
+import com.outforce.coupon.domain.CouponCode;
+import com.outforce.coupon.domain.CouponExpiry;
+import com.outforce.coupon.domain.CouponKey;
+import com.outforce.coupon.domain.CouponPageCursor;
 import com.outforce.coupon.domain.CouponRepository;
+import com.outforce.coupon.domain.CouponSearchCriteria;
+import com.outforce.coupon.domain.CouponStatus;
+import com.outforce.coupon.domain.CouponVersion;
+import com.outforce.coupon.domain.SoftDeleteResult;
+import com.outforce.coupon.shared.exception.CouponBatchConflictException;
+import com.outforce.coupon.shared.exception.CouponCodeAlreadyExistsException;
+import com.outforce.coupon.shared.exception.CouponNotFoundException;
+import com.outforce.coupon.shared.transaction.TransactionCallbacks;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Component;
 
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 @Component
+@Profile("!offheap & !eventlog")
 public class CouponRepositoryAdapter implements CouponRepository {
 
+    private static final int KEY_PAGE_SIZE = 10_000;
+    private static final String UNIQUE_CODE_INDEX = "ux_coupons_code";
+
     private final CouponJpaRepository jpaRepository;
+    private final CouponBatchWriter batchWriter;
+    private final CouponSearchRepository searchRepository;
+    private final CouponCodeIndex codeIndex;
 
-    public CouponRepositoryAdapter(CouponJpaRepository jpaRepository) {
+    public CouponRepositoryAdapter(CouponJpaRepository jpaRepository,
+                                   CouponBatchWriter batchWriter,
+                                   CouponSearchRepository searchRepository,
+                                   CouponCodeIndex codeIndex) {
         this.jpaRepository = jpaRepository;
+        this.batchWriter = batchWriter;
+        this.searchRepository = searchRepository;
+        this.codeIndex = codeIndex;
     }
 
     @Override
     public Coupon save(Coupon coupon) {
+        if (!coupon.isNew()) {
+            return update(coupon);
+        }
+
         CouponJpaEntity entity = CouponJpaEntity.from(coupon);
-        return jpaRepository.save(entity).toDomain();
+        Coupon saved;
+        try {
+            saved = jpaRepository.save(entity).toDomain();
+        } catch (DataIntegrityViolationException ex) {
+            // Unique index on code is the last line of defense against concurrent creates
+            if (!violatesUniqueCode(ex)) {
+                throw ex;
+            }
+            throw new CouponCodeAlreadyExistsException(coupon.getCode().value());
+        }
+        indexAfterCommit(saved);
+        return saved;
+    }
+
+    @Override
+    public List<Coupon> saveAll(List<Coupon> coupons) {
+        List<CouponJpaEntity> entities = coupons.stream().map(CouponJpaEntity::from).toList();
+        try {
+            batchWriter.insertAll(entities);
+        } catch (DataIntegrityViolationException ex) {
+            if (!violatesUniqueCode(ex)) {
+                throw ex;
+            }
+            throw new CouponBatchConflictException();
+        }
+        List<Coupon> saved = entities.stream().map(CouponJpaEntity::toDomain).toList();
+        saved.forEach(this::indexAfterCommit);
+        return saved;
     }
 
     @Override
     public Optional<Coupon> findById(UUID id) {
         return jpaRepository.findById(id).map(CouponJpaEntity::toDomain);
     }
+
+    @Override
+    public Optional<Coupon> findByCode(CouponCode code) {
+        Optional<UUID> indexedId = codeIndex.find(code);
+        if (indexedId.isPresent()) {
+            return findById(indexedId.get());
+        }
+
+        Optional<Coupon> found = jpaRepository.findByCode(code.value()).map(CouponJpaEntity::toDomain);
+        found.ifPresent(this::indexAfterCommit);
+        return found;
+    }
+
+    @Override
+    public Optional<CouponVersion> findVersion(UUID id) {
+        return jpaRepository.findVersion(id);
+    }
+
+    @Override
+    public boolean existsByCode(CouponCode code) {
+        return codeIndex.contains(code) || jpaRepository.existsByCode(code.value());
+    }
+
+    @Override
+    public Set<CouponCode> findExistingCodes(Collection<CouponCode> codes) {
+        Set<CouponCode> existing = new HashSet<>();
+        List<String> unknown = new ArrayList<>(codes.size());
+        for (CouponCode code : codes) {
+            if (codeIndex.contains(code)) {
+                existing.add(code);
+            } else {
+                unknown.add(code.value());
+            }
+        }
+        if (!unknown.isEmpty()) {
+            jpaRepository.findExistingCodes(unknown).forEach(code -> existing.add(new CouponCode(code)));
+        }
+        return existing;
+    }
+
+    @Override
+    public List<Coupon> findAllByCodes(Collection<CouponCode> codes) {
+        if (codes.isEmpty()) {
+            return List.of();
+        }
+        List<Coupon> found = jpaRepository.findAllByCodeIn(codes.stream().map(CouponCode::value).toList()).stream()
+            .map(CouponJpaEntity::toDomain)
+            .toList();
+        found.forEach(this::indexAfterCommit);
+        return found;
+    }
+
+    @Override
+    public SoftDeleteResult softDelete(UUID id, OffsetDateTime deletedAt) {
+        if (jpaRepository.softDelete(id, deletedAt, CouponStatus.DELETED) == 1) {
+            return SoftDeleteResult.DELETED;
+        }
+        // Only the losing path pays for the probe that tells 404 from 409
+        return jpaRepository.existsById(id) ? SoftDeleteResult.ALREADY_DELETED : SoftDeleteResult.NOT_FOUND;
+    }
+
+    @Override
+    public List<Coupon> search(CouponSearchCriteria criteria, CouponPageCursor after, int limit) {
+        return searchRepository.search(criteria, after, limit).stream()
+            .map(CouponJpaEntity::toDomain)
+            .toList();
+    }
+
+    @Override
+    public List<UUID> findExpiredIds(OffsetDateTime now, int limit) {
+        return jpaRepository.findExpiredIds(now, CouponStatus.ACTIVE, Limit.of(limit));
+    }
+
+    @Override
+    public List<CouponExpiry> findExpiringBetween(OffsetDateTime from, OffsetDateTime to, int limit) {
+        return jpaRepository.findExpiringBetween(from, to, CouponStatus.ACTIVE, Limit.of(limit));
+    }
+
+    @Override
+    public int expire(Collection<UUID> ids, OffsetDateTime now) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        return jpaRepository.expire(ids, now, CouponStatus.ACTIVE, CouponStatus.INACTIVE);
+    }
+
+    @Override
+    public boolean markRedeemed(UUID id) {
+        return jpaRepository.markRedeemed(id, CouponStatus.ACTIVE) == 1;
+    }
+
+    @Override
+    public void forEachKey(Consumer<CouponKey> action) {
+        // Keyset pages over the primary key: each page is one short index range scan
+        List<CouponKey> page = jpaRepository.findKeys(Limit.of(KEY_PAGE_SIZE));
+        while (!page.isEmpty()) {
+            page.forEach(action);
+            if (page.size() < KEY_PAGE_SIZE) {
+                break;
+            }
+            page = jpaRepository.findKeysAfter(page.getLast().id(), Limit.of(KEY_PAGE_SIZE));
+        }
+    }
+
+    private Coupon update(Coupon coupon) {
+        int updated = jpaRepository.updateState(
+            coupon.getId(), coupon.getStatus(), coupon.getDeletedAt(), coupon.isRedeemed()
+        );
+        if (updated == 0) {
+            throw new CouponNotFoundException(coupon.getId());
+        }
+        return coupon;
+    }
+
+    private void indexAfterCommit(Coupon coupon) {
+        TransactionCallbacks.afterCommit(() -> codeIndex.register(coupon.getCode(), coupon.getId()));
+    }
+
+    /**
+     * Whether the violation is the unique index on code. H2 reports the index name qualified and
+     * upper-cased (PUBLIC.UX_COUPONS_CODE_INDEX_A), PostgreSQL as declared; anything else
+     * (not-null, check constraints) is a bug rather than a conflict and is rethrown.
+     */
+    private static boolean violatesUniqueCode(DataIntegrityViolationException ex) {
+        for (Throwable cause = ex.getCause(); cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation) {
+                String constraint = violation.getConstraintName();
+                return constraint != null && constraint.toLowerCase(Locale.ROOT).contains(UNIQUE_CODE_INDEX);
+            }
+        }
+        return false;
+    }
 }
@@ -0,0 +1,72 @@
+package com.outforce.coupon.infrastructure.persistence;
+
+import com.outforce.coupon.domain.CouponPageCursor;
+import com.outforce.coupon.domain.CouponSearchCriteria;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Keyset (seek) listing over {@code (created_at, id)}.
+ * The cursor becomes a range predicate on the composite indexes, so every page costs
+ * the same no matter how deep it is — there is no OFFSET to skip over.
+ */
+@Repository
+@Profile("!offheap & !eventlog")
+public class CouponSearchRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Transactional(readOnly = true)
+    public List<CouponJpaEntity> search(CouponSearchCriteria criteria, CouponPageCursor after, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<CouponJpaEntity> query = cb.createQuery(CouponJpaEntity.class);
+        Root<CouponJpaEntity> coupon = query.from(CouponJpaEntity.class);
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (criteria.status() != null) {
+            predicates.add(cb.equal(coupon.get("status"), criteria.status()));
+        }
+        if (criteria.published() != null) {
+            predicates.add(cb.equal(coupon.get("published"), criteria.published()));
+        }
+        if (criteria.redeemed() != null) {
+            predicates.add(cb.equal(coupon.get("redeemed"), criteria.redeemed()));
+        }
+        if (criteria.expiresFrom() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(coupon.<OffsetDateTime>get("expirationDate"), criteria.expiresFrom()));
+        }
+        if (criteria.expiresTo() != null) {
+            predicates.add(cb.lessThan(coupon.<OffsetDateTime>get("expirationDate"), criteria.expiresTo()));
+        }
+        if (after != null) {
+            predicates.add(cb.or(
+                    cb.greaterThan(coupon.<OffsetDateTime>get("createdAt"), after.createdAt()),
+                    cb.and(
+                            cb.equal(coupon.get("createdAt"), after.createdAt()),
+                            cb.greaterThan(coupon.<UUID>get("id"), after.id())
+                    )
+            ));
+        }
+
+        query.select(coupon)
+                .where(predicates.toArray(Predicate[]::new))
+                .orderBy(cb.asc(coupon.get("createdAt")), cb.asc(coupon.get("id")));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+}
@@ -0,0 +1,55 @@
+package com.outforce.coupon.infrastructure.persistence;
+
+import com.outforce.coupon.domain.CouponStatus;
+import com.outforce.coupon.infrastructure.usage.CouponUsageLeaseStore;
+import com.outforce.coupon.infrastructure.usage.UsageReconciliation;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Leases uses with a conditional increment of {@code usage_leased}, so the sum of all
+ * leases can never pass {@code usage_limit} even with many nodes leasing at once.
+ */
+@Component
+@Profile("!offheap & !eventlog")
+public class JpaCouponUsageLeaseStore implements CouponUsageLeaseStore {
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final CouponJpaRepository jpaRepository;
+
+    public JpaCouponUsageLeaseStore(CouponJpaRepository jpaRepository) {
+        this.jpaRepository = jpaRepository;
+    }
+
+    @Override
+    public int lease(UUID couponId, int requested) {
+        int amount = requested;
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            if (jpaRepository.leaseUses(couponId, amount, CouponStatus.ACTIVE) == 1) {
+                return amount;
+            }
+            // Not enough left for a full block: shrink to whatever remains
+            int leasable = jpaRepository.findLeasableUses(couponId).orElse(0);
+            if (leasable <= 0) {
+                return 0;
+            }
+            amount = Math.min(requested, leasable);
+        }
+        return 0;
+    }
+
+    @Override
+    @Transactional
+    public void reconcile(List<UsageReconciliation> reconciliations) {
+        for (UsageReconciliation reconciliation : reconciliations) {
+            jpaRepository.reconcileUsage(
+                reconciliation.couponId(), reconciliation.consumed(), reconciliation.released()
+            );
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.outforce.coupon.infrastructure.usage;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Durable side of the usage quota: hands out blocks of uses and takes back
+ * consumed and unused ones. The store alone guarantees the global limit.
+ */
+public interface CouponUsageLeaseStore {
+
+    /** Leases up to {@code requested} uses; returns how many were granted (0 when none are left). */
+    int lease(UUID couponId, int requested);
+
+    /** Applies consumed and released uses for several coupons in one go. */
+    void reconcile(List<UsageReconciliation> reconciliations);
+}
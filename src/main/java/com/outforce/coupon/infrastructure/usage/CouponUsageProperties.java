@@ -0,0 +1,23 @@
+package com.outforce.coupon.infrastructure.usage;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * @param leaseSize         uses leased from the store per round trip
+ * @param stripes           counters per coupon; 0 means one per available processor
+ * @param exhaustedRetry    how long a node answers "no uses left" before asking the store again
+ * @param leaseIdleTimeout  how long a coupon may go without a use before its lease is returned and dropped
+ */
+@ConfigurationProperties(prefix = "coupon.usage")
+public record CouponUsageProperties(
+        int leaseSize,
+        int stripes,
+        Duration exhaustedRetry,
+        Duration leaseIdleTimeout
+) {
+    public int effectiveStripes() {
+        return stripes > 0 ? stripes : Runtime.getRuntime().availableProcessors();
+    }
+}
@@ -0,0 +1,148 @@
+package com.outforce.coupon.infrastructure.usage;
+
+import com.outforce.coupon.application.get.CouponResponseCache;
+import com.outforce.coupon.domain.CouponUsageQuota;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Node-local usage quota for multi-use coupons.
+ * Uses are leased from the store in blocks and reserved from lock-free striped counters,
+ * so a hot coupon does not serialize every redemption on its database row.
+ * Consumed uses are reconciled back periodically in one batch, and the cached responses of
+ * the reconciled coupons are invalidated. A lease without uses for {@code lease-idle-timeout}
+ * (idle, deleted or expired coupons) returns its unused uses and is dropped, as are all leases
+ * on shutdown. The store never grants more than the usage limit, so the global limit holds
+ * no matter how many nodes are running.
+ */
+@Component
+public class StripedCouponUsageQuota implements CouponUsageQuota {
+
+    private static final Logger log = LoggerFactory.getLogger(StripedCouponUsageQuota.class);
+
+    private final CouponUsageLeaseStore store;
+    private final CouponResponseCache cache;
+    private final int leaseSize;
+    private final int stripes;
+    private final long exhaustedRetryNanos;
+    private final long leaseIdleNanos;
+    private final ConcurrentHashMap<UUID, UsageLease> leases = new ConcurrentHashMap<>();
+    private final ReentrantLock reconcileLock = new ReentrantLock();
+    /** Guarded by reconcileLock: leases dropped last round, and reconciliations the store refused. */
+    private final List<UsageLease> retired = new ArrayList<>();
+    private final List<UsageReconciliation> pending = new ArrayList<>();
+    private volatile boolean closed;
+
+    public StripedCouponUsageQuota(CouponUsageLeaseStore store, CouponResponseCache cache,
+                                   CouponUsageProperties properties) {
+        this.store = store;
+        this.cache = cache;
+        this.leaseSize = properties.leaseSize();
+        this.stripes = properties.effectiveStripes();
+        this.exhaustedRetryNanos = properties.exhaustedRetry().toNanos();
+        this.leaseIdleNanos = properties.leaseIdleTimeout().toNanos();
+    }
+
+    @Override
+    public boolean tryAcquire(UUID couponId) {
+        while (!closed) {
+            UsageLease lease = leases.computeIfAbsent(couponId, id -> new UsageLease(id, stripes));
+            if (lease.tryAcquire(store, leaseSize, exhaustedRetryNanos)) {
+                return true;
+            }
+            if (!lease.isClosed()) {
+                return false;
+            }
+            // Dropped as idle between the lookup and the acquire; the next lookup leases afresh
+            leases.remove(couponId, lease);
+        }
+        return false;
+    }
+
+    @Scheduled(fixedDelayString = "${coupon.usage.reconcile-interval:1s}")
+    public void reconcile() {
+        reconcileLock.lock();
+        try {
+            long now = System.nanoTime();
+            List<UsageReconciliation> batch = takePending();
+            for (UsageLease lease : leases.values()) {
+                int consumed = lease.drainConsumed();
+                if (consumed > 0) {
+                    lease.markActive(now);
+                    batch.add(new UsageReconciliation(lease.couponId(), consumed, 0));
+                } else if (lease.idleFor(leaseIdleNanos, now) && leases.remove(lease.couponId(), lease)) {
+                    int released = lease.close();
+                    retired.add(lease);
+                    if (released > 0) {
+                        batch.add(new UsageReconciliation(lease.couponId(), 0, released));
+                    }
+                }
+            }
+            flush(batch);
+        } finally {
+            reconcileLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        closed = true;
+        reconcileLock.lock();
+        try {
+            List<UsageReconciliation> batch = takePending();
+            for (UsageLease lease : leases.values()) {
+                int released = lease.close();
+                int consumed = lease.drainConsumed();
+                if (consumed > 0 || released > 0) {
+                    batch.add(new UsageReconciliation(lease.couponId(), consumed, released));
+                }
+            }
+            flush(batch);
+        } finally {
+            reconcileLock.unlock();
+        }
+    }
+
+    /**
+     * Starts a batch with the reconciliations left over from the previous round: those the store
+     * refused, and uses taken from a retired lease between its last drain and its close.
+     */
+    private List<UsageReconciliation> takePending() {
+        List<UsageReconciliation> batch = new ArrayList<>(pending);
+        pending.clear();
+        for (UsageLease lease : retired) {
+            int consumed = lease.drainConsumed();
+            if (consumed > 0) {
+                batch.add(new UsageReconciliation(lease.couponId(), consumed, 0));
+            }
+        }
+        retired.clear();
+        return batch;
+    }
+
+    private void flush(List<UsageReconciliation> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            store.reconcile(batch);
+        } catch (RuntimeException ex) {
+            log.warn("Usage reconciliation of {} coupons failed; retrying on next round", batch.size(), ex);
+            pending.addAll(batch);
+            return;
+        }
+        // Every reconciliation bumps the stored usage count and version
+        for (UsageReconciliation reconciliation : batch) {
+            cache.invalidate(reconciliation.couponId());
+        }
+    }
+}
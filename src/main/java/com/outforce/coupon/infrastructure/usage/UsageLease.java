@@ -0,0 +1,135 @@
+package com.outforce.coupon.infrastructure.usage;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Uses of one coupon currently leased by this node, spread over striped counters.
+ * Acquiring is a CAS on one stripe; only when every stripe is empty does a single
+ * thread go back to the store for another block.
+ */
+final class UsageLease {
+
+    /** Ints per stripe so that each counter sits on its own cache line. */
+    private static final int PADDING = 16;
+
+    private final UUID couponId;
+    private final int stripes;
+    private final AtomicIntegerArray permits;
+    private final LongAdder consumed = new LongAdder();
+    private final ReentrantLock refillLock = new ReentrantLock();
+    private volatile boolean exhausted;
+    private volatile long exhaustedAtNanos;
+    private volatile boolean closed;
+    /** Last reconciliation round that found consumed uses; only the reconciling thread reads it. */
+    private long lastActiveNanos = System.nanoTime();
+
+    UsageLease(UUID couponId, int stripes) {
+        this.couponId = couponId;
+        this.stripes = stripes;
+        this.permits = new AtomicIntegerArray(stripes * PADDING);
+    }
+
+    boolean tryAcquire(CouponUsageLeaseStore store, int leaseSize, long exhaustedRetryNanos) {
+        int start = ThreadLocalRandom.current().nextInt(stripes);
+        while (true) {
+            if (takeOne(start)) {
+                consumed.increment();
+                return true;
+            }
+            if (closed || isExhausted(exhaustedRetryNanos)) {
+                return false;
+            }
+
+            refillLock.lock();
+            try {
+                if (takeOne(start)) { // another thread refilled while we waited
+                    consumed.increment();
+                    return true;
+                }
+                if (closed || isExhausted(exhaustedRetryNanos)) {
+                    return false;
+                }
+                int granted = store.lease(couponId, leaseSize);
+                if (granted == 0) {
+                    exhaustedAtNanos = System.nanoTime();
+                    exhausted = true;
+                    return false;
+                }
+                exhausted = false;
+                distribute(granted);
+            } finally {
+                refillLock.unlock();
+            }
+        }
+    }
+
+    /** Consumed uses since the previous call; the caller owns reporting them. */
+    int drainConsumed() {
+        return (int) consumed.sumThenReset();
+    }
+
+    void markActive(long nowNanos) {
+        lastActiveNanos = nowNanos;
+    }
+
+    boolean idleFor(long idleNanos, long nowNanos) {
+        return nowNanos - lastActiveNanos >= idleNanos;
+    }
+
+    /** Stops handing out uses and returns everything still sitting in the stripes. */
+    int close() {
+        closed = true;
+        refillLock.lock();
+        try {
+            int unused = 0;
+            for (int stripe = 0; stripe < stripes; stripe++) {
+                unused += permits.getAndSet(stripe * PADDING, 0);
+            }
+            return unused;
+        } finally {
+            refillLock.unlock();
+        }
+    }
+
+    boolean isClosed() {
+        return closed;
+    }
+
+    UUID couponId() {
+        return couponId;
+    }
+
+    /** Remembers an empty store for a while so callers fail fast instead of hammering it. */
+    private boolean isExhausted(long retryNanos) {
+        return exhausted && System.nanoTime() - exhaustedAtNanos < retryNanos;
+    }
+
+    private boolean takeOne(int start) {
+        for (int i = 0; i < stripes; i++) {
+            int slot = ((start + i) % stripes) * PADDING;
+            int available = permits.get(slot);
+            while (available > 0) {
+                if (permits.compareAndSet(slot, available, available - 1)) {
+                    return true;
+                }
+                available = permits.get(slot);
+            }
+        }
+        return false;
+    }
+
+    private void distribute(int granted) {
+        int share = granted / stripes;
+        int remainder = granted % stripes;
+        for (int stripe = 0; stripe < stripes; stripe++) {
+            int amount = share + (stripe < remainder ? 1 : 0);
+            if (amount > 0) {
+                permits.addAndGet(stripe * PADDING, amount);
+            }
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.outforce.coupon.infrastructure.usage;
+
+import java.util.UUID;
+
+/**
+ * @param consumed uses taken from a lease since the last reconciliation
+ * @param released leased uses handed back unused
+ */
+public record UsageReconciliation(
+        UUID couponId,
+        int consumed,
+        int released
+) {}
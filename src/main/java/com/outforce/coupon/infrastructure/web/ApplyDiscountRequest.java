@@ -0,0 +1,23 @@
+package com.outforce.coupon.infrastructure.web;
+
+import com.outforce.coupon.application.discount.ApplyDiscountCommand;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Schema(description = "Cart lines to apply a coupon to")
+public record ApplyDiscountRequest(
+
+        @NotEmpty(message = "amounts must not be empty")
+        @Schema(example = "[59.90, 15.00]", description = "Line totals (unit price times quantity)")
+        List<@NotNull(message = "amounts must not contain null entries")
+             @PositiveOrZero(message = "amounts must not be negative") BigDecimal> amounts
+) {
+    public ApplyDiscountCommand toCommand(String code) {
+        return new ApplyDiscountCommand(code, amounts);
+    }
+}
@@ -0,0 +1,34 @@
+package com.outforce.coupon.infrastructure.web;
+
+import com.outforce.coupon.application.validate.ValidateCartCommand;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Schema(description = "Cart to check coupon codes against")
+public record CartValidationRequest(
+
+        @NotEmpty(message = "codes must not be empty")
+        @Schema(example = "[\"ABC-123\", \"XYZ789\"]", description = "Codes typed by the shopper, applied in this order")
+        List<String> codes,
+
+        @NotNull(message = "items is required")
+        List<@NotNull(message = "items must not contain null entries") @Valid Item> items
+) {
+    @Schema(description = "Cart line item")
+    public record Item(
+            @NotNull(message = "amount is required")
+            @PositiveOrZero(message = "amount must not be negative")
+            @Schema(example = "59.90", description = "Line total (unit price times quantity)")
+            BigDecimal amount
+    ) {}
+
+    public ValidateCartCommand toCommand() {
+        return new ValidateCartCommand(codes, items.stream().map(Item::amount).toList());
+    }
+}
@@ -1,11 +1,29 @@
 package com.outforce.coupon.infrastructure.web;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.outforce.coupon.application.batch.BatchCreateCouponsResponse;
+import com.outforce.coupon.application.batch.BatchCreateCouponsUseCase;
+import com.outforce.coupon.application.create.CreateCouponCommand;
 import com.outforce.coupon.application.create.CreateCouponResponse;
 import com.outforce.coupon.application.create.CreateCouponUseCase;
-import com.outforce.coupon.application.delete.DeleteCouponResponse;
 import com.outforce.coupon.application.delete.DeleteCouponUseCase;
+import com.outforce.coupon.application.discount.ApplyDiscountResponse;
+import com.outforce.coupon.application.discount.ApplyDiscountUseCase;
+import com.outforce.coupon.application.get.EncodedCouponResponse;
+import com.outforce.coupon.application.get.GetCouponByCodeUseCase;
 import com.outforce.coupon.application.get.GetCouponByIdUseCase;
 import com.outforce.coupon.application.get.GetCouponResponse;
+import com.outforce.coupon.application.list.ListCouponsResponse;
+import com.outforce.coupon.application.list.ListCouponsUseCase;
+import com.outforce.coupon.application.redeem.RedeemCouponResponse;
+import com.outforce.coupon.application.redeem.RedeemCouponUseCase;
+import com.outforce.coupon.application.validate.ValidateCartResponse;
+import com.outforce.coupon.application.validate.ValidateCartUseCase;
+import com.outforce.coupon.domain.CouponSearchCriteria;
+import com.outforce.coupon.domain.CouponStatus;
+import com.outforce.coupon.domain.CouponVersion;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -13,11 +31,23 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.server.ServletServerHttpRequest;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 
 @RestController
@@ -28,13 +58,40 @@ public class CouponController {
     private final CreateCouponUseCase createCouponUseCase;
     private final DeleteCouponUseCase deleteCouponUseCase;
     private final GetCouponByIdUseCase getCouponByIdUseCase;
+    private final GetCouponByCodeUseCase getCouponByCodeUseCase;
+    private final BatchCreateCouponsUseCase batchCreateCouponsUseCase;
+    private final RedeemCouponUseCase redeemCouponUseCase;
+    private final ListCouponsUseCase listCouponsUseCase;
+    private final ValidateCartUseCase validateCartUseCase;
+    private final ApplyDiscountUseCase applyDiscountUseCase;
+    private final ObjectMapper objectMapper;
+    private final CouponHttpCaching httpCaching;
+    private final boolean encodedResponses;
 
     public CouponController(CreateCouponUseCase createCouponUseCase,
                             DeleteCouponUseCase deleteCouponUseCase,
-                            GetCouponByIdUseCase getCouponByIdUseCase) {
+                            GetCouponByIdUseCase getCouponByIdUseCase,
+                            GetCouponByCodeUseCase getCouponByCodeUseCase,
+                            BatchCreateCouponsUseCase batchCreateCouponsUseCase,
+                            RedeemCouponUseCase redeemCouponUseCase,
+                            ListCouponsUseCase listCouponsUseCase,
+                            ValidateCartUseCase validateCartUseCase,
+                            ApplyDiscountUseCase applyDiscountUseCase,
+                            ObjectMapper objectMapper,
+                            CouponHttpCaching httpCaching,
+                            @Value("${coupon.cache.encoded-responses:false}") boolean encodedResponses) {
         this.createCouponUseCase = createCouponUseCase;
         this.deleteCouponUseCase = deleteCouponUseCase;
         this.getCouponByIdUseCase = getCouponByIdUseCase;
+        this.getCouponByCodeUseCase = getCouponByCodeUseCase;
+        this.batchCreateCouponsUseCase = batchCreateCouponsUseCase;
+        this.redeemCouponUseCase = redeemCouponUseCase;
+        this.listCouponsUseCase = listCouponsUseCase;
+        this.validateCartUseCase = validateCartUseCase;
+        this.applyDiscountUseCase = applyDiscountUseCase;
+        this.objectMapper = objectMapper;
+        this.httpCaching = httpCaching;
+        this.encodedResponses = encodedResponses;
     }
 
     @PostMapping
@@ -45,6 +102,7 @@ public class CouponController {
     @ApiResponses({
             @ApiResponse(responseCode = "201", description = "Cupom criado com sucesso"),
             @ApiResponse(responseCode = "400", description = "Campo obrigatório ausente ou formato inválido", content = @Content(schema = @Schema(ref = "#/components/schemas/ErrorResponse"))),
+            @ApiResponse(responseCode = "409", description = "Já existe um cupom com o mesmo código", content = @Content(schema = @Schema(ref = "#/components/schemas/ErrorResponse"))),
             @ApiResponse(responseCode = "422", description = "Regra de negócio violada (data no passado, desconto abaixo do mínimo, código inválido)", content = @Content(schema = @Schema(ref = "#/components/schemas/ErrorResponse")))
     })
     public ResponseEntity<CreateCouponResponse> create(@RequestBody @Valid CouponRequest request) {
@@ -52,20 +110,198 @@ public class CouponController {
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(
+            summary = "Criar cupons em lote",
+            description = "Cria vários cupons em uma única requisição (array JSON). Cada item é validado individualmente; itens inválidos são rejeitados sem interromper o restante do lote."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Lote processado; o resultado de cada item é retornado na mesma ordem do envio"),
+            @ApiResponse(responseCode = "400", description = "Corpo da requisição malformado", content = @Content(schema = @Schema(ref = "#/components/schemas/ErrorResponse"))),
+            @ApiResponse(responseCode = "422", description = "Lote acima do tamanho máximo permitido", content = @Content(schema = @Schema(ref = "#/components/schemas/ErrorResponse")))
+    })
+    public ResponseEntity<BatchCreateCouponsResponse> createBatch(@RequestBody List<CouponRequest> requests) {
+        BatchCreateCouponsResponse response = batchCreateCouponsUseCase.execute(toCommands(requests));
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(
+            summary = "Criar cupons em lote (NDJSON)",
+            description = "Mesmo comportamento do lote JSON, recebendo um cupom por linha (application/x-ndjson). A leitura para assim que o lote passa do tamanho máximo."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Lote processado; o resultado de cada item é retornado na mesma ordem do envio"),
+            @ApiResponse(responseCode = "400", description = "Linha NDJSON malformada", content = @Content(schema = @Schema(ref = "#/components/schemas/ErrorResponse"))),
+            @ApiResponse(responseCode = "422", description = "Lote acima do tamanho máximo permitido", content = @Content(schema = @Schema(ref = "#/components/schemas/ErrorResponse")))
+    })
+    public ResponseEntity<BatchCreateCouponsResponse> createBatchNdjson(HttpServletRequest request) throws IOException {
+        List<CouponRequest> requests = new ArrayList<>();
+        try (MappingIterator<CouponRequest> items = objectMapper.readerFor(CouponRequest.class)
+                .readValues(request.getInputStream())) {
+            while (items.hasNextValue()) {
+                requests.add(items.nextValue());
+                // Stop reading an oversized batch here instead of buffering all of it first
+                batchCreateCouponsUseCase.ensureWithinLimit(requests.size());
+            }
+        } catch (JsonProcessingException ex) {
+            throw new HttpMessageNotReadableException("Malformed NDJSON payload.", ex, new ServletServerHttpRequest(request));
+        }
+        BatchCreateCouponsResponse response = batchCreateCouponsUseCase.execute(toCommands(requests));
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/validate")
+    @Operation(
+            summary = "Validar cupons de um carrinho",
+            description = "Verifica de uma vez todos os códigos de um carrinho (status, publicação, resgate e expiração) e calcula o desconto de cada um. Os códigos são aplicados na ordem enviada e o desconto total nunca passa do subtotal dos itens."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Carrinho avaliado; o resultado de cada código é retornado na mesma ordem do envio"),
+            @ApiResponse(responseCode = "400", description = "Campo obrigatório ausente ou formato inválido", content = @Content(schema = @Schema(ref = "#/components/schemas/ErrorResponse"))),
+            @ApiResponse(responseCode = "422", description = "Carrinho acima do número máximo de códigos", content = @Content(schema = @Schema(ref = "#/components/schemas/ErrorResponse")))
+    })
+    public ResponseEntity<ValidateCartResponse> validate(@RequestBody @Valid CartValidationRequest request) {
+        return ResponseEntity.ok(validateCartUseCase.execute(request.toCommand()));
+    }
+
+    @GetMapping
+    @Operation(
+            summary = "Listar cupons",
+            description = "Lista cupons em ordem de criação com paginação por cursor (keyset). Use o valor de nextCursor para buscar a próxima página; ele é nulo na última página."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Página de cupons"),
+            @ApiResponse(responseCode = "400", description = "Parâmetro com formato inválido", content = @Content(schema = @Schema(ref = "#/components/schemas/ErrorResponse"))),
+            @ApiResponse(responseCode = "422", description = "Cursor inválido, tamanho de página fora do limite ou intervalo de expiração inválido", content = @Content(schema = @Schema(ref = "#/components/schemas/ErrorResponse")))
+    })
+    public ResponseEntity<ListCouponsResponse> list(
+            @Parameter(description = "Filtra pelo status do cupom") @RequestParam(required = false) CouponStatus status,
+            @Parameter(description = "Filtra cupons publicados ou não") @RequestParam(required = false) Boolean published,
+            @Parameter(description = "Filtra cupons resgatados ou não") @RequestParam(required = false) Boolean redeemed,
+            @Parameter(description = "Expiração a partir de (inclusivo, ISO-8601)", example = "2026-01-01T00:00:00Z")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime expiresFrom,
+            @Parameter(description = "Expiração até (exclusivo, ISO-8601)", example = "2027-01-01T00:00:00Z")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime expiresTo,
+            @Parameter(description = "Cursor retornado pela página anterior") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Quantidade de itens por página") @RequestParam(defaultValue = "50") int size
+    ) {
+        CouponSearchCriteria criteria = new CouponSearchCriteria(status, published, redeemed, expiresFrom, expiresTo);
+        return ResponseEntity.ok(listCouponsUseCase.execute(criteria, cursor, size));
+    }
+
     @GetMapping("/{id}")
     @Operation(
             summary = "Buscar cupom por ID",
-            description = "Retorna os dados de um cupom pelo seu identificador único."
+            description = "Retorna os dados de um cupom pelo seu identificador único. A resposta traz um ETag com a versão do cupom; com If-None-Match igual à versão atual a resposta é 304, sem corpo."
     )
     @ApiResponses({
-            @ApiResponse(responseCode = "200", description = "Cupom encontrado"),
+            @ApiResponse(responseCode = "200", description = "Cupom encontrado", content = @Content(schema = @Schema(implementation = GetCouponResponse.class))),
+            @ApiResponse(responseCode = "304", description = "A cópia do cliente ainda é a versão atual"),
             @ApiResponse(responseCode = "404", description = "Cupom não encontrado", content = @Content(schema = @Schema(ref = "#/components/schemas/ErrorResponse")))
     })
-    public ResponseEntity<GetCouponResponse> getById(
+    public ResponseEntity<?> getById(
+            @Parameter(description = "ID do cupom", example = "df7ddff3-03f5-4362-9bf5-5a5a8ce47b93")
+            @PathVariable UUID id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
+        long minimumVersion = 0;
+        if (ifNoneMatch != null) {
+            // Only the version is read; the coupon is loaded and serialized when it changed
+            CouponVersion current = getCouponByIdUseCase.currentVersion(id);
+            String etag = CouponHttpCaching.etag(current.version());
+            if (CouponHttpCaching.matches(ifNoneMatch, etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                        .eTag(etag)
+                        .cacheControl(httpCaching.cacheControl(current.expirationDate()))
+                        .build();
+            }
+            // The client was told the version changed; never hand it an older cached copy
+            minimumVersion = current.version();
+        }
+        if (encodedResponses) {
+            // Cached JSON written as is; byte for byte what Jackson writes for the record below
+            EncodedCouponResponse encoded = getCouponByIdUseCase.executeEncoded(id, this::toJson, minimumVersion);
+            return cacheable(encoded.response())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(encoded.body());
+        }
+        GetCouponResponse response = getCouponByIdUseCase.execute(id, minimumVersion);
+        return cacheable(response).body(response);
+    }
+
+    @GetMapping("/code/{code}")
+    @Operation(
+            summary = "Buscar cupom por código",
+            description = "Retorna os dados de um cupom pelo código digitado. O código é normalizado com as mesmas regras da criação (caracteres especiais removidos, maiúsculas)."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Cupom encontrado"),
+            @ApiResponse(responseCode = "404", description = "Cupom não encontrado", content = @Content(schema = @Schema(ref = "#/components/schemas/ErrorResponse"))),
+            @ApiResponse(responseCode = "422", description = "Código inválido", content = @Content(schema = @Schema(ref = "#/components/schemas/ErrorResponse")))
+    })
+    public ResponseEntity<GetCouponResponse> getByCode(
+            @Parameter(description = "Código do cupom", example = "ABC-123")
+            @PathVariable String code
+    ) {
+        GetCouponResponse response = getCouponByCodeUseCase.execute(code);
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/code/{code}/apply")
+    @Operation(
+            summary = "Aplicar cupom aos itens do carrinho",
+            description = "Calcula o desconto do cupom sobre os itens informados, limitado ao subtotal, e o distribui proporcionalmente entre os itens. Não resgata o cupom."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Desconto calculado; os itens são retornados na mesma ordem do envio"),
+            @ApiResponse(responseCode = "400", description = "Campo obrigatório ausente ou formato inválido", content = @Content(schema = @Schema(ref = "#/components/schemas/ErrorResponse"))),
+            @ApiResponse(responseCode = "404", description = "Cupom não encontrado", content = @Content(schema = @Schema(ref = "#/components/schemas/ErrorResponse"))),
+            @ApiResponse(responseCode = "422", description = "Código inválido, cupom não aplicável ou carrinho acima do limite", content = @Content(schema = @Schema(ref = "#/components/schemas/ErrorResponse")))
+    })
+    public ResponseEntity<ApplyDiscountResponse> applyDiscount(
+            @Parameter(description = "Código do cupom", example = "ABC-123")
+            @PathVariable String code,
+            @RequestBody @Valid ApplyDiscountRequest request
+    ) {
+        return ResponseEntity.ok(applyDiscountUseCase.execute(request.toCommand(code)));
+    }
+
+    @PostMapping("/{id}/redeem")
+    @Operation(
+            summary = "Resgatar cupom",
+            description = "Resgata um cupom de uso único. Em caso de requisições concorrentes, apenas uma é aceita; as demais recebem 409 imediatamente."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Cupom resgatado com sucesso"),
+            @ApiResponse(responseCode = "404", description = "Cupom não encontrado", content = @Content(schema = @Schema(ref = "#/components/schemas/ErrorResponse"))),
+            @ApiResponse(responseCode = "409", description = "Cupom já resgatado ou deletado", content = @Content(schema = @Schema(ref = "#/components/schemas/ErrorResponse"))),
+            @ApiResponse(responseCode = "422", description = "Cupom inativo ou expirado", content = @Content(schema = @Schema(ref = "#/components/schemas/ErrorResponse")))
+    })
+    public ResponseEntity<RedeemCouponResponse> redeem(
             @Parameter(description = "ID do cupom", example = "df7ddff3-03f5-4362-9bf5-5a5a8ce47b93")
             @PathVariable UUID id
     ) {
-        GetCouponResponse response = getCouponByIdUseCase.execute(id);
+        RedeemCouponResponse response = redeemCouponUseCase.execute(id);
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/code/{code}/redeem")
+    @Operation(
+            summary = "Resgatar cupom por código",
+            description = "Mesmo comportamento do resgate por ID, identificando o cupom pelo código digitado."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Cupom resgatado com sucesso"),
+            @ApiResponse(responseCode = "404", description = "Cupom não encontrado", content = @Content(schema = @Schema(ref = "#/components/schemas/ErrorResponse"))),
+            @ApiResponse(responseCode = "409", description = "Cupom já resgatado ou deletado", content = @Content(schema = @Schema(ref = "#/components/schemas/ErrorResponse"))),
+            @ApiResponse(responseCode = "422", description = "Código inválido, cupom inativo ou expirado", content = @Content(schema = @Schema(ref = "#/components/schemas/ErrorResponse")))
+    })
+    public ResponseEntity<RedeemCouponResponse> redeemByCode(
+            @Parameter(description = "Código do cupom", example = "ABC-123")
+            @PathVariable String code
+    ) {
+        RedeemCouponResponse response = redeemCouponUseCase.executeByCode(code);
         return ResponseEntity.ok(response);
     }
 
@@ -79,11 +315,34 @@ public class CouponController {
             @ApiResponse(responseCode = "404", description = "Cupom não encontrado", content = @Content(schema = @Schema(ref = "#/components/schemas/ErrorResponse"))),
             @ApiResponse(responseCode = "409", description = "Cupom já foi deletado anteriormente", content = @Content(schema = @Schema(ref = "#/components/schemas/ErrorResponse")))
     })
-    public ResponseEntity<DeleteCouponResponse> delete(
+    public ResponseEntity<Void> delete(
             @Parameter(description = "ID do cupom", example = "df7ddff3-03f5-4362-9bf5-5a5a8ce47b93")
             @PathVariable UUID id
     ) {
-        DeleteCouponResponse response = deleteCouponUseCase.execute(id);
-        return ResponseEntity.status(HttpStatus.NO_CONTENT).body(response);
+        deleteCouponUseCase.execute(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    private ResponseEntity.BodyBuilder cacheable(GetCouponResponse response) {
+        return ResponseEntity.ok()
+                .eTag(CouponHttpCaching.etag(response.version()))
+                .cacheControl(httpCaching.cacheControl(response.expirationDate()));
+    }
+
+    private byte[] toJson(GetCouponResponse response) {
+        try {
+            return objectMapper.writeValueAsBytes(response);
+        } catch (JsonProcessingException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static List<CreateCouponCommand> toCommands(List<CouponRequest> requests) {
+        // Null items are kept so that result indexes still match the submitted positions
+        return requests.stream()
+                .map(request -> request != null
+                        ? request.toCommand()
+                        : new CreateCouponCommand(null, null, null, null, false, null))
+                .toList();
     }
 }
\ No newline at end of file
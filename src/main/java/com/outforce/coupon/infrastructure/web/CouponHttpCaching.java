@@ -0,0 +1,51 @@
+package com.outforce.coupon.infrastructure.web;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+
+/**
+ * HTTP caching rules for a single coupon.
+ * The ETag is the stored version, which changes with every write readers can see, so it is
+ * strong. Clients may reuse their copy for {@code coupon.http.max-age} but never past the
+ * coupon's expiration date; after that every read is revalidated, which is cheap with the ETag.
+ */
+@Component
+class CouponHttpCaching {
+
+    private final Duration maxAge;
+
+    CouponHttpCaching(@Value("${coupon.http.max-age:60s}") Duration maxAge) {
+        this.maxAge = maxAge;
+    }
+
+    static String etag(long version) {
+        return "\"" + version + "\"";
+    }
+
+    /** Whether an {@code If-None-Match} header names the given ETag; weak comparison, as RFC 9110 asks. */
+    static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || tag.equals(etag) || tag.equals("W/" + etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    CacheControl cacheControl(OffsetDateTime expirationDate) {
+        Duration untilExpiration = Duration.between(OffsetDateTime.now(), expirationDate);
+        if (untilExpiration.compareTo(Duration.ofSeconds(1)) < 0) {
+            return CacheControl.noCache();
+        }
+        Duration fresh = untilExpiration.compareTo(maxAge) < 0 ? untilExpiration : maxAge;
+        return CacheControl.maxAge(Duration.ofSeconds(fresh.toSeconds())).mustRevalidate();
+    }
+}
@@ -4,6 +4,7 @@ import com.outforce.coupon.application.create.CreateCouponCommand;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
 
 import java.math.BigDecimal;
 import java.time.OffsetDateTime;
@@ -27,9 +28,13 @@ public record CouponRequest(
         OffsetDateTime expirationDate,
 
         @Schema(example = "false")
-        boolean published
+        boolean published,
+
+        @Positive(message = "usageLimit must be positive")
+        @Schema(example = "10000", description = "Maximum number of uses; omit for a single-use coupon")
+        Integer usageLimit
 ) {
     public CreateCouponCommand toCommand() {
-        return new CreateCouponCommand(code, description, discountValue, expirationDate, published);
+        return new CreateCouponCommand(code, description, discountValue, expirationDate, published, usageLimit);
     }
 }
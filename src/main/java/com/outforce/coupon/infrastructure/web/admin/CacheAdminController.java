@@ -0,0 +1,31 @@
+package com.outforce.coupon.infrastructure.web.admin;
+
+import com.outforce.coupon.application.get.CouponCacheStats;
+import com.outforce.coupon.application.get.CouponResponseCache;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/admin/cache")
+@Tag(name = "Admin", description = "Operações administrativas e diagnóstico")
+public class CacheAdminController {
+
+    private final CouponResponseCache couponResponseCache;
+
+    public CacheAdminController(CouponResponseCache couponResponseCache) {
+        this.couponResponseCache = couponResponseCache;
+    }
+
+    @GetMapping("/coupons")
+    @Operation(
+            summary = "Estatísticas do cache de cupons",
+            description = "Retorna os contadores de acertos, falhas e remoções do cache de leitura de cupons."
+    )
+    public ResponseEntity<CouponCacheStats> couponCacheStats() {
+        return ResponseEntity.ok(couponResponseCache.stats());
+    }
+}
@@ -0,0 +1,85 @@
+package com.outforce.coupon.infrastructure.web.admin;
+
+import com.outforce.coupon.infrastructure.diagnostics.JfrRecordingService;
+import com.outforce.coupon.infrastructure.diagnostics.JfrRecordingStatus;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/** Off by default: recordings cost disk and CPU, and dumps describe the process. */
+@RestController
+@RequestMapping("/admin/jfr")
+@ConditionalOnProperty(prefix = "coupon.diagnostics.jfr.admin", name = "enabled", havingValue = "true")
+@Tag(name = "Admin", description = "Operações administrativas e diagnóstico")
+public class JfrAdminController {
+
+    private final JfrRecordingService recordingService;
+
+    public JfrAdminController(JfrRecordingService recordingService) {
+        this.recordingService = recordingService;
+    }
+
+    @GetMapping
+    @Operation(
+            summary = "Estado da gravação JFR",
+            description = "Retorna o estado da gravação JFR sob demanda, se houver."
+    )
+    public ResponseEntity<JfrRecordingStatus> status() {
+        return ResponseEntity.of(recordingService.status());
+    }
+
+    @PostMapping("/start")
+    @Operation(
+            summary = "Iniciar gravação JFR",
+            description = "Inicia uma gravação JFR limitada em idade, tamanho e duração. Apenas uma gravação pode estar ativa."
+    )
+    public ResponseEntity<JfrRecordingStatus> start(
+            @Parameter(description = "Configuração do JFR (default ou profile)", example = "profile")
+            @RequestParam(required = false) String settings
+    ) {
+        return ResponseEntity.ok(recordingService.start(settings));
+    }
+
+    @PostMapping("/stop")
+    @Operation(
+            summary = "Parar gravação JFR",
+            description = "Para a gravação ativa. Os dados continuam disponíveis para download até a próxima gravação."
+    )
+    public ResponseEntity<JfrRecordingStatus> stop() {
+        return ResponseEntity.ok(recordingService.stop());
+    }
+
+    @GetMapping("/dump")
+    @Operation(
+            summary = "Baixar gravação JFR",
+            description = "Baixa o conteúdo da gravação (ativa ou parada) como arquivo .jfr, para abrir no JDK Mission Control."
+    )
+    public ResponseEntity<Resource> dump() throws IOException {
+        Path file = recordingService.dump();
+        long size = Files.size(file);
+        // The temp file goes away as soon as the download stream is closed
+        InputStreamResource body = new InputStreamResource(Files.newInputStream(file, StandardOpenOption.DELETE_ON_CLOSE));
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .contentLength(size)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(file.getFileName().toString()).build().toString())
+                .body(body);
+    }
+}
@@ -0,0 +1,77 @@
+package com.outforce.coupon.shared.concurrent;
+
+import com.outforce.coupon.shared.exception.ServiceBusyException;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent loads of the same key: the first caller runs the load on its own
+ * thread and every caller that arrives while it runs waits for that result instead of
+ * starting another. Waiters get the same value or the same exception as the caller that
+ * ran the load. A waiter gives up after {@code maxWait} with a {@link ServiceBusyException};
+ * the load itself keeps running for the caller that started it.
+ *
+ * <p>A key is in flight only while its load runs, so nothing is cached here and
+ * nothing is left behind when a load fails.
+ */
+public final class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final long maxWaitNanos;
+
+    public SingleFlight(Duration maxWait) {
+        this.maxWaitNanos = maxWait.toNanos();
+    }
+
+    public V execute(K key, Supplier<V> load) {
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> running = inFlight.putIfAbsent(key, flight);
+        if (running != null) {
+            return await(running);
+        }
+        try {
+            V value = load.get();
+            flight.complete(value);
+            return value;
+        } catch (RuntimeException | Error ex) {
+            flight.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    /** Lets the next caller start a fresh load even if one for the key is still running. */
+    public void forget(K key) {
+        inFlight.remove(key);
+    }
+
+    public int inFlight() {
+        return inFlight.size();
+    }
+
+    private V await(CompletableFuture<V> flight) {
+        try {
+            return flight.get(maxWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (ex.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(ex.getCause());
+        } catch (TimeoutException ex) {
+            throw new ServiceBusyException("Timed out waiting for an identical request already in progress. Try again shortly.");
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new ServiceBusyException("Interrupted while waiting for an identical request already in progress.");
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.outforce.coupon.shared.exception;
+
+import java.util.UUID;
+
+public class CouponAlreadyRedeemedException extends BusinessException {
+    public CouponAlreadyRedeemedException(UUID id) {
+        super("Coupon with id '%s' has already been redeemed.".formatted(id));
+    }
+}
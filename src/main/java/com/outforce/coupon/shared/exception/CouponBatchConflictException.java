@@ -0,0 +1,7 @@
+package com.outforce.coupon.shared.exception;
+
+public class CouponBatchConflictException extends BusinessException {
+    public CouponBatchConflictException() {
+        super("One or more coupon codes in the batch already exist.");
+    }
+}
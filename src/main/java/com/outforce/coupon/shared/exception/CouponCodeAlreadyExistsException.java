@@ -0,0 +1,7 @@
+package com.outforce.coupon.shared.exception;
+
+public class CouponCodeAlreadyExistsException extends BusinessException {
+    public CouponCodeAlreadyExistsException(String code) {
+        super("Coupon with code '%s' already exists.".formatted(code));
+    }
+}
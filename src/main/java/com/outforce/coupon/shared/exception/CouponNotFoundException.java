@@ -6,4 +6,12 @@ public class CouponNotFoundException extends RuntimeException {
     public CouponNotFoundException(UUID id) {
         super("Coupon not found with id: " + id);
     }
+
+    private CouponNotFoundException(String message) {
+        super(message);
+    }
+
+    public static CouponNotFoundException forCode(String code) {
+        return new CouponNotFoundException("Coupon not found with code: " + code);
+    }
 }
@@ -0,0 +1,9 @@
+package com.outforce.coupon.shared.exception;
+
+import java.util.UUID;
+
+public class CouponUsageLimitReachedException extends BusinessException {
+    public CouponUsageLimitReachedException(UUID id) {
+        super("Coupon with id '%s' has reached its usage limit.".formatted(id));
+    }
+}
@@ -1,30 +1,77 @@
 package com.outforce.coupon.shared.exception;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
+import java.lang.reflect.Method;
 import java.time.OffsetDateTime;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
+    private final MeterRegistry meterRegistry;
+    private final Map<Class<?>, Counter> errorCounters = new ConcurrentHashMap<>();
+
+    public GlobalExceptionHandler(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        // One counter per mapped exception type, registered before the first error happens
+        for (Method method : GlobalExceptionHandler.class.getDeclaredMethods()) {
+            ExceptionHandler handler = method.getAnnotation(ExceptionHandler.class);
+            if (handler != null) {
+                for (Class<? extends Throwable> type : handler.value()) {
+                    errorCounter(type);
+                }
+            }
+        }
+    }
+
     @ExceptionHandler(BusinessException.class)
     public ResponseEntity<Map<String, Object>> handleBusiness(BusinessException ex) {
-        return buildResponse(HttpStatus.UNPROCESSABLE_ENTITY, ex.getMessage());
+        return buildResponse(ex, HttpStatus.UNPROCESSABLE_ENTITY, ex.getMessage());
     }
 
     @ExceptionHandler(CouponAlreadyDeletedException.class)
     public ResponseEntity<Map<String, Object>> handleAlreadyDeleted(CouponAlreadyDeletedException ex) {
-        return buildResponse(HttpStatus.CONFLICT, ex.getMessage());
+        return buildResponse(ex, HttpStatus.CONFLICT, ex.getMessage());
+    }
+
+    @ExceptionHandler(CouponCodeAlreadyExistsException.class)
+    public ResponseEntity<Map<String, Object>> handleCodeAlreadyExists(CouponCodeAlreadyExistsException ex) {
+        return buildResponse(ex, HttpStatus.CONFLICT, ex.getMessage());
+    }
+
+    @ExceptionHandler(CouponAlreadyRedeemedException.class)
+    public ResponseEntity<Map<String, Object>> handleAlreadyRedeemed(CouponAlreadyRedeemedException ex) {
+        return buildResponse(ex, HttpStatus.CONFLICT, ex.getMessage());
+    }
+
+    @ExceptionHandler(CouponUsageLimitReachedException.class)
+    public ResponseEntity<Map<String, Object>> handleUsageLimitReached(CouponUsageLimitReachedException ex) {
+        return buildResponse(ex, HttpStatus.CONFLICT, ex.getMessage());
+    }
+
+    @ExceptionHandler(RecordingStateException.class)
+    public ResponseEntity<Map<String, Object>> handleRecordingState(RecordingStateException ex) {
+        return buildResponse(ex, HttpStatus.CONFLICT, ex.getMessage());
     }
 
     @ExceptionHandler(CouponNotFoundException.class)
     public ResponseEntity<Map<String, Object>> handleNotFound(CouponNotFoundException ex) {
-        return buildResponse(HttpStatus.NOT_FOUND, ex.getMessage());
+        return buildResponse(ex, HttpStatus.NOT_FOUND, ex.getMessage());
+    }
+
+    @ExceptionHandler(ServiceBusyException.class)
+    public ResponseEntity<Map<String, Object>> handleServiceBusy(ServiceBusyException ex) {
+        return buildResponse(ex, HttpStatus.SERVICE_UNAVAILABLE, ex.getMessage());
     }
 
     @ExceptionHandler(MethodArgumentNotValidException.class)
@@ -33,15 +80,33 @@ public class GlobalExceptionHandler {
             .map(e -> e.getField() + ": " + e.getDefaultMessage())
             .findFirst()
             .orElse("Validation error");
-        return buildResponse(HttpStatus.BAD_REQUEST, message);
+        return buildResponse(ex, HttpStatus.BAD_REQUEST, message);
+    }
+
+    @ExceptionHandler(HttpMessageNotReadableException.class)
+    public ResponseEntity<Map<String, Object>> handleNotReadable(HttpMessageNotReadableException ex) {
+        return buildResponse(ex, HttpStatus.BAD_REQUEST, "Malformed request body.");
+    }
+
+    @ExceptionHandler(MethodArgumentTypeMismatchException.class)
+    public ResponseEntity<Map<String, Object>> handleTypeMismatch(MethodArgumentTypeMismatchException ex) {
+        return buildResponse(ex, HttpStatus.BAD_REQUEST, "Invalid value for parameter '%s'.".formatted(ex.getName()));
     }
 
     @ExceptionHandler(Exception.class)
     public ResponseEntity<Map<String, Object>> handleGeneral(Exception ex) {
-        return buildResponse(HttpStatus.INTERNAL_SERVER_ERROR, "An unexpected error occurred.");
+        return buildResponse(ex, HttpStatus.INTERNAL_SERVER_ERROR, "An unexpected error occurred.");
+    }
+
+    private Counter errorCounter(Class<?> type) {
+        return errorCounters.computeIfAbsent(type, t -> Counter.builder("coupon.errors")
+            .description("Errors mapped to an HTTP response, by exception type")
+            .tag("exception", t.getSimpleName())
+            .register(meterRegistry));
     }
 
-    private ResponseEntity<Map<String, Object>> buildResponse(HttpStatus status, String message) {
+    private ResponseEntity<Map<String, Object>> buildResponse(Exception ex, HttpStatus status, String message) {
+        errorCounter(ex.getClass()).increment();
         return ResponseEntity.status(status).body(Map.of(
             "timestamp", OffsetDateTime.now().toString(),
             "status", status.value(),
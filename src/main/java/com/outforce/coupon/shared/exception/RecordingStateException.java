@@ -0,0 +1,7 @@
+package com.outforce.coupon.shared.exception;
+
+public class RecordingStateException extends BusinessException {
+    public RecordingStateException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,8 @@
+package com.outforce.coupon.shared.exception;
+
+/** The service is shedding load; the request may be retried later. */
+public class ServiceBusyException extends RuntimeException {
+    public ServiceBusyException(String message) {
+        super(message);
+    }
+}
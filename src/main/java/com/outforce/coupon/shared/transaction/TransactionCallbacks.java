@@ -0,0 +1,27 @@
+package com.outforce.coupon.shared.transaction;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Defers side effects on in-process state until the surrounding transaction commits,
+ * so a rollback never leaves caches or indexes pointing at rows that do not exist.
+ */
+public final class TransactionCallbacks {
+
+    private TransactionCallbacks() {}
+
+    /** Runs the action after the current transaction commits, or immediately when none is active. */
+    public static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -5,6 +5,7 @@ import com.outforce.coupon.application.create.CreateCouponResponse;
 import com.outforce.coupon.application.create.CreateCouponUseCase;
 import com.outforce.coupon.domain.CouponStatus;
 import com.outforce.coupon.shared.exception.BusinessException;
+import com.outforce.coupon.shared.exception.CouponCodeAlreadyExistsException;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -92,4 +93,19 @@ class CreateCouponUseCaseTest {
         assertThatThrownBy(() -> useCase.execute(command))
             .isInstanceOf(BusinessException.class);
     }
+
+    @Test
+    void shouldRejectDuplicateCodeAfterNormalization() {
+        useCase.execute(new CreateCouponCommand(
+            "DUP-123", "First coupon", new BigDecimal("1.0"), futureDate, false
+        ));
+
+        CreateCouponCommand duplicate = new CreateCouponCommand(
+            "dup123", "Second coupon", new BigDecimal("1.0"), futureDate, false
+        );
+
+        assertThatThrownBy(() -> useCase.execute(duplicate))
+            .isInstanceOf(CouponCodeAlreadyExistsException.class)
+            .hasMessageContaining("DUP123");
+    }
 }
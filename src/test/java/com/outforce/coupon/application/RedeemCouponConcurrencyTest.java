@@ -0,0 +1,83 @@
+package com.outforce.coupon.application;
+
+import com.outforce.coupon.application.create.CreateCouponCommand;
+import com.outforce.coupon.application.create.CreateCouponResponse;
+import com.outforce.coupon.application.create.CreateCouponUseCase;
+import com.outforce.coupon.application.redeem.RedeemCouponUseCase;
+import com.outforce.coupon.domain.CouponRepository;
+import com.outforce.coupon.shared.exception.CouponAlreadyRedeemedException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Not transactional on purpose: every redemption attempt must commit on its own
+ * for the race to be real.
+ */
+@SpringBootTest
+class RedeemCouponConcurrencyTest {
+
+    private static final int ATTEMPTS = 300;
+
+    @Autowired
+    private CreateCouponUseCase createUseCase;
+
+    @Autowired
+    private RedeemCouponUseCase redeemUseCase;
+
+    @Autowired
+    private CouponRepository repository;
+
+    @Test
+    void shouldLetExactlyOneConcurrentCallerRedeem() throws Exception {
+        CreateCouponResponse created = createUseCase.execute(new CreateCouponCommand(
+            "RACE01", "Flash sale", new BigDecimal("1.0"), OffsetDateTime.now().plusDays(1), true
+        ));
+
+        AtomicInteger winners = new AtomicInteger();
+        AtomicInteger losers = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(ATTEMPTS);
+        List<Future<?>> attempts = new ArrayList<>();
+
+        try {
+            for (int i = 0; i < ATTEMPTS; i++) {
+                attempts.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        redeemUseCase.execute(created.id());
+                        winners.incrementAndGet();
+                    } catch (CouponAlreadyRedeemedException ex) {
+                        losers.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> attempt : attempts) {
+                attempt.get(60, TimeUnit.SECONDS); // rethrows any unexpected failure
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(winners).hasValue(1);
+        assertThat(losers).hasValue(ATTEMPTS - 1);
+        assertThat(repository.findById(created.id())).get()
+            .extracting(coupon -> coupon.isRedeemed())
+            .isEqualTo(true);
+    }
+}
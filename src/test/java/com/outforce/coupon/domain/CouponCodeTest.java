@@ -60,4 +60,41 @@ class CouponCodeTest {
             .isInstanceOf(BusinessException.class)
             .hasMessageContaining("exactly 6 alphanumeric characters");
     }
+
+    @Test
+    void shouldBeEqualForInputsWithTheSameCanonicalForm() {
+        assertThat(new CouponCode("abc-123")).isEqualTo(new CouponCode("ABC123"));
+        assertThat(new CouponCode("abc-123")).hasSameHashCodeAs(new CouponCode("A.B.C 1 2 3"));
+    }
+
+    @Test
+    void shouldRoundTripThroughPackedForm() {
+        for (String raw : new String[] {"000000", "ZZZZZZ", "ABC123", "9Z0A1B"}) {
+            CouponCode code = new CouponCode(raw);
+            CouponCode unpacked = CouponCode.fromPacked(code.packed());
+            assertThat(unpacked).isEqualTo(code);
+            assertThat(unpacked.value()).isEqualTo(raw);
+        }
+    }
+
+    @Test
+    void shouldOrderPackedCodesLikeTheirStrings() {
+        assertThat(new CouponCode("ABC123").packed()).isLessThan(new CouponCode("ABC124").packed());
+        assertThat(new CouponCode("99ZZZZ").packed()).isLessThan(new CouponCode("A00000").packed());
+    }
+
+    @Test
+    void shouldRejectValuesOutsideThePackedRange() {
+        assertThatThrownBy(() -> CouponCode.fromPacked(-1))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> CouponCode.fromPacked(2_176_782_336L))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void shouldReportTheSameCountAsBeforeForNonAsciiLetters() {
+        assertThatThrownBy(() -> new CouponCode("ÁBC123"))
+            .isInstanceOf(BusinessException.class)
+            .hasMessageContaining("Got: 5");
+    }
 }
@@ -0,0 +1,55 @@
+package com.outforce.coupon.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CouponIdGeneratorTest {
+
+    private final CouponIdGenerator timeOrdered = CouponIdGenerator.timeOrdered();
+
+    @Test
+    void shouldGenerateVersion7IdsCarryingTheCurrentTime() {
+        long before = System.currentTimeMillis();
+        UUID id = new TimeOrderedCouponIdGenerator().next();
+        long after = System.currentTimeMillis();
+
+        assertThat(id.version()).isEqualTo(7);
+        assertThat(id.variant()).isEqualTo(2);
+        assertThat(id.getMostSignificantBits() >>> 16).isBetween(before, after);
+    }
+
+    @Test
+    void shouldIssueStrictlyIncreasingIdsEvenWithinOneMillisecond() {
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            ids.add(timeOrdered.next());
+        }
+
+        for (int i = 1; i < ids.size(); i++) {
+            assertThat(Long.compareUnsigned(ids.get(i).getMostSignificantBits(), ids.get(i - 1).getMostSignificantBits()))
+                .isPositive();
+        }
+    }
+
+    @Test
+    void shouldKeepRandomIdsAvailable() {
+        assertThat(CouponIdGenerator.random().next().version()).isEqualTo(4);
+    }
+
+    @Test
+    void shouldCreateCouponWithTheGivenGenerator() {
+        UUID id = UUID.randomUUID();
+
+        Coupon coupon = Coupon.create(() -> id, "ABC123", "Discount", new BigDecimal("1.0"),
+            OffsetDateTime.now().plusDays(1), false, null);
+
+        assertThat(coupon.getId()).isEqualTo(id);
+    }
+}
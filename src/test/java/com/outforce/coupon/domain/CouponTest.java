@@ -2,10 +2,12 @@ package com.outforce.coupon.domain;
 
 import com.outforce.coupon.shared.exception.BusinessException;
 import com.outforce.coupon.shared.exception.CouponAlreadyDeletedException;
+import com.outforce.coupon.shared.exception.CouponAlreadyRedeemedException;
 import org.junit.jupiter.api.Test;
 
 import java.math.BigDecimal;
 import java.time.OffsetDateTime;
+import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -84,4 +86,77 @@ class CouponTest {
             .isInstanceOf(CouponAlreadyDeletedException.class)
             .hasMessageContaining("already been deleted");
     }
+
+    @Test
+    void shouldRedeemCoupon() {
+        Coupon coupon = Coupon.create("ABC123", "desc", new BigDecimal("1.0"), futureDate, true);
+        coupon.redeem();
+
+        assertThat(coupon.isRedeemed()).isTrue();
+    }
+
+    @Test
+    void shouldNotRedeemCouponTwice() {
+        Coupon coupon = Coupon.create("ABC123", "desc", new BigDecimal("1.0"), futureDate, true);
+        coupon.redeem();
+
+        assertThatThrownBy(coupon::redeem)
+            .isInstanceOf(CouponAlreadyRedeemedException.class)
+            .hasMessageContaining("already been redeemed");
+    }
+
+    @Test
+    void shouldNotRedeemDeletedCoupon() {
+        Coupon coupon = Coupon.create("ABC123", "desc", new BigDecimal("1.0"), futureDate, true);
+        coupon.delete();
+
+        assertThatThrownBy(coupon::redeem)
+            .isInstanceOf(CouponAlreadyDeletedException.class);
+    }
+
+    @Test
+    void shouldNotRedeemUnpublishedCoupon() {
+        Coupon coupon = Coupon.create("ABC123", "desc", new BigDecimal("1.0"), futureDate, false);
+
+        assertThatThrownBy(coupon::redeem)
+            .isInstanceOf(BusinessException.class)
+            .hasMessageContaining("not published");
+        assertThat(coupon.isRedeemed()).isFalse();
+    }
+
+    @Test
+    void shouldCreateMultiUseCoupon() {
+        Coupon coupon = Coupon.create("ABC123", "desc", new BigDecimal("1.0"), futureDate, true, 10_000);
+
+        assertThat(coupon.isMultiUse()).isTrue();
+        assertThat(coupon.getUsageLimit()).isEqualTo(10_000);
+        assertThat(coupon.getUsageCount()).isZero();
+    }
+
+    @Test
+    void shouldFailWhenUsageLimitIsNotPositive() {
+        assertThatThrownBy(() -> Coupon.create("ABC123", "desc", new BigDecimal("1.0"), futureDate, false, 0))
+            .isInstanceOf(BusinessException.class)
+            .hasMessageContaining("Usage limit");
+    }
+
+    @Test
+    void shouldReportFirstRuleThatMakesCouponIneligible() {
+        OffsetDateTime now = OffsetDateTime.now();
+        Coupon published = Coupon.create("ABC123", "desc", new BigDecimal("1.0"), futureDate, true);
+        Coupon unpublished = Coupon.create("ABC123", "desc", new BigDecimal("1.0"), futureDate, false);
+        Coupon redeemed = Coupon.create("ABC123", "desc", new BigDecimal("1.0"), futureDate, true);
+        redeemed.redeem();
+        Coupon deleted = Coupon.create("ABC123", "desc", new BigDecimal("1.0"), futureDate, true);
+        deleted.delete();
+        Coupon usedUp = Coupon.reconstruct(UUID.randomUUID(), "ABC123", "desc", new BigDecimal("1.0"), futureDate,
+            true, false, 10, 10, CouponStatus.ACTIVE, null, now);
+
+        assertThat(published.eligibilityAt(now)).isEqualTo(CouponEligibility.ELIGIBLE);
+        assertThat(published.eligibilityAt(futureDate.plusSeconds(1))).isEqualTo(CouponEligibility.EXPIRED);
+        assertThat(unpublished.eligibilityAt(now)).isEqualTo(CouponEligibility.NOT_PUBLISHED);
+        assertThat(redeemed.eligibilityAt(now)).isEqualTo(CouponEligibility.REDEEMED);
+        assertThat(deleted.eligibilityAt(now)).isEqualTo(CouponEligibility.DELETED);
+        assertThat(usedUp.eligibilityAt(now)).isEqualTo(CouponEligibility.USAGE_LIMIT_REACHED);
+    }
 }
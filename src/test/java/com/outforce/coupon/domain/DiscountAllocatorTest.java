@@ -0,0 +1,131 @@
+package com.outforce.coupon.domain;
+
+import net.jqwik.api.Arbitraries;
+import net.jqwik.api.Arbitrary;
+import net.jqwik.api.Example;
+import net.jqwik.api.ForAll;
+import net.jqwik.api.Property;
+import net.jqwik.api.Provide;
+import net.jqwik.api.constraints.BigRange;
+import net.jqwik.api.constraints.LongRange;
+import net.jqwik.api.constraints.Scale;
+import net.jqwik.api.constraints.Size;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DiscountAllocatorTest {
+
+    @Property
+    void shouldMatchBigDecimalReferenceForEverydayCarts(
+            @ForAll @LongRange(max = 100_000_00L) long discount,
+            @ForAll @Size(min = 1, max = 50) List<@LongRange(max = 10_000_00L) Long> amounts,
+            @ForAll("roundingModes") RoundingMode mode) {
+        assertMatchesReference(discount, amounts, mode);
+    }
+
+    @Property
+    void shouldMatchBigDecimalReferenceWhenProductsOverflowALong(
+            @ForAll @LongRange(max = Long.MAX_VALUE / 64) long discount,
+            @ForAll @Size(min = 1, max = 50) List<@LongRange(max = Long.MAX_VALUE / 64) Long> amounts,
+            @ForAll("roundingModes") RoundingMode mode) {
+        assertMatchesReference(discount, amounts, mode);
+    }
+
+    @Property
+    void shouldSpreadExactlyTheAppliedDiscountWithinEachLine(
+            @ForAll @LongRange(max = 100_000_00L) long discount,
+            @ForAll @Size(min = 1, max = 50) List<@LongRange(max = 10_000_00L) Long> amounts,
+            @ForAll("roundingModes") RoundingMode mode) {
+        long[] lines = amounts.stream().mapToLong(Long::longValue).toArray();
+        long[] discounts = new long[lines.length];
+
+        long applied = DiscountAllocator.allocate(discount, lines, lines.length, discounts, mode);
+
+        long subtotal = 0;
+        long allocated = 0;
+        for (int i = 0; i < lines.length; i++) {
+            assertThat(discounts[i]).isBetween(0L, lines[i]);
+            subtotal += lines[i];
+            allocated += discounts[i];
+        }
+        assertThat(applied).isEqualTo(Math.min(discount, subtotal)).isEqualTo(allocated);
+    }
+
+    @Property
+    void shouldConvertToCentsLikeSetScale(
+            @ForAll @BigRange(min = "0", max = "1000000000") @Scale(6) BigDecimal amount,
+            @ForAll("roundingModes") RoundingMode mode) {
+        assertThat(DiscountAllocator.fromCents(DiscountAllocator.toCents(amount, mode)))
+            .isEqualTo(amount.setScale(DiscountAllocator.SCALE, mode));
+    }
+
+    @Example
+    void shouldDetectSubtotalOverflow() {
+        long[] lines = {Long.MAX_VALUE, 1};
+
+        assertThatThrownBy(() -> DiscountAllocator.allocate(100, lines, 2, new long[2], RoundingMode.HALF_EVEN))
+            .isInstanceOf(ArithmeticException.class);
+        assertThatThrownBy(() -> DiscountAllocator.toCents(new BigDecimal("1e30"), RoundingMode.HALF_EVEN))
+            .isInstanceOf(ArithmeticException.class);
+    }
+
+    @Example
+    void shouldRefuseToRoundWhenRoundingIsUnnecessary() {
+        long[] lines = {100, 200};
+
+        assertThatThrownBy(() -> DiscountAllocator.allocate(100, lines, 2, new long[2], RoundingMode.UNNECESSARY))
+            .isInstanceOf(ArithmeticException.class);
+    }
+
+    @Provide
+    Arbitrary<RoundingMode> roundingModes() {
+        return Arbitraries.of(RoundingMode.class).filter(mode -> mode != RoundingMode.UNNECESSARY);
+    }
+
+    private static void assertMatchesReference(long discount, List<Long> amounts, RoundingMode mode) {
+        long[] lines = amounts.stream().mapToLong(Long::longValue).toArray();
+        long[] discounts = new long[lines.length];
+
+        long applied = DiscountAllocator.allocate(discount, lines, lines.length, discounts, mode);
+
+        BigDecimal[] expected = reference(
+            DiscountAllocator.fromCents(discount),
+            amounts.stream().map(DiscountAllocator::fromCents).toList(),
+            mode
+        );
+        BigDecimal expectedApplied = BigDecimal.ZERO;
+        for (int i = 0; i < lines.length; i++) {
+            assertThat(DiscountAllocator.fromCents(discounts[i])).isEqualByComparingTo(expected[i]);
+            expectedApplied = expectedApplied.add(expected[i]);
+        }
+        assertThat(DiscountAllocator.fromCents(applied)).isEqualByComparingTo(expectedApplied);
+    }
+
+    /** The same allocation written with BigDecimal throughout, as pricing code usually is. */
+    private static BigDecimal[] reference(BigDecimal discount, List<BigDecimal> amounts, RoundingMode mode) {
+        BigDecimal subtotal = amounts.stream().reduce(BigDecimal.ZERO, BigDecimal::add);
+        BigDecimal applied = discount.min(subtotal);
+        BigDecimal[] shares = new BigDecimal[amounts.size()];
+        BigDecimal allocated = BigDecimal.ZERO;
+        for (int i = 0; i < shares.length; i++) {
+            shares[i] = applied.signum() == 0
+                ? BigDecimal.ZERO
+                : applied.multiply(amounts.get(i)).divide(subtotal, DiscountAllocator.SCALE, mode);
+            allocated = allocated.add(shares[i]);
+        }
+        BigDecimal residual = applied.subtract(allocated);
+        for (int i = 0; i < shares.length && residual.signum() != 0; i++) {
+            BigDecimal adjustment = residual.signum() > 0
+                ? residual.min(amounts.get(i).subtract(shares[i]))
+                : residual.negate().min(shares[i]).negate();
+            shares[i] = shares[i].add(adjustment);
+            residual = residual.subtract(adjustment);
+        }
+        return shares;
+    }
+}
@@ -0,0 +1,130 @@
+package com.outforce.coupon.infrastructure;
+
+import com.outforce.coupon.domain.Coupon;
+import com.outforce.coupon.domain.CouponCode;
+import com.outforce.coupon.domain.CouponKey;
+import com.outforce.coupon.infrastructure.bloom.BloomCouponExistenceFilter;
+import com.outforce.coupon.infrastructure.bloom.CouponBloomProperties;
+import com.outforce.coupon.infrastructure.offheap.OffHeapCouponRepository;
+import com.outforce.coupon.infrastructure.offheap.OffHeapStorageProperties;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BloomCouponExistenceFilterTest {
+
+    private final OffsetDateTime futureDate = OffsetDateTime.now().plusDays(10);
+    private final AtomicReference<Runnable> duringScan = new AtomicReference<>(() -> {});
+    private final OffHeapCouponRepository store = new OffHeapCouponRepository(
+        new OffHeapStorageProperties(1_024, DataSize.ofKilobytes(64), 1_024)
+    ) {
+        @Override
+        public void forEachKey(Consumer<CouponKey> action) {
+            duringScan.get().run();
+            super.forEachKey(action);
+        }
+    };
+
+    @Test
+    void shouldTreatEveryKeyAsPossibleUntilBuilt() {
+        BloomCouponExistenceFilter filter = filter(1_000, 0.01);
+
+        assertThat(filter.mightContain(UUID.randomUUID())).isTrue();
+        assertThat(filter.mightContain(new CouponCode("ZZZ999"))).isTrue();
+    }
+
+    @Test
+    void shouldKnowStoredCouponsAndRejectMostUnknownKeys() {
+        List<Coupon> stored = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            stored.add(store.save(coupon(i)));
+        }
+        BloomCouponExistenceFilter filter = filter(2_000, 0.01);
+
+        filter.rebuild();
+
+        assertThat(stored).allSatisfy(coupon -> {
+            assertThat(filter.mightContain(coupon.getId())).isTrue();
+            assertThat(filter.mightContain(coupon.getCode())).isTrue();
+        });
+        assertThat(falsePositives(filter, 100_000)).isLessThan(2_000);
+    }
+
+    @Test
+    void shouldKeepFalsePositiveRateWhenGrowingPastExpectedInsertions() {
+        BloomCouponExistenceFilter filter = filter(100, 0.01);
+        filter.rebuild();
+
+        List<Coupon> added = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            Coupon coupon = coupon(i);
+            filter.add(coupon);
+            added.add(coupon);
+        }
+
+        assertThat(added).allSatisfy(coupon -> assertThat(filter.mightContain(coupon.getId())).isTrue());
+        assertThat(falsePositives(filter, 100_000)).isLessThan(2_000);
+    }
+
+    @Test
+    void shouldPickUpCouponsStoredElsewhereOnRebuild() {
+        BloomCouponExistenceFilter filter = filter(1_000, 0.01);
+        filter.rebuild();
+        Coupon createdOnAnotherNode = store.save(coupon(1));
+
+        filter.rebuild();
+
+        assertThat(filter.mightContain(createdOnAnotherNode.getId())).isTrue();
+        assertThat(filter.mightContain(createdOnAnotherNode.getCode())).isTrue();
+    }
+
+    @Test
+    void shouldKeepCouponsAddedWhileRebuilding() {
+        BloomCouponExistenceFilter filter = filter(1_000, 0.01);
+        filter.rebuild();
+        Coupon concurrent = coupon(7);
+        duringScan.set(() -> filter.add(concurrent));
+
+        filter.rebuild();
+
+        assertThat(filter.mightContain(concurrent.getId())).isTrue();
+        assertThat(filter.mightContain(concurrent.getCode())).isTrue();
+    }
+
+    @Test
+    void shouldRejectInvalidFalsePositiveRate() {
+        assertThatThrownBy(() -> filter(1_000, 1.5)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private BloomCouponExistenceFilter filter(long expectedInsertions, double falsePositiveRate) {
+        return new BloomCouponExistenceFilter(store,
+            new CouponBloomProperties(expectedInsertions, falsePositiveRate, Duration.ofHours(1)));
+    }
+
+    private static int falsePositives(BloomCouponExistenceFilter filter, int lookups) {
+        int falsePositives = 0;
+        for (int i = 0; i < lookups; i++) {
+            if (filter.mightContain(UUID.randomUUID())) {
+                falsePositives++;
+            }
+        }
+        return falsePositives;
+    }
+
+    private Coupon coupon(int index) {
+        String code = "B" + "%5s".formatted(Integer.toString(index, 36)).replace(' ', '0').toUpperCase(Locale.ROOT);
+        return Coupon.create(code, "Bloom coupon", new BigDecimal("5.00"), futureDate, true);
+    }
+}
@@ -0,0 +1,112 @@
+package com.outforce.coupon.infrastructure;
+
+import com.outforce.coupon.application.get.CouponCacheStats;
+import com.outforce.coupon.application.get.GetCouponResponse;
+import com.outforce.coupon.domain.CouponStatus;
+import com.outforce.coupon.infrastructure.cache.CaffeineCouponResponseCache;
+import com.outforce.coupon.infrastructure.cache.CouponCacheProperties;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CaffeineCouponResponseCacheTest {
+
+    private final CaffeineCouponResponseCache cache =
+        new CaffeineCouponResponseCache(new CouponCacheProperties(100, Duration.ofMinutes(10), Duration.ofSeconds(2)));
+
+    private GetCouponResponse response(UUID id, CouponStatus status, OffsetDateTime expirationDate) {
+        return new GetCouponResponse(
+            id, "ABC123", "desc", new BigDecimal("1.0"), expirationDate, status, false, false, 1, 0, 0
+        );
+    }
+
+    @Test
+    void shouldLoadOnceAndServeSubsequentReadsFromCache() {
+        UUID id = UUID.randomUUID();
+        AtomicInteger loads = new AtomicInteger();
+
+        for (int i = 0; i < 3; i++) {
+            cache.get(id, key -> {
+                loads.incrementAndGet();
+                return response(key, CouponStatus.ACTIVE, OffsetDateTime.now().plusDays(1));
+            });
+        }
+
+        CouponCacheStats stats = cache.stats();
+        assertThat(loads).hasValue(1);
+        assertThat(stats.misses()).isEqualTo(1);
+        assertThat(stats.hits()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldReloadAfterInvalidation() {
+        UUID id = UUID.randomUUID();
+        OffsetDateTime expiration = OffsetDateTime.now().plusDays(1);
+        cache.get(id, key -> response(key, CouponStatus.ACTIVE, expiration));
+
+        cache.invalidate(id);
+
+        GetCouponResponse reloaded = cache.get(id, key -> response(key, CouponStatus.DELETED, expiration));
+        assertThat(reloaded.status()).isEqualTo(CouponStatus.DELETED);
+    }
+
+    @Test
+    void shouldDiscardLoadThatRacedWithInvalidation() {
+        UUID id = UUID.randomUUID();
+        OffsetDateTime expiration = OffsetDateTime.now().plusDays(1);
+
+        cache.get(id, key -> {
+            cache.invalidate(key); // a delete commits while the stale row is in flight
+            return response(key, CouponStatus.ACTIVE, expiration);
+        });
+
+        GetCouponResponse next = cache.get(id, key -> response(key, CouponStatus.DELETED, expiration));
+        assertThat(next.status()).isEqualTo(CouponStatus.DELETED);
+    }
+
+    @Test
+    void shouldEncodeOnceAndDropTheEncodingOnInvalidation() {
+        UUID id = UUID.randomUUID();
+        OffsetDateTime expiration = OffsetDateTime.now().plusDays(1);
+        AtomicInteger encodings = new AtomicInteger();
+        cache.get(id, key -> response(key, CouponStatus.ACTIVE, expiration));
+
+        for (int i = 0; i < 3; i++) {
+            byte[] encoded = cache.getEncoded(id, key -> response(key, CouponStatus.ACTIVE, expiration), value -> {
+                encodings.incrementAndGet();
+                return value.status().name().getBytes(StandardCharsets.UTF_8);
+            }).body();
+            assertThat(encoded).asString(StandardCharsets.UTF_8).isEqualTo("ACTIVE");
+        }
+        cache.invalidate(id);
+        byte[] reloaded = cache.getEncoded(id, key -> response(key, CouponStatus.DELETED, expiration),
+            value -> value.status().name().getBytes(StandardCharsets.UTF_8)).body();
+
+        assertThat(encodings).hasValue(1);
+        assertThat(reloaded).asString(StandardCharsets.UTF_8).isEqualTo("DELETED");
+        assertThat(cache.get(id, key -> response(key, CouponStatus.ACTIVE, expiration)).status())
+            .isEqualTo(CouponStatus.DELETED);
+    }
+
+    @Test
+    void shouldNotKeepEntriesPastCouponExpiration() {
+        UUID id = UUID.randomUUID();
+        AtomicInteger loads = new AtomicInteger();
+
+        for (int i = 0; i < 2; i++) {
+            cache.get(id, key -> {
+                loads.incrementAndGet();
+                return response(key, CouponStatus.ACTIVE, OffsetDateTime.now().minusSeconds(1));
+            });
+        }
+
+        assertThat(loads).hasValue(2);
+    }
+}
@@ -4,6 +4,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.outforce.coupon.application.create.CreateCouponCommand;
 import com.outforce.coupon.application.create.CreateCouponResponse;
 import com.outforce.coupon.application.create.CreateCouponUseCase;
+import com.outforce.coupon.domain.CouponRepository;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
@@ -14,8 +15,13 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.OffsetDateTime;
+import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -33,6 +39,9 @@ class CouponControllerIntegrationTest {
     @Autowired
     private CreateCouponUseCase createCouponUseCase;
 
+    @Autowired
+    private CouponRepository couponRepository;
+
     private final OffsetDateTime futureDate = OffsetDateTime.now().plusDays(10);
 
     @Test
@@ -132,4 +141,325 @@ class CouponControllerIntegrationTest {
         mockMvc.perform(delete("/coupon/00000000-0000-0000-0000-000000000000"))
             .andExpect(status().isNotFound());
     }
+
+    @Test
+    void shouldReturn200WhenFindingCouponByNormalizedCode() throws Exception {
+        CreateCouponResponse created = createCouponUseCase.execute(new CreateCouponCommand(
+            "FND001", "Lookup by code", new BigDecimal("1.0"), futureDate, false
+        ));
+
+        mockMvc.perform(get("/coupon/code/fnd-001"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.id").value(created.id().toString()))
+            .andExpect(jsonPath("$.code").value("FND001"));
+    }
+
+    @Test
+    void shouldReturn404WhenCodeDoesNotExist() throws Exception {
+        mockMvc.perform(get("/coupon/code/ZZZ999"))
+            .andExpect(status().isNotFound())
+            .andExpect(jsonPath("$.message").exists());
+    }
+
+    @Test
+    void shouldReturn409WhenCreatingCouponWithExistingCode() throws Exception {
+        createCouponUseCase.execute(new CreateCouponCommand(
+            "DUP001", "Original", new BigDecimal("1.0"), futureDate, false
+        ));
+
+        Map<String, Object> body = Map.of(
+            "code", "DUP-001",
+            "description", "Duplicate",
+            "discountValue", 1.0,
+            "expirationDate", futureDate.toString(),
+            "published", false
+        );
+
+        mockMvc.perform(post("/coupon")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(body)))
+            .andExpect(status().isConflict());
+    }
+
+    @Test
+    void shouldNotServeCachedCouponAfterDelete() throws Exception {
+        CreateCouponResponse created = createCouponUseCase.execute(new CreateCouponCommand(
+            "CCH001", "Cached then deleted", new BigDecimal("1.0"), futureDate, false
+        ));
+
+        mockMvc.perform(get("/coupon/" + created.id()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.status").value("ACTIVE"));
+
+        mockMvc.perform(delete("/coupon/" + created.id()))
+            .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/coupon/" + created.id()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.status").value("DELETED"));
+    }
+
+    @Test
+    void shouldAnswer304WhileTheVersionIsUnchanged() throws Exception {
+        CreateCouponResponse created = createCouponUseCase.execute(new CreateCouponCommand(
+            "ETG001", "Conditional", new BigDecimal("1.0"), futureDate, false
+        ));
+
+        String etag = mockMvc.perform(get("/coupon/" + created.id()))
+            .andExpect(status().isOk())
+            .andExpect(header().string("Cache-Control", "max-age=60, must-revalidate"))
+            .andReturn().getResponse().getHeader("ETag");
+        assertThat(etag).matches("\"\\d+\"");
+
+        mockMvc.perform(get("/coupon/" + created.id()).header("If-None-Match", etag))
+            .andExpect(status().isNotModified())
+            .andExpect(header().string("ETag", etag))
+            .andExpect(header().exists("Cache-Control"))
+            .andExpect(content().string(""));
+
+        mockMvc.perform(delete("/coupon/" + created.id()))
+            .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/coupon/" + created.id()).header("If-None-Match", etag))
+            .andExpect(status().isOk())
+            .andExpect(header().string("ETag", not(etag)))
+            .andExpect(jsonPath("$.status").value("DELETED"));
+    }
+
+    @Test
+    void shouldNotServeACachedCopyOlderThanTheCurrentVersion() throws Exception {
+        CreateCouponResponse created = createCouponUseCase.execute(new CreateCouponCommand(
+            "ETG003", "Changed behind the cache", new BigDecimal("1.0"), futureDate, false
+        ));
+        String etag = mockMvc.perform(get("/coupon/" + created.id()))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getHeader("ETag");
+
+        // Bumps the version without going through a use case that invalidates the cache
+        assertThat(couponRepository.expire(List.of(created.id()), futureDate.plusMinutes(1))).isEqualTo(1);
+
+        mockMvc.perform(get("/coupon/" + created.id()).header("If-None-Match", etag))
+            .andExpect(status().isOk())
+            .andExpect(header().string("ETag", not(etag)))
+            .andExpect(jsonPath("$.status").value("INACTIVE"));
+    }
+
+    @Test
+    void shouldNotLetClientsReuseACouponPastItsExpiration() throws Exception {
+        CreateCouponResponse created = createCouponUseCase.execute(new CreateCouponCommand(
+            "ETG002", "Expiring soon", new BigDecimal("1.0"), OffsetDateTime.now().plusSeconds(30), false
+        ));
+
+        mockMvc.perform(get("/coupon/" + created.id()))
+            .andExpect(status().isOk())
+            .andExpect(header().string("Cache-Control", containsString("must-revalidate")))
+            .andExpect(header().string("Cache-Control", not(containsString("max-age=60"))));
+    }
+
+    @Test
+    void shouldReturn404ForConditionalGetOfUnknownCoupon() throws Exception {
+        mockMvc.perform(get("/coupon/" + UUID.randomUUID()).header("If-None-Match", "\"0\""))
+            .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void shouldCreateBatchAndReportRejectedItemsIndividually() throws Exception {
+        createCouponUseCase.execute(new CreateCouponCommand(
+            "BAT000", "Already there", new BigDecimal("1.0"), futureDate, false
+        ));
+
+        List<Map<String, Object>> body = List.of(
+            Map.of("code", "BAT-001", "description", "ok", "discountValue", 1.0,
+                "expirationDate", futureDate.toString(), "published", true),
+            Map.of("code", "BAT002", "description", "past", "discountValue", 1.0,
+                "expirationDate", OffsetDateTime.now().minusDays(1).toString(), "published", false),
+            Map.of("code", "bat001", "description", "duplicate in batch", "discountValue", 1.0,
+                "expirationDate", futureDate.toString(), "published", false),
+            Map.of("code", "BAT000", "description", "duplicate in database", "discountValue", 1.0,
+                "expirationDate", futureDate.toString(), "published", false),
+            Map.of("code", "BAT003", "description", "ok", "discountValue", 2.0,
+                "expirationDate", futureDate.toString(), "published", false)
+        );
+
+        mockMvc.perform(post("/coupon/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(body)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.created").value(2))
+            .andExpect(jsonPath("$.rejected").value(3))
+            .andExpect(jsonPath("$.items[0].outcome").value("CREATED"))
+            .andExpect(jsonPath("$.items[0].coupon.code").value("BAT001"))
+            .andExpect(jsonPath("$.items[1].outcome").value("REJECTED"))
+            .andExpect(jsonPath("$.items[1].error").value(containsString("past")))
+            .andExpect(jsonPath("$.items[2].outcome").value("REJECTED"))
+            .andExpect(jsonPath("$.items[3].outcome").value("REJECTED"))
+            .andExpect(jsonPath("$.items[4].outcome").value("CREATED"));
+
+        mockMvc.perform(get("/coupon/code/BAT003"))
+            .andExpect(status().isOk());
+    }
+
+    @Test
+    void shouldCreateBatchFromNdjson() throws Exception {
+        String body = String.join("\n",
+            objectMapper.writeValueAsString(Map.of("code", "NDJ001", "description", "first",
+                "discountValue", 1.0, "expirationDate", futureDate.toString(), "published", false)),
+            objectMapper.writeValueAsString(Map.of("code", "NDJ002", "description", "second",
+                "discountValue", 0.1, "expirationDate", futureDate.toString(), "published", false))
+        );
+
+        mockMvc.perform(post("/coupon/batch")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .content(body))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.created").value(1))
+            .andExpect(jsonPath("$.items[1].outcome").value("REJECTED"));
+    }
+
+    @Test
+    void shouldReturn400WhenNdjsonIsMalformed() throws Exception {
+        mockMvc.perform(post("/coupon/batch")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .content("{\"code\": \"NDJ003\""))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void shouldRedeemCouponOnceAndReturn409Afterwards() throws Exception {
+        CreateCouponResponse created = createCouponUseCase.execute(new CreateCouponCommand(
+            "RDM001", "Single use", new BigDecimal("1.0"), futureDate, true
+        ));
+
+        mockMvc.perform(post("/coupon/" + created.id() + "/redeem"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.redeemed").value(true));
+
+        mockMvc.perform(post("/coupon/code/rdm-001/redeem"))
+            .andExpect(status().isConflict())
+            .andExpect(jsonPath("$.message").value(containsString("already been redeemed")));
+    }
+
+    @Test
+    void shouldValidateEveryCodeOnACartInOneRequest() throws Exception {
+        createCouponUseCase.execute(new CreateCouponCommand(
+            "VAL001", "Ten off", new BigDecimal("10.00"), futureDate, true
+        ));
+        createCouponUseCase.execute(new CreateCouponCommand(
+            "VAL002", "Unpublished", new BigDecimal("5.00"), futureDate, false
+        ));
+        createCouponUseCase.execute(new CreateCouponCommand(
+            "VAL003", "Fifty off", new BigDecimal("50.00"), futureDate, true
+        ));
+        Map<String, Object> cart = Map.of(
+            "codes", List.of("val-001", "VAL002", "VAL001", "ZZZ999", "bad", "VAL003"),
+            "items", List.of(Map.of("amount", 30.00), Map.of("amount", 15.00))
+        );
+
+        mockMvc.perform(post("/coupon/validate")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(cart)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.subtotal").value(45.0))
+            .andExpect(jsonPath("$.totalDiscount").value(45.0))
+            .andExpect(jsonPath("$.total").value(0.0))
+            .andExpect(jsonPath("$.coupons[0].code").value("VAL001"))
+            .andExpect(jsonPath("$.coupons[0].eligible").value(true))
+            .andExpect(jsonPath("$.coupons[0].discount").value(10.0))
+            .andExpect(jsonPath("$.coupons[1].status").value("NOT_PUBLISHED"))
+            .andExpect(jsonPath("$.coupons[2].status").value("DUPLICATE"))
+            .andExpect(jsonPath("$.coupons[3].status").value("NOT_FOUND"))
+            .andExpect(jsonPath("$.coupons[4].status").value("INVALID_CODE"))
+            .andExpect(jsonPath("$.coupons[5].status").value("ELIGIBLE"))
+            .andExpect(jsonPath("$.coupons[5].discount").value(35.0)); // capped at what is left of the subtotal
+    }
+
+    @Test
+    void shouldReturn400WhenCartItemHasNegativeAmount() throws Exception {
+        Map<String, Object> cart = Map.of(
+            "codes", List.of("VAL001"),
+            "items", List.of(Map.of("amount", -1))
+        );
+
+        mockMvc.perform(post("/coupon/validate")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(cart)))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void shouldSpreadDiscountOverCartLinesToTheCent() throws Exception {
+        createCouponUseCase.execute(new CreateCouponCommand(
+            "APL001", "Ten off", new BigDecimal("10.00"), futureDate, true
+        ));
+
+        mockMvc.perform(post("/coupon/code/apl-001/apply")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of("amounts", List.of(10.00, 10.00, 10.00)))))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.code").value("APL001"))
+            .andExpect(jsonPath("$.subtotal").value(30.0))
+            .andExpect(jsonPath("$.discount").value(10.0))
+            .andExpect(jsonPath("$.total").value(20.0))
+            .andExpect(jsonPath("$.lines[0].discount").value(3.34)) // the leftover cent goes to the first line
+            .andExpect(jsonPath("$.lines[1].discount").value(3.33))
+            .andExpect(jsonPath("$.lines[2].discount").value(3.33));
+    }
+
+    @Test
+    void shouldReturn422WhenApplyingUnpublishedCoupon() throws Exception {
+        createCouponUseCase.execute(new CreateCouponCommand(
+            "APL002", "Hidden", new BigDecimal("10.00"), futureDate, false
+        ));
+
+        mockMvc.perform(post("/coupon/code/APL002/apply")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of("amounts", List.of(10.00)))))
+            .andExpect(status().isUnprocessableEntity())
+            .andExpect(jsonPath("$.message").value(containsString("NOT_PUBLISHED")));
+    }
+
+    @Test
+    void shouldPageThroughFilteredCouponsWithCursor() throws Exception {
+        // An expiration window no other test uses keeps the listing isolated
+        OffsetDateTime window = OffsetDateTime.now().plusDays(400);
+        CreateCouponResponse first = createCouponUseCase.execute(new CreateCouponCommand(
+            "LST001", "First", new BigDecimal("1.0"), window.plusHours(1), true
+        ));
+        createCouponUseCase.execute(new CreateCouponCommand(
+            "LST002", "Unpublished", new BigDecimal("1.0"), window.plusHours(2), false
+        ));
+        CreateCouponResponse third = createCouponUseCase.execute(new CreateCouponCommand(
+            "LST003", "Third", new BigDecimal("1.0"), window.plusHours(3), true
+        ));
+
+        String firstPage = mockMvc.perform(get("/coupon")
+                .param("published", "true")
+                .param("expiresFrom", window.toInstant().toString())
+                .param("expiresTo", window.plusDays(1).toInstant().toString())
+                .param("size", "1"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.items.length()").value(1))
+            .andExpect(jsonPath("$.items[0].id").value(first.id().toString()))
+            .andExpect(jsonPath("$.nextCursor").isNotEmpty())
+            .andReturn().getResponse().getContentAsString();
+
+        String cursor = objectMapper.readTree(firstPage).get("nextCursor").asText();
+
+        mockMvc.perform(get("/coupon")
+                .param("published", "true")
+                .param("expiresFrom", window.toInstant().toString())
+                .param("expiresTo", window.plusDays(1).toInstant().toString())
+                .param("size", "1")
+                .param("cursor", cursor))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.items.length()").value(1))
+            .andExpect(jsonPath("$.items[0].id").value(third.id().toString()))
+            .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    void shouldReturn422WhenCursorIsInvalid() throws Exception {
+        mockMvc.perform(get("/coupon").param("cursor", "not-a-cursor"))
+            .andExpect(status().isUnprocessableEntity());
+    }
 }
@@ -0,0 +1,77 @@
+package com.outforce.coupon.infrastructure;
+
+import com.outforce.coupon.application.create.CreateCouponCommand;
+import com.outforce.coupon.application.create.CreateCouponUseCase;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+// Boot disables metric exporters in tests unless asked; the Prometheus scrape is part of what we check
+@AutoConfigureObservability
+@Transactional
+class CouponMetricsIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private CreateCouponUseCase createCouponUseCase;
+
+    @Test
+    void shouldRegisterTimersBeforeAnyCall() {
+        assertThat(meterRegistry.find("coupon.usecase").tag("usecase", "DeleteCouponUseCase").timers()).isNotEmpty();
+        assertThat(meterRegistry.find("coupon.repository").tag("method", "softDelete").timers()).isNotEmpty();
+        assertThat(meterRegistry.find("coupon.errors").tag("exception", "CouponNotFoundException").counter()).isNotNull();
+    }
+
+    @Test
+    void shouldTimeUseCaseAndRepositoryCalls() {
+        long before = meterRegistry.get("coupon.usecase")
+            .tags("usecase", "CreateCouponUseCase", "outcome", "success").timer().count();
+
+        createCouponUseCase.execute(new CreateCouponCommand(
+            "MTR001", "Metrics", new BigDecimal("1.0"), OffsetDateTime.now().plusDays(10), false
+        ));
+
+        assertThat(meterRegistry.get("coupon.usecase")
+            .tags("usecase", "CreateCouponUseCase", "outcome", "success").timer().count())
+            .isEqualTo(before + 1);
+        assertThat(meterRegistry.get("coupon.repository")
+            .tags("method", "save", "outcome", "success").timer().count())
+            .isPositive();
+    }
+
+    @Test
+    void shouldCountMappedErrorsAndExposePrometheusScrape() throws Exception {
+        double before = meterRegistry.get("coupon.errors").tag("exception", "CouponNotFoundException").counter().count();
+
+        mockMvc.perform(get("/coupon/" + UUID.randomUUID()))
+            .andExpect(status().isNotFound());
+
+        assertThat(meterRegistry.get("coupon.errors").tag("exception", "CouponNotFoundException").counter().count())
+            .isEqualTo(before + 1);
+        mockMvc.perform(get("/actuator/prometheus"))
+            .andExpect(status().isOk())
+            .andExpect(content().string(containsString("coupon_usecase_seconds_bucket")));
+    }
+}
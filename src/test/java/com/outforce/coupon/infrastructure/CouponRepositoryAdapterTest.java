@@ -0,0 +1,121 @@
+package com.outforce.coupon.infrastructure;
+
+import com.outforce.coupon.domain.Coupon;
+import com.outforce.coupon.domain.CouponRepository;
+import com.outforce.coupon.domain.CouponStatus;
+import com.outforce.coupon.domain.SoftDeleteResult;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:coupondb-statements;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+    "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Transactional
+class CouponRepositoryAdapterTest {
+
+    @Autowired
+    private CouponRepository repository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private Statistics statistics;
+
+    private final OffsetDateTime futureDate = OffsetDateTime.now().plusDays(10);
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void shouldInsertNewCouponWithASingleStatement() {
+        Coupon coupon = Coupon.create("STM001", "desc", new BigDecimal("1.0"), futureDate, false);
+        statistics.clear();
+
+        repository.save(coupon);
+        entityManager.flush();
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldUpdateExistingCouponWithoutLoadingItFirst() {
+        Coupon saved = repository.save(Coupon.create("STM002", "desc", new BigDecimal("1.0"), futureDate, false));
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+
+        saved.delete();
+        repository.save(saved);
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(repository.findById(saved.getId()))
+            .get()
+            .extracting(Coupon::getStatus)
+            .isEqualTo(CouponStatus.DELETED);
+    }
+
+    @Test
+    void shouldSoftDeleteWithASingleConditionalUpdate() {
+        Coupon saved = repository.save(Coupon.create("STM003", "desc", new BigDecimal("1.0"), futureDate, false));
+        entityManager.flush();
+        statistics.clear();
+
+        SoftDeleteResult result = repository.softDelete(saved.getId(), OffsetDateTime.now());
+
+        assertThat(result).isEqualTo(SoftDeleteResult.DELETED);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldTellAlreadyDeletedFromNotFound() {
+        Coupon saved = repository.save(Coupon.create("STM004", "desc", new BigDecimal("1.0"), futureDate, false));
+        repository.softDelete(saved.getId(), OffsetDateTime.now());
+
+        assertThat(repository.softDelete(saved.getId(), OffsetDateTime.now()))
+            .isEqualTo(SoftDeleteResult.ALREADY_DELETED);
+        assertThat(repository.softDelete(UUID.randomUUID(), OffsetDateTime.now()))
+            .isEqualTo(SoftDeleteResult.NOT_FOUND);
+    }
+
+    @Test
+    void shouldExpireOnlyActiveCouponsPastTheirExpirationDate() {
+        Coupon expiring = repository.save(Coupon.create("EXP001", "desc", new BigDecimal("1.0"), futureDate, false));
+        Coupon deleted = repository.save(Coupon.create("EXP002", "desc", new BigDecimal("1.0"), futureDate, false));
+        repository.softDelete(deleted.getId(), OffsetDateTime.now());
+        OffsetDateTime later = futureDate.plusDays(1);
+
+        List<UUID> expired = repository.findExpiredIds(later, 100);
+
+        assertThat(expired).contains(expiring.getId()).doesNotContain(deleted.getId());
+        assertThat(repository.expire(List.of(expiring.getId(), deleted.getId()), later)).isEqualTo(1);
+        assertThat(repository.expire(List.of(expiring.getId()), later)).isZero();
+        assertThat(repository.findById(expiring.getId()))
+            .get()
+            .extracting(Coupon::getStatus)
+            .isEqualTo(CouponStatus.INACTIVE);
+    }
+}
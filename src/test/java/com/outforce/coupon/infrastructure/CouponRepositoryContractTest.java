@@ -0,0 +1,271 @@
+package com.outforce.coupon.infrastructure;
+
+import com.outforce.coupon.domain.Coupon;
+import com.outforce.coupon.domain.CouponCode;
+import com.outforce.coupon.domain.CouponExpiry;
+import com.outforce.coupon.domain.CouponKey;
+import com.outforce.coupon.domain.CouponPageCursor;
+import com.outforce.coupon.domain.CouponRepository;
+import com.outforce.coupon.domain.CouponSearchCriteria;
+import com.outforce.coupon.domain.CouponStatus;
+import com.outforce.coupon.domain.CouponVersion;
+import com.outforce.coupon.domain.SoftDeleteResult;
+import com.outforce.coupon.shared.exception.CouponBatchConflictException;
+import com.outforce.coupon.shared.exception.CouponCodeAlreadyExistsException;
+import com.outforce.coupon.shared.exception.CouponNotFoundException;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Behaviour every {@link CouponRepository} adapter must share.
+ * Tests do not assume an empty store: codes are random and listings are scoped
+ * to an expiration window no other test uses.
+ */
+abstract class CouponRepositoryContractTest {
+
+    private static final String ALPHABET = "ABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789";
+
+    protected abstract CouponRepository repository();
+
+    private final OffsetDateTime futureDate = OffsetDateTime.now().plusDays(10);
+
+    @Test
+    void shouldFindSavedCouponByIdAndCode() {
+        Coupon saved = repository().save(newCoupon(futureDate));
+
+        assertThat(repository().findById(saved.getId()))
+            .get()
+            .satisfies(found -> {
+                assertThat(found.getCode()).isEqualTo(saved.getCode());
+                assertThat(found.getDescription()).isEqualTo("Contract coupon");
+                assertThat(found.getDiscountValue()).isEqualByComparingTo("12.50");
+                assertThat(found.getExpirationDate()).isCloseTo(futureDate, org.assertj.core.api.Assertions.within(1, java.time.temporal.ChronoUnit.MILLIS));
+                assertThat(found.getStatus()).isEqualTo(CouponStatus.ACTIVE);
+                assertThat(found.isPublished()).isTrue();
+                assertThat(found.isRedeemed()).isFalse();
+                assertThat(found.isNew()).isFalse();
+            });
+        assertThat(repository().findByCode(saved.getCode())).get().extracting(Coupon::getId).isEqualTo(saved.getId());
+        assertThat(repository().findById(UUID.randomUUID())).isEmpty();
+    }
+
+    @Test
+    void shouldRejectDuplicateIdWithoutTouchingTheStoredCoupon() {
+        Coupon saved = repository().save(newCoupon(futureDate));
+        Coupon clash = Coupon.create(saved::getId, randomCode(), "Same id", new BigDecimal("1.0"), futureDate, false, null);
+
+        assertThatThrownBy(() -> repository().save(clash))
+            .isInstanceOf(DataIntegrityViolationException.class);
+        assertThatThrownBy(() -> repository().saveAll(List.of(clash)))
+            .isInstanceOf(DataIntegrityViolationException.class);
+
+        assertThat(repository().findById(saved.getId())).get().extracting(Coupon::getCode).isEqualTo(saved.getCode());
+        assertThat(repository().findByCode(clash.getCode())).isEmpty();
+    }
+
+    @Test
+    void shouldRejectDuplicateCode() {
+        Coupon saved = repository().save(newCoupon(futureDate));
+
+        assertThatThrownBy(() -> repository().save(Coupon.create(
+                saved.getCode().value(), "Duplicate", new BigDecimal("1.0"), futureDate, false)))
+            .isInstanceOf(CouponCodeAlreadyExistsException.class);
+    }
+
+    @Test
+    void shouldUpdateStateOfExistingCouponAndRejectUnknownOnes() {
+        Coupon saved = repository().save(newCoupon(futureDate));
+
+        saved.delete();
+        repository().save(saved);
+
+        assertThat(repository().findById(saved.getId()))
+            .get()
+            .satisfies(found -> {
+                assertThat(found.getStatus()).isEqualTo(CouponStatus.DELETED);
+                assertThat(found.getDeletedAt()).isNotNull();
+            });
+
+        Coupon unknown = Coupon.reconstruct(UUID.randomUUID(), randomCode(), "Ghost", new BigDecimal("1.0"),
+            futureDate, false, false, 1, 0, CouponStatus.ACTIVE, null, OffsetDateTime.now());
+        assertThatThrownBy(() -> repository().save(unknown))
+            .isInstanceOf(CouponNotFoundException.class);
+    }
+
+    @Test
+    void shouldReportExistingCodes() {
+        Coupon saved = repository().save(newCoupon(futureDate));
+        CouponCode missing = new CouponCode(randomCode());
+
+        assertThat(repository().existsByCode(saved.getCode())).isTrue();
+        assertThat(repository().existsByCode(missing)).isFalse();
+        assertThat(repository().findExistingCodes(List.of(saved.getCode(), missing))).containsExactly(saved.getCode());
+    }
+
+    @Test
+    void shouldLoadAllCouponsHoldingTheGivenCodes() {
+        List<Coupon> saved = repository().saveAll(List.of(newCoupon(futureDate), newCoupon(futureDate)));
+        CouponCode missing = new CouponCode(randomCode());
+
+        List<Coupon> found = repository().findAllByCodes(List.of(saved.get(0).getCode(), saved.get(1).getCode(), missing));
+
+        assertThat(found).extracting(Coupon::getId)
+            .containsExactlyInAnyOrder(saved.get(0).getId(), saved.get(1).getId());
+        assertThat(repository().findAllByCodes(List.of())).isEmpty();
+    }
+
+    @Test
+    void shouldInsertBatchAsAWhole() {
+        Coupon first = newCoupon(futureDate);
+        Coupon second = newCoupon(futureDate);
+
+        assertThat(repository().saveAll(List.of(first, second))).hasSize(2);
+        assertThat(repository().findById(second.getId())).isPresent();
+
+        Coupon fresh = newCoupon(futureDate);
+        Coupon clash = Coupon.create(first.getCode().value(), "Clash", new BigDecimal("1.0"), futureDate, false);
+        assertThatThrownBy(() -> repository().saveAll(List.of(fresh, clash)))
+            .isInstanceOf(CouponBatchConflictException.class);
+        assertThat(repository().findById(fresh.getId())).isEmpty();
+    }
+
+    @Test
+    void shouldSoftDeleteOnlyOnce() {
+        Coupon saved = repository().save(newCoupon(futureDate));
+
+        assertThat(repository().softDelete(saved.getId(), OffsetDateTime.now())).isEqualTo(SoftDeleteResult.DELETED);
+        assertThat(repository().softDelete(saved.getId(), OffsetDateTime.now())).isEqualTo(SoftDeleteResult.ALREADY_DELETED);
+        assertThat(repository().softDelete(UUID.randomUUID(), OffsetDateTime.now())).isEqualTo(SoftDeleteResult.NOT_FOUND);
+    }
+
+    @Test
+    void shouldMarkRedeemedOnlyOnce() {
+        Coupon saved = repository().save(newCoupon(futureDate));
+
+        assertThat(repository().markRedeemed(saved.getId())).isTrue();
+        assertThat(repository().markRedeemed(saved.getId())).isFalse();
+        assertThat(repository().findById(saved.getId())).get().extracting(Coupon::isRedeemed).isEqualTo(true);
+    }
+
+    @Test
+    void shouldNotMarkUnpublishedCouponRedeemed() {
+        Coupon saved = repository().save(Coupon.create(randomCode(), "Hidden", new BigDecimal("1.0"), futureDate, false));
+
+        assertThat(repository().markRedeemed(saved.getId())).isFalse();
+        assertThat(repository().findById(saved.getId())).get().extracting(Coupon::isRedeemed).isEqualTo(false);
+    }
+
+    @Test
+    void shouldBumpTheVersionOnEveryChangeReadersSee() {
+        Coupon redeemed = repository().save(newCoupon(futureDate));
+        Coupon deleted = repository().save(newCoupon(futureDate));
+        long initial = repository().findVersion(redeemed.getId()).map(CouponVersion::version).orElseThrow();
+
+        assertThat(repository().findById(redeemed.getId())).get().extracting(Coupon::getVersion).isEqualTo(initial);
+        assertThat(repository().findVersion(redeemed.getId())).get()
+            .extracting(CouponVersion::expirationDate)
+            .satisfies(date -> assertThat(date).isCloseTo(futureDate, org.assertj.core.api.Assertions.within(1, java.time.temporal.ChronoUnit.MILLIS)));
+
+        repository().markRedeemed(redeemed.getId());
+        repository().markRedeemed(redeemed.getId());
+        repository().softDelete(deleted.getId(), OffsetDateTime.now());
+        repository().softDelete(deleted.getId(), OffsetDateTime.now());
+
+        assertThat(repository().findVersion(redeemed.getId())).get().extracting(CouponVersion::version).isEqualTo(initial + 1);
+        assertThat(repository().findVersion(deleted.getId())).get().extracting(CouponVersion::version).isEqualTo(initial + 1);
+        assertThat(repository().findById(deleted.getId())).get().extracting(Coupon::getVersion).isEqualTo(initial + 1);
+        assertThat(repository().findVersion(UUID.randomUUID())).isEmpty();
+    }
+
+    @Test
+    void shouldVisitTheKeyOfEveryStoredCoupon() {
+        List<Coupon> saved = repository().saveAll(List.of(newCoupon(futureDate), newCoupon(futureDate)));
+        Coupon deleted = repository().save(newCoupon(futureDate));
+        repository().softDelete(deleted.getId(), OffsetDateTime.now());
+
+        List<CouponKey> keys = new ArrayList<>();
+        repository().forEachKey(keys::add);
+
+        assertThat(keys).contains(
+            new CouponKey(saved.get(0).getId(), saved.get(0).getCode()),
+            new CouponKey(saved.get(1).getId(), saved.get(1).getCode()),
+            new CouponKey(deleted.getId(), deleted.getCode())
+        );
+        assertThat(keys).doesNotHaveDuplicates();
+    }
+
+    @Test
+    void shouldPageThroughMatchesInCreationOrder() {
+        OffsetDateTime window = uniqueWindow();
+        List<UUID> created = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            created.add(repository().save(newCoupon(window.plusMinutes(i))).getId());
+        }
+        Coupon deleted = repository().save(newCoupon(window.plusMinutes(30)));
+        repository().softDelete(deleted.getId(), OffsetDateTime.now());
+        CouponSearchCriteria criteria = new CouponSearchCriteria(CouponStatus.ACTIVE, true, false, window, window.plusHours(1));
+
+        List<Coupon> all = repository().search(criteria, null, 100);
+        List<UUID> paged = new ArrayList<>();
+        CouponPageCursor cursor = null;
+        List<Coupon> page;
+        do {
+            page = repository().search(criteria, cursor, 2);
+            page.forEach(coupon -> paged.add(coupon.getId()));
+            cursor = page.isEmpty() ? null : CouponPageCursor.after(page.getLast());
+        } while (page.size() == 2);
+
+        assertThat(all).extracting(Coupon::getId).containsExactlyInAnyOrderElementsOf(created);
+        assertThat(paged).containsExactlyElementsOf(all.stream().map(Coupon::getId).toList());
+        assertThat(all).isSortedAccordingTo((a, b) -> a.getCreatedAt().compareTo(b.getCreatedAt()));
+    }
+
+    @Test
+    void shouldExpireOnlyActiveCouponsPastExpiration() {
+        OffsetDateTime window = uniqueWindow();
+        Coupon due = repository().save(newCoupon(window));
+        Coupon later = repository().save(newCoupon(window.plusDays(1)));
+        Coupon deleted = repository().save(newCoupon(window));
+        repository().softDelete(deleted.getId(), OffsetDateTime.now());
+        OffsetDateTime now = window.plusHours(1);
+
+        assertThat(repository().findExpiredIds(now, 10_000))
+            .contains(due.getId())
+            .doesNotContain(later.getId(), deleted.getId());
+        assertThat(repository().findExpiringBetween(window.minusHours(1), window.plusDays(2), 10_000))
+            .extracting(CouponExpiry::id)
+            .contains(due.getId(), later.getId())
+            .doesNotContain(deleted.getId());
+
+        assertThat(repository().expire(List.of(due.getId(), later.getId(), deleted.getId()), now)).isEqualTo(1);
+        assertThat(repository().expire(List.of(due.getId()), now)).isZero();
+        assertThat(repository().findById(due.getId())).get().extracting(Coupon::getStatus).isEqualTo(CouponStatus.INACTIVE);
+    }
+
+    protected Coupon newCoupon(OffsetDateTime expirationDate) {
+        return Coupon.create(randomCode(), "Contract coupon", new BigDecimal("12.50"), expirationDate, true);
+    }
+
+    private static OffsetDateTime uniqueWindow() {
+        return OffsetDateTime.now().plusYears(1).plusHours(ThreadLocalRandom.current().nextInt(1, 24 * 365 * 50));
+    }
+
+    private static String randomCode() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        StringBuilder code = new StringBuilder(6);
+        for (int i = 0; i < 6; i++) {
+            code.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+        }
+        return code.toString();
+    }
+}
@@ -0,0 +1,81 @@
+package com.outforce.coupon.infrastructure;
+
+import com.outforce.coupon.application.create.CreateCouponCommand;
+import com.outforce.coupon.application.create.CreateCouponResponse;
+import com.outforce.coupon.application.create.CreateCouponUseCase;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "coupon.cache.encoded-responses=true")
+@AutoConfigureMockMvc
+@Transactional
+class EncodedResponseIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CreateCouponUseCase createCouponUseCase;
+
+    @Test
+    void shouldServeTheSameBytesJacksonWrites() throws Exception {
+        CreateCouponResponse created = createCouponUseCase.execute(new CreateCouponCommand(
+            "ENC001", "Encoded", new BigDecimal("12.345"), OffsetDateTime.now().plusDays(10), true
+        ));
+
+        // The lookup by code is not cached and still goes through the message converter
+        byte[] viaConverter = body(get("/coupon/code/ENC001"));
+        byte[] onMiss = body(get("/coupon/" + created.id()));
+        byte[] onHit = body(get("/coupon/" + created.id()));
+
+        assertThat(onMiss).isEqualTo(viaConverter);
+        assertThat(onHit).isEqualTo(viaConverter);
+    }
+
+    @Test
+    void shouldDropTheEncodedBodyWhenTheCouponIsDeleted() throws Exception {
+        CreateCouponResponse created = createCouponUseCase.execute(new CreateCouponCommand(
+            "ENC002", "Encoded", new BigDecimal("1.0"), OffsetDateTime.now().plusDays(10), false
+        ));
+        mockMvc.perform(get("/coupon/" + created.id()))
+            .andExpect(jsonPath("$.status").value("ACTIVE"));
+
+        mockMvc.perform(delete("/coupon/" + created.id()))
+            .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/coupon/" + created.id()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.status").value("DELETED"));
+    }
+
+    @Test
+    void shouldStillAnswer404ForUnknownIds() throws Exception {
+        mockMvc.perform(get("/coupon/" + UUID.randomUUID()))
+            .andExpect(status().isNotFound())
+            .andExpect(jsonPath("$.message").exists());
+    }
+
+    private byte[] body(RequestBuilder request) throws Exception {
+        return mockMvc.perform(request)
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+            .andReturn().getResponse().getContentAsByteArray();
+    }
+}
@@ -0,0 +1,149 @@
+package com.outforce.coupon.infrastructure;
+
+import com.outforce.coupon.domain.Coupon;
+import com.outforce.coupon.domain.CouponCode;
+import com.outforce.coupon.domain.CouponRepository;
+import com.outforce.coupon.domain.CouponStatus;
+import com.outforce.coupon.infrastructure.eventlog.Durability;
+import com.outforce.coupon.infrastructure.eventlog.EventLogCouponRepository;
+import com.outforce.coupon.infrastructure.eventlog.EventLogProperties;
+import com.outforce.coupon.infrastructure.offheap.OffHeapStorageProperties;
+import com.outforce.coupon.infrastructure.usage.UsageReconciliation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EventLogCouponRepositoryTest extends CouponRepositoryContractTest {
+
+    @TempDir
+    private Path directory;
+
+    private EventLogCouponRepository repository;
+
+    private final OffsetDateTime futureDate = OffsetDateTime.now().plusDays(10);
+
+    @BeforeEach
+    void open() {
+        repository = open(Durability.GROUP);
+    }
+
+    @AfterEach
+    void close() {
+        repository.close();
+    }
+
+    @Override
+    protected CouponRepository repository() {
+        return repository;
+    }
+
+    @Test
+    void shouldRecoverEveryKindOfChangeAfterRestart() {
+        Coupon deleted = repository.save(coupon("DEL001"));
+        Coupon redeemed = repository.save(coupon("RED001"));
+        Coupon multiUse = repository.save(Coupon.create("USE001", "Multi use", new BigDecimal("1.0"), futureDate, true, 10));
+        repository.saveAll(List.of(coupon("BAT001"), coupon("BAT002")));
+        repository.softDelete(deleted.getId(), OffsetDateTime.now());
+        repository.markRedeemed(redeemed.getId());
+        repository.lease(multiUse.getId(), 4);
+        repository.reconcile(List.of(new UsageReconciliation(multiUse.getId(), 2, 1)));
+
+        reopen(Durability.GROUP);
+
+        assertThat(repository.findById(deleted.getId())).get().extracting(Coupon::getStatus).isEqualTo(CouponStatus.DELETED);
+        assertThat(repository.findById(redeemed.getId())).get().extracting(Coupon::isRedeemed).isEqualTo(true);
+        assertThat(repository.findById(multiUse.getId())).get().extracting(Coupon::getUsageCount).isEqualTo(2);
+        assertThat(repository.lease(multiUse.getId(), 100)).isEqualTo(7);
+        assertThat(repository.findByCode(new CouponCode("BAT002"))).isPresent();
+    }
+
+    @Test
+    void shouldReplayOnlyTheTailAfterASnapshot() throws IOException {
+        for (int i = 0; i < 100; i++) {
+            repository.save(coupon("SNP%03d".formatted(i)));
+        }
+        long segmentsBefore = segments().count();
+
+        repository.snapshot();
+        Coupon afterSnapshot = repository.save(coupon("TAIL01"));
+        repository.softDelete(repository.findByCode(new CouponCode("SNP000")).orElseThrow().getId(), OffsetDateTime.now());
+
+        assertThat(segments().count()).isLessThan(segmentsBefore);
+
+        reopen(Durability.GROUP);
+
+        assertThat(repository.findByCode(new CouponCode("SNP099"))).isPresent();
+        assertThat(repository.findById(afterSnapshot.getId())).isPresent();
+        assertThat(repository.findByCode(new CouponCode("SNP000"))).get().extracting(Coupon::getStatus).isEqualTo(CouponStatus.DELETED);
+    }
+
+    @Test
+    void shouldDropATornRecordAndKeepAppendingAfterIt() throws IOException {
+        repository.save(coupon("KEEP01"));
+        repository.save(coupon("TORN01"));
+        repository.close();
+
+        corruptLastRecord();
+        repository = open(Durability.SYNC);
+
+        assertThat(repository.findByCode(new CouponCode("KEEP01"))).isPresent();
+        assertThat(repository.findByCode(new CouponCode("TORN01"))).isEmpty();
+
+        repository.save(coupon("NEXT01"));
+        reopen(Durability.ASYNC);
+
+        assertThat(repository.findByCode(new CouponCode("NEXT01"))).isPresent();
+    }
+
+    private EventLogCouponRepository open(Durability durability) {
+        return new EventLogCouponRepository(
+            // Small segments so a handful of coupons already spans several files
+            new EventLogProperties(directory, DataSize.ofKilobytes(4), durability, Duration.ofMillis(5), 1_000),
+            new OffHeapStorageProperties(64, DataSize.ofKilobytes(4), 16)
+        );
+    }
+
+    private void reopen(Durability durability) {
+        repository.close();
+        repository = open(durability);
+    }
+
+    private Coupon coupon(String code) {
+        return Coupon.create(code, "Logged coupon", new BigDecimal("5.0"), futureDate, true);
+    }
+
+    private Stream<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.toString().endsWith(".log")).sorted().toList().stream();
+        }
+    }
+
+    /** Flips a payload byte of the newest record, as a write torn by a crash would leave it. */
+    private void corruptLastRecord() throws IOException {
+        Path last = segments().reduce((first, second) -> second).orElseThrow();
+        byte[] bytes = Files.readAllBytes(last);
+        int record = 0;
+        int next = 0;
+        int length;
+        while ((length = ByteBuffer.wrap(bytes, next, Integer.BYTES).getInt()) > 0) {
+            record = next;
+            next += 16 + length;
+        }
+        bytes[record + 20] ^= 0x55;
+        Files.write(last, bytes);
+    }
+}
@@ -0,0 +1,71 @@
+package com.outforce.coupon.infrastructure;
+
+import com.outforce.coupon.infrastructure.expiration.ExpirationTimingWheel;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ExpirationTimingWheelTest {
+
+    private static final long START = 1_000_000L;
+
+    private final ExpirationTimingWheel wheel = new ExpirationTimingWheel(100, 10, 1_000, START);
+
+    @Test
+    void shouldReleaseCouponOnlyOnceItsDeadlineHasPassed() {
+        UUID id = UUID.randomUUID();
+        wheel.schedule(id, START + 250);
+
+        assertThat(wheel.advance(START + 200)).isEmpty();
+        assertThat(wheel.advance(START + 299)).isEmpty();
+        assertThat(wheel.advance(START + 300)).containsExactly(id);
+        assertThat(wheel.advance(START + 400)).isEmpty();
+    }
+
+    @Test
+    void shouldSpreadCouponsOverTheTicksTheyFallDueIn() {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        wheel.schedule(first, START + 100);
+        wheel.schedule(second, START + 500);
+
+        assertThat(wheel.advance(START + 100)).containsExactly(first);
+        assertThat(wheel.advance(START + 500)).containsExactly(second);
+    }
+
+    @Test
+    void shouldReleaseAlreadyExpiredCouponsOnNextAdvance() {
+        UUID id = UUID.randomUUID();
+
+        assertThat(wheel.schedule(id, START - 5_000)).isTrue();
+        assertThat(wheel.advance(START)).containsExactly(id);
+    }
+
+    @Test
+    void shouldRejectDeadlinesBeyondTheHorizon() {
+        assertThat(wheel.schedule(UUID.randomUUID(), START + wheel.horizonMillis())).isFalse();
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void shouldReleaseEverythingWhenTimeJumpsPastAFullTurn() {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        wheel.schedule(first, START + 100);
+        wheel.schedule(second, START + 900);
+
+        assertThat(wheel.advance(START + 50_000)).containsExactlyInAnyOrder(first, second);
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void shouldIgnoreDuplicateSchedules() {
+        UUID id = UUID.randomUUID();
+        wheel.schedule(id, START + 200);
+        wheel.schedule(id, START + 200);
+
+        assertThat(wheel.advance(START + 200)).containsExactly(id);
+    }
+}
@@ -0,0 +1,126 @@
+package com.outforce.coupon.infrastructure;
+
+import com.outforce.coupon.domain.Coupon;
+import com.outforce.coupon.infrastructure.groupcommit.GroupCommitCouponInsertQueue;
+import com.outforce.coupon.infrastructure.groupcommit.GroupCommitProperties;
+import com.outforce.coupon.infrastructure.offheap.OffHeapCouponRepository;
+import com.outforce.coupon.infrastructure.offheap.OffHeapStorageProperties;
+import com.outforce.coupon.shared.exception.CouponCodeAlreadyExistsException;
+import com.outforce.coupon.shared.exception.ServiceBusyException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class GroupCommitCouponInsertQueueTest {
+
+    private final CountingStore store = new CountingStore();
+    private final ExecutorService executor = Executors.newFixedThreadPool(32);
+    private final OffsetDateTime futureDate = OffsetDateTime.now().plusDays(10);
+    private GroupCommitCouponInsertQueue queue;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        store.release.countDown();
+        executor.shutdownNow();
+        queue.close();
+    }
+
+    @Test
+    void shouldCommitConcurrentCreatesTogether() throws Exception {
+        queue = new GroupCommitCouponInsertQueue(store, properties(1_000));
+        CountDownLatch start = new CountDownLatch(1);
+        store.release.countDown();
+        List<Future<Coupon>> results = new ArrayList<>();
+
+        for (int i = 0; i < 320; i++) {
+            String code = "GC%04d".formatted(i);
+            results.add(executor.submit(() -> {
+                start.await();
+                return queue.insert(coupon(code));
+            }));
+        }
+        start.countDown();
+
+        for (Future<Coupon> result : results) {
+            assertThat(store.findById(result.get(30, TimeUnit.SECONDS).getId())).isPresent();
+        }
+        assertThat(store.batches.get()).isLessThan(320);
+    }
+
+    @Test
+    void shouldFailOnlyTheLaterCallerWhenTwoShareACode() throws Exception {
+        queue = new GroupCommitCouponInsertQueue(store, properties(1_000));
+        Future<Coupon> blocker = executor.submit(() -> queue.insert(coupon("FIRST1")));
+        store.entered.await(5, TimeUnit.SECONDS);
+
+        Future<Coupon> winner = executor.submit(() -> queue.insert(coupon("SAME01")));
+        Thread.sleep(50);
+        Future<Coupon> loser = executor.submit(() -> queue.insert(coupon("SAME01")));
+        Thread.sleep(50);
+        store.release.countDown();
+
+        assertThat(blocker.get(5, TimeUnit.SECONDS).getCode().value()).isEqualTo("FIRST1");
+        assertThat(winner.get(5, TimeUnit.SECONDS).getCode().value()).isEqualTo("SAME01");
+        assertThatThrownBy(() -> loser.get(5, TimeUnit.SECONDS))
+            .hasCauseInstanceOf(CouponCodeAlreadyExistsException.class);
+    }
+
+    @Test
+    void shouldTurnCallersAwayWhenTheQueueIsFull() throws Exception {
+        queue = new GroupCommitCouponInsertQueue(store, properties(1));
+        executor.submit(() -> queue.insert(coupon("BUSY01")));
+        store.entered.await(5, TimeUnit.SECONDS);
+        executor.submit(() -> queue.insert(coupon("BUSY02")));
+        Thread.sleep(50);
+
+        assertThatThrownBy(() -> queue.insert(coupon("BUSY03")))
+            .isInstanceOf(ServiceBusyException.class);
+    }
+
+    private Coupon coupon(String code) {
+        return Coupon.create(code, "Group commit", new BigDecimal("1.0"), futureDate, true);
+    }
+
+    private static GroupCommitProperties properties(int queueCapacity) {
+        return new GroupCommitProperties(64, Duration.ofMillis(2), queueCapacity, Duration.ofMillis(20));
+    }
+
+    /** Counts batches and can hold the writer inside its first commit. */
+    private static class CountingStore extends OffHeapCouponRepository {
+
+        final AtomicInteger batches = new AtomicInteger();
+        final CountDownLatch entered = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+
+        CountingStore() {
+            super(new OffHeapStorageProperties(1_024, DataSize.ofKilobytes(64), 1_024));
+        }
+
+        @Override
+        public List<Coupon> saveAll(List<Coupon> coupons) {
+            entered.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            batches.incrementAndGet();
+            return super.saveAll(coupons);
+        }
+    }
+}
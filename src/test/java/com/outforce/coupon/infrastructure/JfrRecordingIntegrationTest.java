@@ -0,0 +1,78 @@
+package com.outforce.coupon.infrastructure;
+
+import com.outforce.coupon.application.create.CreateCouponCommand;
+import com.outforce.coupon.application.create.CreateCouponUseCase;
+import com.outforce.coupon.infrastructure.diagnostics.JfrRecordingService;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "coupon.diagnostics.jfr.admin.enabled=true")
+@AutoConfigureMockMvc
+@Transactional
+class JfrRecordingIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JfrRecordingService recordingService;
+
+    @Autowired
+    private CreateCouponUseCase createCouponUseCase;
+
+    @Test
+    void shouldRecordCouponEventsAndRefuseASecondRecording() throws Exception {
+        mockMvc.perform(post("/admin/jfr/start").param("settings", "../../secrets"))
+            .andExpect(status().isUnprocessableEntity());
+        mockMvc.perform(post("/admin/jfr/start").param("settings", "default"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.state").value("RUNNING"));
+        mockMvc.perform(post("/admin/jfr/start"))
+            .andExpect(status().isConflict());
+
+        createCouponUseCase.execute(new CreateCouponCommand(
+            "JFR001", "Recorded", new BigDecimal("1.0"), OffsetDateTime.now().plusDays(10), false
+        ));
+
+        mockMvc.perform(post("/admin/jfr/stop"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.state").value("STOPPED"));
+
+        Path dump = recordingService.dump();
+        try {
+            List<RecordedEvent> events = RecordingFile.readAllEvents(dump);
+            assertThat(events)
+                .filteredOn(e -> e.getEventType().getName().equals("com.outforce.coupon.Operation"))
+                .anySatisfy(e -> {
+                    assertThat(e.getString("operation")).isEqualTo("CreateCouponUseCase.execute");
+                    assertThat(e.getString("code")).isEqualTo("JFR001");
+                    assertThat(e.getString("outcome")).isEqualTo("success");
+                });
+            assertThat(events)
+                .filteredOn(e -> e.getEventType().getName().equals("com.outforce.coupon.Repository"))
+                .anySatisfy(e -> assertThat(e.getString("method")).isEqualTo("save"));
+            assertThat(events)
+                .extracting(e -> e.getEventType().getName())
+                .doesNotContain("jdk.InitialEnvironmentVariable", "jdk.InitialSystemProperty", "jdk.JVMInformation");
+        } finally {
+            Files.deleteIfExists(dump);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.outforce.coupon.infrastructure;
+
+import com.outforce.coupon.domain.CouponRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+// Not transactional: conflicts must surface the way they do in production, at commit
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:coupondb-contract;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE")
+class JpaCouponRepositoryContractTest extends CouponRepositoryContractTest {
+
+    @Autowired
+    private CouponRepository repository;
+
+    @Override
+    protected CouponRepository repository() {
+        return repository;
+    }
+}
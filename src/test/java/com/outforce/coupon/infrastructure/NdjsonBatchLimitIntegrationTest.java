@@ -0,0 +1,47 @@
+package com.outforce.coupon.infrastructure;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "coupon.batch.max-items=2")
+@AutoConfigureMockMvc
+@Transactional
+class NdjsonBatchLimitIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void shouldRejectAnOversizedNdjsonBatchBeforeReadingTheRest() throws Exception {
+        String expiration = OffsetDateTime.now().plusDays(10).toString();
+        String line = "{\"code\": \"%s\", \"description\": \"d\", \"discountValue\": 1.0, \"expirationDate\": \"%s\", \"published\": false}";
+        // Malformed past the limit: reading the whole body first would answer 400
+        String body = String.join("\n",
+            line.formatted("LIM001", expiration),
+            line.formatted("LIM002", expiration),
+            line.formatted("LIM003", expiration),
+            "{\"code\": ");
+
+        mockMvc.perform(post("/coupon/batch")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .content(body))
+            .andExpect(status().isUnprocessableEntity())
+            .andExpect(jsonPath("$.message").value(containsString("more than 2")));
+
+        mockMvc.perform(get("/coupon/code/LIM001"))
+            .andExpect(status().isNotFound());
+    }
+}
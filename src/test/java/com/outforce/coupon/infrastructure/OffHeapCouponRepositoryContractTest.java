@@ -0,0 +1,52 @@
+package com.outforce.coupon.infrastructure;
+
+import com.outforce.coupon.domain.Coupon;
+import com.outforce.coupon.domain.CouponRepository;
+import com.outforce.coupon.infrastructure.offheap.OffHeapCouponRepository;
+import com.outforce.coupon.infrastructure.offheap.OffHeapStorageProperties;
+import com.outforce.coupon.infrastructure.usage.UsageReconciliation;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OffHeapCouponRepositoryContractTest extends CouponRepositoryContractTest {
+
+    // Tiny chunks and index so the tests also cross chunk and resize boundaries
+    private final OffHeapCouponRepository repository = new OffHeapCouponRepository(
+        new OffHeapStorageProperties(4, DataSize.ofBytes(64), 4)
+    );
+
+    @Override
+    protected CouponRepository repository() {
+        return repository;
+    }
+
+    @Test
+    void shouldNeverLeaseMoreThanTheUsageLimit() {
+        Coupon coupon = repository.save(Coupon.create("LEASE1", "Multi use", new BigDecimal("1.0"),
+            OffsetDateTime.now().plusDays(1), true, 10));
+
+        assertThat(repository.lease(coupon.getId(), 6)).isEqualTo(6);
+        assertThat(repository.lease(coupon.getId(), 6)).isEqualTo(4);
+        assertThat(repository.lease(coupon.getId(), 6)).isZero();
+
+        repository.reconcile(List.of(new UsageReconciliation(coupon.getId(), 3, 7)));
+
+        assertThat(repository.findById(coupon.getId())).get().extracting(Coupon::getUsageCount).isEqualTo(3);
+        assertThat(repository.lease(coupon.getId(), 10)).isEqualTo(7);
+    }
+
+    @Test
+    void shouldKeepLongDescriptionsIntact() {
+        String description = "x".repeat(1_000) + " ünïcødé";
+        Coupon coupon = repository.save(Coupon.create("LONG01", description, new BigDecimal("1.0"),
+            OffsetDateTime.now().plusDays(1), false));
+
+        assertThat(repository.findById(coupon.getId())).get().extracting(Coupon::getDescription).isEqualTo(description);
+    }
+}
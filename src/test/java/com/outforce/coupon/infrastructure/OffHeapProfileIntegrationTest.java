@@ -0,0 +1,65 @@
+package com.outforce.coupon.infrastructure;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.outforce.coupon.domain.CouponRepository;
+import com.outforce.coupon.infrastructure.offheap.OffHeapCouponRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.OffsetDateTime;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("offheap")
+class OffHeapProfileIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CouponRepository repository;
+
+    @Test
+    void shouldServeCouponsFromOffHeapStore() throws Exception {
+        assertThat(repository).isInstanceOf(OffHeapCouponRepository.class);
+
+        Map<String, Object> body = Map.of(
+            "code", "OFF-H01",
+            "description", "Off-heap coupon",
+            "discountValue", 2.5,
+            "expirationDate", OffsetDateTime.now().plusDays(5).toString(),
+            "published", true
+        );
+
+        String response = mockMvc.perform(post("/coupon")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(body)))
+            .andExpect(status().isCreated())
+            .andReturn().getResponse().getContentAsString();
+        String id = objectMapper.readTree(response).get("id").asText();
+
+        mockMvc.perform(get("/coupon/{id}", id))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.code").value("OFFH01"))
+            .andExpect(jsonPath("$.discountValue").value(2.5));
+
+        mockMvc.perform(delete("/coupon/{id}", id))
+            .andExpect(status().isNoContent());
+
+        mockMvc.perform(delete("/coupon/{id}", id))
+            .andExpect(status().isConflict());
+    }
+}
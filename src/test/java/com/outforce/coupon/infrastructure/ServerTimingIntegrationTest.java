@@ -0,0 +1,58 @@
+package com.outforce.coupon.infrastructure;
+
+import com.outforce.coupon.application.create.CreateCouponCommand;
+import com.outforce.coupon.application.create.CreateCouponResponse;
+import com.outforce.coupon.application.create.CreateCouponUseCase;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "coupon.diagnostics.server-timing.enabled=true")
+@AutoConfigureMockMvc
+@Transactional
+class ServerTimingIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CreateCouponUseCase createCouponUseCase;
+
+    @Test
+    void shouldReportPhaseTimingsWithoutAlteringTheBody() throws Exception {
+        CreateCouponResponse created = createCouponUseCase.execute(new CreateCouponCommand(
+            "TMG001", "Timed", new BigDecimal("1.0"), OffsetDateTime.now().plusDays(10), false
+        ));
+
+        mockMvc.perform(get("/coupon/" + created.id()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.code").value("TMG001"))
+            .andExpect(header().string("Server-Timing", allOf(
+                containsString("bind;dur="),
+                containsString("usecase;dur="),
+                containsString("repository;dur="),
+                containsString("serialize;dur="),
+                containsString("total;dur=")
+            )));
+    }
+
+    @Test
+    void shouldTimeErrorResponsesToo() throws Exception {
+        mockMvc.perform(get("/coupon/code/NOPE99"))
+            .andExpect(status().isNotFound())
+            .andExpect(header().exists("Server-Timing"));
+    }
+}
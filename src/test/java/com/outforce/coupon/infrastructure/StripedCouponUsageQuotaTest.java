@@ -0,0 +1,166 @@
+package com.outforce.coupon.infrastructure;
+
+import com.outforce.coupon.application.get.CouponCacheStats;
+import com.outforce.coupon.application.get.CouponResponseCache;
+import com.outforce.coupon.application.get.EncodedCouponResponse;
+import com.outforce.coupon.application.get.GetCouponResponse;
+import com.outforce.coupon.infrastructure.usage.CouponUsageLeaseStore;
+import com.outforce.coupon.infrastructure.usage.CouponUsageProperties;
+import com.outforce.coupon.infrastructure.usage.StripedCouponUsageQuota;
+import com.outforce.coupon.infrastructure.usage.UsageReconciliation;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StripedCouponUsageQuotaTest {
+
+    private final UUID couponId = UUID.randomUUID();
+    private final RecordingCache cache = new RecordingCache();
+
+    @Test
+    void shouldNeverHandOutMoreUsesThanTheLimitUnderContention() throws Exception {
+        InMemoryLeaseStore store = new InMemoryLeaseStore(1_000);
+        StripedCouponUsageQuota quota = new StripedCouponUsageQuota(store, cache, properties(7));
+        AtomicInteger granted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(32);
+        List<Future<?>> workers = new ArrayList<>();
+
+        try {
+            for (int t = 0; t < 32; t++) {
+                workers.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < 100; i++) {
+                        if (quota.tryAcquire(couponId)) {
+                            granted.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> worker : workers) {
+                worker.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        quota.close();
+
+        assertThat(granted).hasValue(1_000);
+        assertThat(store.leased).isEqualTo(1_000);
+        assertThat(store.count).isEqualTo(1_000);
+    }
+
+    @Test
+    void shouldReconcileConsumedUsesAndReturnUnusedLeasesOnClose() {
+        InMemoryLeaseStore store = new InMemoryLeaseStore(500);
+        StripedCouponUsageQuota quota = new StripedCouponUsageQuota(store, cache, properties(100));
+
+        for (int i = 0; i < 10; i++) {
+            assertThat(quota.tryAcquire(couponId)).isTrue();
+        }
+        quota.reconcile();
+
+        assertThat(store.count).isEqualTo(10);
+        assertThat(store.leased).isEqualTo(100);
+        assertThat(cache.invalidated).containsExactly(couponId);
+
+        quota.close();
+
+        assertThat(store.leased).isEqualTo(10);
+        assertThat(quota.tryAcquire(couponId)).isFalse();
+    }
+
+    @Test
+    void shouldReturnAndDropLeasesOfCouponsNoLongerUsed() {
+        InMemoryLeaseStore store = new InMemoryLeaseStore(500);
+        StripedCouponUsageQuota quota = new StripedCouponUsageQuota(
+            store, cache, new CouponUsageProperties(100, 4, Duration.ofSeconds(5), Duration.ZERO));
+
+        assertThat(quota.tryAcquire(couponId)).isTrue();
+        quota.reconcile();
+        assertThat(store.count).isEqualTo(1);
+        assertThat(store.leased).isEqualTo(100);
+
+        // Nothing consumed since the last round: the unused uses go back to the store
+        quota.reconcile();
+        assertThat(store.leased).isEqualTo(1);
+
+        // A later redemption leases a fresh block
+        assertThat(quota.tryAcquire(couponId)).isTrue();
+        assertThat(store.leased).isEqualTo(101);
+        quota.close();
+        assertThat(store.count).isEqualTo(2);
+        assertThat(store.leased).isEqualTo(2);
+    }
+
+    private static CouponUsageProperties properties(int leaseSize) {
+        return new CouponUsageProperties(leaseSize, 4, Duration.ofSeconds(5), Duration.ofMinutes(1));
+    }
+
+    private static final class RecordingCache implements CouponResponseCache {
+
+        private final List<UUID> invalidated = new ArrayList<>();
+
+        @Override
+        public GetCouponResponse get(UUID id, Function<UUID, GetCouponResponse> loader) {
+            return loader.apply(id);
+        }
+
+        @Override
+        public EncodedCouponResponse getEncoded(UUID id, Function<UUID, GetCouponResponse> loader,
+                                                Function<GetCouponResponse, byte[]> encoder) {
+            GetCouponResponse response = loader.apply(id);
+            return new EncodedCouponResponse(response, encoder.apply(response));
+        }
+
+        @Override
+        public synchronized void invalidate(UUID id) {
+            invalidated.add(id);
+        }
+
+        @Override
+        public CouponCacheStats stats() {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    private static final class InMemoryLeaseStore implements CouponUsageLeaseStore {
+
+        private final int limit;
+        private int leased;
+        private int count;
+
+        private InMemoryLeaseStore(int limit) {
+            this.limit = limit;
+        }
+
+        @Override
+        public synchronized int lease(UUID couponId, int requested) {
+            int amount = Math.min(requested, limit - leased);
+            leased += amount;
+            return amount;
+        }
+
+        @Override
+        public synchronized void reconcile(List<UsageReconciliation> reconciliations) {
+            for (UsageReconciliation reconciliation : reconciliations) {
+                count += reconciliation.consumed();
+                leased -= reconciliation.released();
+            }
+        }
+    }
+}
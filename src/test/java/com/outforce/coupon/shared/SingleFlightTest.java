@@ -0,0 +1,150 @@
+package com.outforce.coupon.shared;
+
+import com.outforce.coupon.shared.concurrent.SingleFlight;
+import com.outforce.coupon.shared.exception.CouponNotFoundException;
+import com.outforce.coupon.shared.exception.ServiceBusyException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightTest {
+
+    private static final int CALLERS = 32;
+
+    private final SingleFlight<String, String> flights = new SingleFlight<>(Duration.ofSeconds(5));
+
+    @Test
+    void shouldRunOneLoadForConcurrentCallersOfTheSameKey() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<Future<String>> results = callConcurrently(() -> flights.execute("KEY", () -> {
+            loads.incrementAndGet();
+            await(release);
+            return "value";
+        }), release);
+
+        for (Future<String> result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("value");
+        }
+        assertThat(loads).hasValue(1);
+        assertThat(flights.inFlight()).isZero();
+    }
+
+    @Test
+    void shouldGiveEveryWaiterTheSameFailure() throws Exception {
+        CouponNotFoundException notFound = new CouponNotFoundException(UUID.randomUUID());
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<Future<String>> results = callConcurrently(() -> flights.execute("KEY", () -> {
+            await(release);
+            throw notFound;
+        }), release);
+
+        for (Future<String> result : results) {
+            assertThatThrownBy(() -> result.get(5, TimeUnit.SECONDS)).hasCause(notFound);
+        }
+        assertThat(flights.inFlight()).isZero();
+    }
+
+    @Test
+    void shouldLoadDifferentKeysIndependently() {
+        AtomicInteger loads = new AtomicInteger();
+
+        flights.execute("A", () -> "a" + loads.incrementAndGet());
+        flights.execute("B", () -> "b" + loads.incrementAndGet());
+        flights.execute("A", () -> "a" + loads.incrementAndGet());
+
+        assertThat(loads).hasValue(3);
+        assertThat(flights.inFlight()).isZero();
+    }
+
+    @Test
+    void shouldStopWaitingAfterTimeoutWhileTheLoadCarriesOn() throws Exception {
+        SingleFlight<String, String> impatient = new SingleFlight<>(Duration.ofMillis(50));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<String> leader = executor.submit(() -> impatient.execute("KEY", () -> {
+                started.countDown();
+                await(release);
+                return "value";
+            }));
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+            assertThatThrownBy(() -> impatient.execute("KEY", () -> "not expected"))
+                .isInstanceOf(ServiceBusyException.class);
+
+            release.countDown();
+            assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo("value");
+            assertThat(impatient.inFlight()).isZero();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void shouldStartAFreshLoadAfterForget() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<String> stale = executor.submit(() -> flights.execute("KEY", () -> {
+                started.countDown();
+                await(release);
+                return "stale";
+            }));
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+            flights.forget("KEY");
+
+            assertThat(flights.execute("KEY", () -> "fresh")).isEqualTo("fresh");
+            release.countDown();
+            assertThat(stale.get(5, TimeUnit.SECONDS)).isEqualTo("stale");
+            assertThat(flights.inFlight()).isZero();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /** Starts every caller, waits until they are all past the start line, then lets the load finish. */
+    private static List<Future<String>> callConcurrently(Callable<String> call,
+                                                         CountDownLatch release) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+        CountDownLatch ready = new CountDownLatch(CALLERS);
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            results.add(executor.submit(() -> {
+                ready.countDown();
+                return call.call();
+            }));
+        }
+        assertThat(ready.await(5, TimeUnit.SECONDS)).isTrue();
+        Thread.sleep(100); // let the callers reach the in-flight map before the load completes
+        release.countDown();
+        executor.shutdown();
+        return results;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}